@@ -0,0 +1,334 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import com.zimuzhedang.subtitleblocker.domain.CloseButtonPosition;
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的设置仓库。
+ * 全部配置与上次悬浮窗位置保存在一条固定布局的二进制记录中，文件映射后读写都是内存操作，
+ * 不需要像 SharedPreferences 那样解析 XML 或在每次提交时重写整个文件。
+ * 文件包含两个带序号与 CRC32 校验的槽位，每次提交写入较旧的槽位，校验值最后写入；
+ * 加载时取校验通过且序号最大的槽位，写到一半被中断的记录会被丢弃并回退到上一次完整的提交。
+ * 文件中没有任何有效记录时（包括新建文件与首次提交前被中断的文件）从旧仓库迁移一次数据，之后不再读取旧仓库。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class MappedSettingsRepository implements SettingsRepository {
+    /** 映射文件名，位于应用私有的 files 目录 */
+    private static final String FILE_NAME = "settings.bin";
+    private static final int MAGIC = 0x53424C4B;
+    /** 记录布局版本，布局变化时递增，旧版本的槽位视为无效 */
+    private static final int LAYOUT_VERSION = 1;
+    /** ignoredUpdateVersion 的 UTF-8 编码最大字节数，超出时按未设置处理 */
+    static final int MAX_VERSION_BYTES = 64;
+    static final int SLOT_SIZE = 128;
+    private static final int FILE_SIZE = SLOT_SIZE * 2;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_LAYOUT_VERSION = 4;
+    private static final int OFFSET_SEQUENCE = 8;
+    private static final int OFFSET_FLAGS = 16;
+    private static final int OFFSET_CLOSE_POSITION = 20;
+    private static final int OFFSET_LANGUAGE = 21;
+    private static final int OFFSET_AUTO_RESTORE_SECONDS = 24;
+    private static final int OFFSET_DOT_SIZE = 28;
+    private static final int OFFSET_LAST_WIDTH = 32;
+    private static final int OFFSET_LAST_HEIGHT = 36;
+    private static final int OFFSET_LAST_X = 40;
+    private static final int OFFSET_LAST_Y = 44;
+    private static final int OFFSET_VERSION_LENGTH = 48;
+    private static final int OFFSET_VERSION_BYTES = 50;
+    /** 校验值位于槽位末尾，覆盖它之前的全部字节 */
+    private static final int OFFSET_CHECKSUM = SLOT_SIZE - 4;
+
+    private static final int FLAG_SOUND = 1;
+    private static final int FLAG_KEEP_ALIVE = 1 << 1;
+    private static final int FLAG_TRANSPARENCY_TOGGLE = 1 << 2;
+    private static final int FLAG_AUTO_RESTORE = 1 << 3;
+    private static final int FLAG_DOT_ROTATE = 1 << 4;
+    private static final int FLAG_HAS_LAST_STATE = 1 << 5;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final CloseButtonPosition[] CLOSE_POSITIONS = CloseButtonPosition.values();
+    private static final Settings.AppLanguage[] LANGUAGES = Settings.AppLanguage.values();
+
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private final byte[] slotBytes = new byte[OFFSET_CHECKSUM];
+    private Settings settings;
+    private boolean hasLastState;
+    private int lastWidth;
+    private int lastHeight;
+    private int lastX;
+    private int lastY;
+    private long sequence;
+    /** 下一次提交写入的槽位 */
+    private int nextSlot;
+
+    /**
+     * 构造函数，映射文件并加载最近一次完整的提交。
+     *
+     * @param file 映射文件，不存在时创建
+     * @param legacy 文件中没有有效记录时用于迁移的旧仓库，可为 null
+     * @throws IOException 文件无法创建或映射时抛出
+     */
+    public MappedSettingsRepository(File file, @Nullable SettingsRepository legacy) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (raf.length() < FILE_SIZE) {
+                raf.setLength(FILE_SIZE);
+            }
+            // 映射建立后即使关闭文件也保持有效
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        } finally {
+            raf.close();
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (!loadLatestSlot()) {
+            migrateFrom(legacy);
+        }
+    }
+
+    /**
+     * 创建位于应用 files 目录下的仓库，文件中没有有效记录时从 SharedPreferences 迁移。
+     *
+     * @param context Android 上下文
+     * @return 设置仓库
+     * @throws IOException 文件无法创建或映射时抛出
+     */
+    public static MappedSettingsRepository create(Context context) throws IOException {
+        Context appContext = context.getApplicationContext();
+        File file = new File(appContext.getFilesDir(), FILE_NAME);
+        // 文件存在不代表已有完整提交，是否迁移由构造函数按槽位校验结果决定
+        return new MappedSettingsRepository(file, new SharedPreferencesSettingsRepository(appContext));
+    }
+
+    @Override
+    public synchronized Settings loadSettings() {
+        return settings;
+    }
+
+    @Override
+    public synchronized void saveSettings(Settings settings) {
+        if (settings.equals(this.settings)) {
+            return;
+        }
+        this.settings = settings;
+        commit();
+    }
+
+    @Nullable
+    @Override
+    public synchronized OverlayState loadLastOverlayState() {
+        if (!hasLastState) {
+            return null;
+        }
+        return new OverlayState(
+                lastWidth,
+                lastHeight,
+                lastX,
+                lastY,
+                false,
+                settings.closeButtonPosition,
+                settings.soundEnabled,
+                settings.keepAliveEnabled,
+                settings.transparencyToggleEnabled,
+                false,
+                false,
+                false,
+                false
+        );
+    }
+
+    @Override
+    public synchronized void saveLastOverlayState(OverlayState state) {
+        hasLastState = true;
+        lastWidth = state.widthPx;
+        lastHeight = state.heightPx;
+        lastX = state.xPx;
+        lastY = state.yPx;
+        commit();
+    }
+
+    @Nullable
+    @Override
+    public synchronized String loadIgnoredUpdateVersion() {
+        String value = settings.ignoredUpdateVersion;
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void saveIgnoredUpdateVersion(@Nullable String normalizedVersion) {
+        String value = normalizedVersion == null || normalizedVersion.trim().isEmpty() ? null : normalizedVersion;
+        settings = settings.withIgnoredUpdateVersion(value);
+        commit();
+    }
+
+    /** 把映射内容同步写入存储设备，用于需要抵御断电的时机。 */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    private void migrateFrom(@Nullable SettingsRepository legacy) {
+        if (legacy == null) {
+            settings = Settings.defaultValue();
+        } else {
+            settings = legacy.loadSettings();
+            OverlayState state = legacy.loadLastOverlayState();
+            if (state != null) {
+                hasLastState = true;
+                lastWidth = state.widthPx;
+                lastHeight = state.heightPx;
+                lastX = state.xPx;
+                lastY = state.yPx;
+            }
+        }
+        commit();
+    }
+
+    /**
+     * 读取两个槽位，取校验通过且序号最大的一个。
+     *
+     * @return 是否找到有效记录
+     */
+    private boolean loadLatestSlot() {
+        int best = -1;
+        long bestSequence = Long.MIN_VALUE;
+        for (int slot = 0; slot < 2; slot++) {
+            int base = slot * SLOT_SIZE;
+            if (isValid(base) && buffer.getLong(base + OFFSET_SEQUENCE) > bestSequence) {
+                best = slot;
+                bestSequence = buffer.getLong(base + OFFSET_SEQUENCE);
+            }
+        }
+        if (best < 0) {
+            return false;
+        }
+        decode(best * SLOT_SIZE);
+        sequence = bestSequence;
+        nextSlot = 1 - best;
+        return true;
+    }
+
+    private boolean isValid(int base) {
+        return buffer.getInt(base + OFFSET_MAGIC) == MAGIC
+                && buffer.getInt(base + OFFSET_LAYOUT_VERSION) == LAYOUT_VERSION
+                && buffer.getInt(base + OFFSET_CHECKSUM) == checksum(base);
+    }
+
+    private int checksum(int base) {
+        for (int i = 0; i < OFFSET_CHECKSUM; i++) {
+            slotBytes[i] = buffer.get(base + i);
+        }
+        crc.reset();
+        crc.update(slotBytes, 0, OFFSET_CHECKSUM);
+        return (int) crc.getValue();
+    }
+
+    private void decode(int base) {
+        int flags = buffer.getInt(base + OFFSET_FLAGS);
+        Settings defaults = Settings.defaultValue();
+        int positionIndex = buffer.get(base + OFFSET_CLOSE_POSITION);
+        int languageIndex = buffer.get(base + OFFSET_LANGUAGE);
+        CloseButtonPosition position = positionIndex >= 0 && positionIndex < CLOSE_POSITIONS.length
+                ? CLOSE_POSITIONS[positionIndex] : defaults.closeButtonPosition;
+        Settings.AppLanguage language = languageIndex >= 0 && languageIndex < LANGUAGES.length
+                ? LANGUAGES[languageIndex] : defaults.appLanguage;
+        String ignoredVersion = null;
+        int versionLength = buffer.getShort(base + OFFSET_VERSION_LENGTH);
+        if (versionLength > 0 && versionLength <= MAX_VERSION_BYTES) {
+            byte[] bytes = new byte[versionLength];
+            for (int i = 0; i < versionLength; i++) {
+                bytes[i] = buffer.get(base + OFFSET_VERSION_BYTES + i);
+            }
+            ignoredVersion = new String(bytes, UTF_8);
+        }
+        settings = new Settings(
+                position,
+                (flags & FLAG_SOUND) != 0,
+                (flags & FLAG_KEEP_ALIVE) != 0,
+                language,
+                (flags & FLAG_TRANSPARENCY_TOGGLE) != 0,
+                (flags & FLAG_AUTO_RESTORE) != 0,
+                buffer.getInt(base + OFFSET_AUTO_RESTORE_SECONDS),
+                buffer.getInt(base + OFFSET_DOT_SIZE),
+                (flags & FLAG_DOT_ROTATE) != 0,
+                ignoredVersion
+        );
+        hasLastState = (flags & FLAG_HAS_LAST_STATE) != 0;
+        lastWidth = buffer.getInt(base + OFFSET_LAST_WIDTH);
+        lastHeight = buffer.getInt(base + OFFSET_LAST_HEIGHT);
+        lastX = buffer.getInt(base + OFFSET_LAST_X);
+        lastY = buffer.getInt(base + OFFSET_LAST_Y);
+    }
+
+    /** 把内存中的当前值写入较旧的槽位，校验值最后写入，作为该次提交的生效标记。 */
+    private void commit() {
+        int base = nextSlot * SLOT_SIZE;
+        // 先破坏旧校验值，保证写入中断时该槽位一定无效
+        buffer.putInt(base + OFFSET_CHECKSUM, ~buffer.getInt(base + OFFSET_CHECKSUM));
+        int flags = 0;
+        if (settings.soundEnabled) {
+            flags |= FLAG_SOUND;
+        }
+        if (settings.keepAliveEnabled) {
+            flags |= FLAG_KEEP_ALIVE;
+        }
+        if (settings.transparencyToggleEnabled) {
+            flags |= FLAG_TRANSPARENCY_TOGGLE;
+        }
+        if (settings.transparencyAutoRestoreEnabled) {
+            flags |= FLAG_AUTO_RESTORE;
+        }
+        if (settings.minimizeDotRotateEnabled) {
+            flags |= FLAG_DOT_ROTATE;
+        }
+        if (hasLastState) {
+            flags |= FLAG_HAS_LAST_STATE;
+        }
+        buffer.putInt(base + OFFSET_MAGIC, MAGIC);
+        buffer.putInt(base + OFFSET_LAYOUT_VERSION, LAYOUT_VERSION);
+        buffer.putLong(base + OFFSET_SEQUENCE, sequence + 1);
+        buffer.putInt(base + OFFSET_FLAGS, flags);
+        buffer.put(base + OFFSET_CLOSE_POSITION, (byte) settings.closeButtonPosition.ordinal());
+        buffer.put(base + OFFSET_LANGUAGE, (byte) settings.appLanguage.ordinal());
+        buffer.putShort(base + OFFSET_LANGUAGE + 1, (short) 0);
+        buffer.putInt(base + OFFSET_AUTO_RESTORE_SECONDS, settings.transparencyAutoRestoreSeconds);
+        buffer.putInt(base + OFFSET_DOT_SIZE, settings.minimizeDotSize);
+        buffer.putInt(base + OFFSET_LAST_WIDTH, lastWidth);
+        buffer.putInt(base + OFFSET_LAST_HEIGHT, lastHeight);
+        buffer.putInt(base + OFFSET_LAST_X, lastX);
+        buffer.putInt(base + OFFSET_LAST_Y, lastY);
+        byte[] version = settings.ignoredUpdateVersion == null
+                ? null : settings.ignoredUpdateVersion.getBytes(UTF_8);
+        int versionLength = version == null || version.length > MAX_VERSION_BYTES ? 0 : version.length;
+        buffer.putShort(base + OFFSET_VERSION_LENGTH, (short) versionLength);
+        for (int i = 0; i < MAX_VERSION_BYTES; i++) {
+            buffer.put(base + OFFSET_VERSION_BYTES + i, i < versionLength ? version[i] : 0);
+        }
+        for (int i = OFFSET_VERSION_BYTES + MAX_VERSION_BYTES; i < OFFSET_CHECKSUM; i++) {
+            buffer.put(base + i, (byte) 0);
+        }
+        buffer.putInt(base + OFFSET_CHECKSUM, checksum(base));
+        sequence++;
+        nextSlot = 1 - nextSlot;
+    }
+}
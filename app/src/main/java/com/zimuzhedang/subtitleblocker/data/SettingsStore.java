@@ -0,0 +1,249 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+import com.zimuzhedang.subtitleblocker.infra.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 进程级的设置存储。
+ * 在内存中持有不可变的 {@link Settings} 快照，读取时不再访问 SharedPreferences；
+ * 写入时先更新快照、再写穿到底层仓库，并向监听者发送变更通知。
+ * 在 {@link #beginTransaction()} 与 {@link #endTransaction()} 之间的写入只更新快照并通知监听者，
+ * 结束最外层事务时与上次提交的快照比较，有变化才向底层仓库提交一次，用于合并同一手势内的连续修改。
+ * 进程内实例默认使用延迟写入的 SharedPreferences；{@link MappedSettingsRepository} 仍为实验选项，默认关闭。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class SettingsStore implements SettingsRepository {
+    /**
+     * 设置变更监听器。
+     */
+    public interface Listener {
+        /**
+         * 设置快照发生变化时回调（在调用写入方法的线程上执行）。
+         *
+         * @param previous 变更前的快照
+         * @param current 变更后的快照
+         */
+        void onSettingsChanged(Settings previous, Settings current);
+    }
+
+    /** 是否使用内存映射文件保存设置，关闭时使用延迟写入的 SharedPreferences */
+    private static final boolean MAPPED_SETTINGS_ENABLED = false;
+
+    private static SettingsStore instance;
+
+    private final SettingsRepository delegate;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Settings snapshot;
+    /** 最近一次提交到底层仓库的快照 */
+    private Settings committed;
+    /** 事务嵌套深度，大于 0 时写入暂不提交 */
+    private int transactionDepth;
+    private OverlayState lastOverlayState;
+    private boolean lastOverlayStateLoaded;
+
+    /**
+     * 构造函数。
+     *
+     * @param delegate 负责持久化的底层仓库
+     */
+    public SettingsStore(SettingsRepository delegate) {
+        this.delegate = delegate;
+        this.snapshot = delegate.loadSettings();
+        this.committed = snapshot;
+    }
+
+    /**
+     * 获取进程内唯一的设置存储实例，首次调用时从底层仓库加载一次。
+     * 底层默认使用延迟写入的 SharedPreferences；启用 {@link #MAPPED_SETTINGS_ENABLED} 时改用
+     * {@link MappedSettingsRepository}，映射失败时仍退回到 SharedPreferences。
+     * 系统回调 onTrimMemory 时（包括界面退到后台）会立即落盘所有尚未写入的数据。
+     *
+     * @param context Android 上下文
+     * @return SettingsStore 实例
+     */
+    public static synchronized SettingsStore getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = new SettingsStore(createRepository(appContext));
+            appContext.registerComponentCallbacks(new ComponentCallbacks2() {
+                @Override
+                public void onTrimMemory(int level) {
+                    instance.flush();
+                }
+
+                @Override
+                public void onConfigurationChanged(@NonNull Configuration newConfig) {
+                }
+
+                @Override
+                public void onLowMemory() {
+                    instance.flush();
+                }
+            });
+        }
+        return instance;
+    }
+
+    private static SettingsRepository createRepository(Context appContext) {
+        if (MAPPED_SETTINGS_ENABLED) {
+            try {
+                return MappedSettingsRepository.create(appContext);
+            } catch (IOException e) {
+                Logger.e("mapped settings unavailable, falling back to shared preferences", e);
+            }
+        }
+        return WriteBehindSettingsRepository.onMainThread(new SharedPreferencesSettingsRepository(appContext));
+    }
+
+    /** 立即落盘底层仓库中尚未写入的数据。 */
+    public void flush() {
+        if (delegate instanceof WriteBehindSettingsRepository) {
+            ((WriteBehindSettingsRepository) delegate).flush();
+        } else if (delegate instanceof MappedSettingsRepository) {
+            ((MappedSettingsRepository) delegate).force();
+        }
+    }
+
+    /**
+     * 开始一次写入事务，可以嵌套。事务内的修改会立即反映到快照与监听者，但推迟到最外层事务结束时才提交。
+     */
+    public synchronized void beginTransaction() {
+        transactionDepth++;
+    }
+
+    /**
+     * 结束一次写入事务，最外层事务结束时把快照与上次提交的值比较，有变化才提交一次。
+     *
+     * @throws IllegalStateException 没有进行中的事务时抛出
+     */
+    public synchronized void endTransaction() {
+        if (transactionDepth == 0) {
+            throw new IllegalStateException("no transaction in progress");
+        }
+        transactionDepth--;
+        if (transactionDepth == 0) {
+            commitIfChanged();
+        }
+    }
+
+    /**
+     * 在一次事务中执行多项修改。
+     *
+     * @param edits 修改操作
+     */
+    public void runInTransaction(Runnable edits) {
+        beginTransaction();
+        try {
+            edits.run();
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /** @return 当前设置快照 */
+    public Settings get() {
+        return snapshot;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public Settings loadSettings() {
+        return snapshot;
+    }
+
+    @Override
+    public void saveSettings(Settings settings) {
+        Settings previous;
+        synchronized (this) {
+            previous = snapshot;
+            if (previous.equals(settings)) {
+                return;
+            }
+            snapshot = settings;
+            if (transactionDepth == 0) {
+                commitIfChanged();
+            }
+        }
+        notifyChanged(previous, settings);
+    }
+
+    @Nullable
+    @Override
+    public synchronized OverlayState loadLastOverlayState() {
+        if (!lastOverlayStateLoaded) {
+            lastOverlayState = delegate.loadLastOverlayState();
+            lastOverlayStateLoaded = true;
+        }
+        return lastOverlayState;
+    }
+
+    @Override
+    public synchronized void saveLastOverlayState(OverlayState state) {
+        lastOverlayState = state;
+        lastOverlayStateLoaded = true;
+        delegate.saveLastOverlayState(state);
+    }
+
+    @Nullable
+    @Override
+    public String loadIgnoredUpdateVersion() {
+        String value = snapshot.ignoredUpdateVersion;
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value;
+    }
+
+    @Override
+    public void saveIgnoredUpdateVersion(@Nullable String normalizedVersion) {
+        String value = normalizedVersion == null || normalizedVersion.trim().isEmpty() ? null : normalizedVersion;
+        Settings previous;
+        Settings updated;
+        synchronized (this) {
+            previous = snapshot;
+            updated = previous.withIgnoredUpdateVersion(value);
+            if (previous.equals(updated)) {
+                return;
+            }
+            snapshot = updated;
+            if (transactionDepth == 0) {
+                committed = updated;
+                delegate.saveIgnoredUpdateVersion(value);
+            }
+        }
+        notifyChanged(previous, updated);
+    }
+
+    private void commitIfChanged() {
+        if (!snapshot.equals(committed)) {
+            committed = snapshot;
+            delegate.saveSettings(snapshot);
+        }
+    }
+
+    private void notifyChanged(Settings previous, Settings current) {
+        for (Listener listener : listeners) {
+            listener.onSettingsChanged(previous, current);
+        }
+    }
+}
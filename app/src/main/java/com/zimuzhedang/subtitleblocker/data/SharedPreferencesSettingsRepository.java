@@ -12,6 +12,7 @@ import com.zimuzhedang.subtitleblocker.domain.Settings;
 /**
  * 基于 {@link SharedPreferences} 实现的设置仓库。
  * 将应用配置和悬浮窗状态持久化到本地 XML 文件中。
+ * 保存配置时与上次提交的快照逐项比较，只写入变化的键，没有变化时不提交。
  *
  * @author Trae
  * @since 2026-01-30
@@ -43,6 +44,9 @@ public final class SharedPreferencesSettingsRepository implements SettingsReposi
     private static final String KEY_LAST_Y = "last_y_px";
 
     private final SharedPreferences sharedPreferences;
+    /** 最近一次读取或提交的配置，首次保存前为 null */
+    @Nullable
+    private Settings committed;
 
     /**
      * 构造函数。
@@ -84,18 +88,43 @@ public final class SharedPreferencesSettingsRepository implements SettingsReposi
 
     @Override
     public void saveSettings(Settings settings) {
-        sharedPreferences.edit()
-                .putString(KEY_CLOSE_POSITION, settings.closeButtonPosition.name())
-                .putBoolean(KEY_SOUND_ENABLED, settings.soundEnabled)
-                .putBoolean(KEY_KEEP_ALIVE, settings.keepAliveEnabled)
-                .putString(KEY_LANGUAGE, settings.appLanguage.value)
-                .putBoolean(KEY_TRANSPARENCY_TOGGLE_ENABLED, settings.transparencyToggleEnabled)
-                .putBoolean(KEY_TRANSPARENCY_AUTO_RESTORE_ENABLED, settings.transparencyAutoRestoreEnabled)
-                .putInt(KEY_TRANSPARENCY_AUTO_RESTORE_SECONDS, settings.transparencyAutoRestoreSeconds)
-                .putInt(KEY_MINIMIZE_DOT_SIZE, settings.minimizeDotSize)
-                .putBoolean(KEY_MINIMIZE_DOT_ROTATE_ENABLED, settings.minimizeDotRotateEnabled)
-                .putString(KEY_IGNORED_UPDATE_VERSION, settings.ignoredUpdateVersion)
-                .apply();
+        Settings previous = committed != null ? committed : loadSettings();
+        if (previous.equals(settings)) {
+            return;
+        }
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        if (previous.closeButtonPosition != settings.closeButtonPosition) {
+            editor.putString(KEY_CLOSE_POSITION, settings.closeButtonPosition.name());
+        }
+        if (previous.soundEnabled != settings.soundEnabled) {
+            editor.putBoolean(KEY_SOUND_ENABLED, settings.soundEnabled);
+        }
+        if (previous.keepAliveEnabled != settings.keepAliveEnabled) {
+            editor.putBoolean(KEY_KEEP_ALIVE, settings.keepAliveEnabled);
+        }
+        if (previous.appLanguage != settings.appLanguage) {
+            editor.putString(KEY_LANGUAGE, settings.appLanguage.value);
+        }
+        if (previous.transparencyToggleEnabled != settings.transparencyToggleEnabled) {
+            editor.putBoolean(KEY_TRANSPARENCY_TOGGLE_ENABLED, settings.transparencyToggleEnabled);
+        }
+        if (previous.transparencyAutoRestoreEnabled != settings.transparencyAutoRestoreEnabled) {
+            editor.putBoolean(KEY_TRANSPARENCY_AUTO_RESTORE_ENABLED, settings.transparencyAutoRestoreEnabled);
+        }
+        if (previous.transparencyAutoRestoreSeconds != settings.transparencyAutoRestoreSeconds) {
+            editor.putInt(KEY_TRANSPARENCY_AUTO_RESTORE_SECONDS, settings.transparencyAutoRestoreSeconds);
+        }
+        if (previous.minimizeDotSize != settings.minimizeDotSize) {
+            editor.putInt(KEY_MINIMIZE_DOT_SIZE, settings.minimizeDotSize);
+        }
+        if (previous.minimizeDotRotateEnabled != settings.minimizeDotRotateEnabled) {
+            editor.putBoolean(KEY_MINIMIZE_DOT_ROTATE_ENABLED, settings.minimizeDotRotateEnabled);
+        }
+        if (!equalsNullable(previous.ignoredUpdateVersion, settings.ignoredUpdateVersion)) {
+            editor.putString(KEY_IGNORED_UPDATE_VERSION, settings.ignoredUpdateVersion);
+        }
+        editor.apply();
+        committed = settings;
     }
 
     @Override
@@ -150,8 +179,16 @@ public final class SharedPreferencesSettingsRepository implements SettingsReposi
     public void saveIgnoredUpdateVersion(@Nullable String normalizedVersion) {
         if (normalizedVersion == null || normalizedVersion.trim().isEmpty()) {
             sharedPreferences.edit().remove(KEY_IGNORED_UPDATE_VERSION).apply();
-            return;
+            normalizedVersion = null;
+        } else {
+            sharedPreferences.edit().putString(KEY_IGNORED_UPDATE_VERSION, normalizedVersion).apply();
+        }
+        if (committed != null) {
+            committed = committed.withIgnoredUpdateVersion(normalizedVersion);
         }
-        sharedPreferences.edit().putString(KEY_IGNORED_UPDATE_VERSION, normalizedVersion).apply();
+    }
+
+    private static boolean equalsNullable(@Nullable String a, @Nullable String b) {
+        return a == null ? b == null : a.equals(b);
     }
 }
@@ -0,0 +1,171 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+/**
+ * 延迟合并写入的设置仓库装饰器。
+ * {@link #saveSettings} 与 {@link #saveLastOverlayState} 只记录待写入的最新值并重新计时，
+ * 在一段静默期后才一次性写入底层仓库；静默期内的多次保存只产生一次写入，被合并掉的写入计入 {@link PerfMetrics}。
+ * 读取时优先返回待写入的值，因此对调用方而言行为与直接写入一致。
+ * 进程可能被回收的时机（onTrimMemory、悬浮窗运行时停止）需调用 {@link #flush()} 立即落盘。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class WriteBehindSettingsRepository implements SettingsRepository {
+    /** 实际写入底层仓库的次数 */
+    public static final String METRIC_WRITES = "settings.writes";
+    /** 被合并而省去的写入次数 */
+    public static final String METRIC_WRITES_AVOIDED = "settings.writes_avoided";
+    /** 默认静默期 (毫秒) */
+    public static final long DEFAULT_DELAY_MS = 500L;
+
+    /**
+     * 延迟任务调度器，便于在单元测试中替换主线程 Handler。
+     */
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+
+        void cancel(Runnable task);
+    }
+
+    private final SettingsRepository delegate;
+    private final Scheduler scheduler;
+    private final long delayMs;
+    private final Runnable flushTask = this::flush;
+    @Nullable
+    private Settings pendingSettings;
+    @Nullable
+    private OverlayState pendingOverlayState;
+    private boolean flushScheduled;
+
+    /**
+     * 构造函数。
+     *
+     * @param delegate 负责实际持久化的仓库
+     * @param scheduler 延迟任务调度器
+     * @param delayMs 静默期 (毫秒)
+     */
+    public WriteBehindSettingsRepository(SettingsRepository delegate, Scheduler scheduler, long delayMs) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.delayMs = delayMs;
+    }
+
+    /**
+     * 创建使用主线程 Handler 调度的实例。
+     *
+     * @param delegate 负责实际持久化的仓库
+     * @return 写入合并仓库
+     */
+    public static WriteBehindSettingsRepository onMainThread(SettingsRepository delegate) {
+        return new WriteBehindSettingsRepository(delegate, new HandlerScheduler(), DEFAULT_DELAY_MS);
+    }
+
+    @Override
+    public synchronized Settings loadSettings() {
+        return pendingSettings != null ? pendingSettings : delegate.loadSettings();
+    }
+
+    @Override
+    public synchronized void saveSettings(Settings settings) {
+        if (pendingSettings != null) {
+            PerfMetrics.increment(METRIC_WRITES_AVOIDED);
+        }
+        pendingSettings = settings;
+        scheduleFlush();
+    }
+
+    @Nullable
+    @Override
+    public synchronized OverlayState loadLastOverlayState() {
+        return pendingOverlayState != null ? pendingOverlayState : delegate.loadLastOverlayState();
+    }
+
+    @Override
+    public synchronized void saveLastOverlayState(OverlayState state) {
+        if (pendingOverlayState != null) {
+            PerfMetrics.increment(METRIC_WRITES_AVOIDED);
+        }
+        pendingOverlayState = state;
+        scheduleFlush();
+    }
+
+    @Nullable
+    @Override
+    public synchronized String loadIgnoredUpdateVersion() {
+        if (pendingSettings != null) {
+            String value = pendingSettings.ignoredUpdateVersion;
+            return value == null || value.trim().isEmpty() ? null : value;
+        }
+        return delegate.loadIgnoredUpdateVersion();
+    }
+
+    @Override
+    public synchronized void saveIgnoredUpdateVersion(@Nullable String normalizedVersion) {
+        // 待写入的设置中也包含忽略版本号，先落盘以免稍后被旧值覆盖
+        flush();
+        delegate.saveIgnoredUpdateVersion(normalizedVersion);
+        PerfMetrics.increment(METRIC_WRITES);
+    }
+
+    /** 立即把所有待写入的值写入底层仓库。 */
+    public synchronized void flush() {
+        if (flushScheduled) {
+            scheduler.cancel(flushTask);
+            flushScheduled = false;
+        }
+        if (pendingSettings != null) {
+            delegate.saveSettings(pendingSettings);
+            pendingSettings = null;
+            PerfMetrics.increment(METRIC_WRITES);
+        }
+        if (pendingOverlayState != null) {
+            delegate.saveLastOverlayState(pendingOverlayState);
+            pendingOverlayState = null;
+            PerfMetrics.increment(METRIC_WRITES);
+        }
+    }
+
+    /** @return 是否还有未写入的值 */
+    public synchronized boolean hasPendingWrites() {
+        return pendingSettings != null || pendingOverlayState != null;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            scheduler.cancel(flushTask);
+        }
+        scheduler.schedule(flushTask, delayMs);
+        flushScheduled = true;
+    }
+
+    /**
+     * 基于主线程 Handler 的调度器。
+     */
+    private static final class HandlerScheduler implements Scheduler {
+        private Handler handler;
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+            }
+            handler.postDelayed(task, delayMs);
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            if (handler != null) {
+                handler.removeCallbacks(task);
+            }
+        }
+    }
+}
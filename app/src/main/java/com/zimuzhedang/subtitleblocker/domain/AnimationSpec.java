@@ -2,7 +2,7 @@ package com.zimuzhedang.subtitleblocker.domain;
 
 /**
  * 动画规格配置类。
- * 定义了动画的时长和类型。
+ * 定义了动画的时长和类型，平移动画还可携带手指抬起时的初速度，使窗口从甩动状态连续过渡到静止位置。
  *
  * @author Trae
  * @since 2026-01-30
@@ -12,6 +12,10 @@ public final class AnimationSpec {
     public final long durationMs;
     /** 动画类型 */
     public final AnimType type;
+    /** X 轴初速度 (像素/秒) */
+    public final float velocityXPxPerSec;
+    /** Y 轴初速度 (像素/秒) */
+    public final float velocityYPxPerSec;
 
     /**
      * 构造函数。
@@ -20,8 +24,22 @@ public final class AnimationSpec {
      * @param type 动画类型
      */
     public AnimationSpec(long durationMs, AnimType type) {
+        this(durationMs, type, 0f, 0f);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param durationMs 动画时长
+     * @param type 动画类型
+     * @param velocityXPxPerSec X 轴初速度 (像素/秒)
+     * @param velocityYPxPerSec Y 轴初速度 (像素/秒)
+     */
+    public AnimationSpec(long durationMs, AnimType type, float velocityXPxPerSec, float velocityYPxPerSec) {
         this.durationMs = durationMs;
         this.type = type;
+        this.velocityXPxPerSec = velocityXPxPerSec;
+        this.velocityYPxPerSec = velocityYPxPerSec;
     }
 }
 
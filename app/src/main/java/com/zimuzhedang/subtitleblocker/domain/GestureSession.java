@@ -0,0 +1,212 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.core.graphics.Insets;
+
+/**
+ * 手势几何会话。
+ * 在一次拖拽或缩放手势期间，以可变的基本类型字段保存悬浮窗几何信息，并就地完成位置/尺寸约束与边缘吸附，
+ * 每个移动事件都不分配对象；只在需要向外发布时（每帧一次以及手势结束时）才生成不可变的 {@link OverlayState}。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class GestureSession {
+    /** 当前没有进行中的手势 */
+    public static final int MODE_NONE = 0;
+    /** 拖拽手势 */
+    public static final int MODE_DRAG = 1;
+    /** 缩放手势 */
+    public static final int MODE_RESIZE = 2;
+
+    private int mode = MODE_NONE;
+    private int xPx;
+    private int yPx;
+    private int widthPx;
+    private int heightPx;
+    /** 拖拽时参与位置约束的尺寸（最小化时为圆点尺寸） */
+    private int clampWidthPx;
+    private int clampHeightPx;
+    private int minWidthPx;
+    private int minHeightPx;
+    private int screenWidthPx;
+    private int screenHeightPx;
+    private int insetLeft;
+    private int insetTop;
+    private int insetRight;
+    private int insetBottom;
+    /** 自上次发布以来几何信息是否发生过变化 */
+    private boolean dirty;
+
+    /**
+     * 开始拖拽会话。
+     *
+     * @param state 手势开始时的状态
+     * @param bounds 屏幕边界
+     * @param clampWidthPx 参与位置约束的宽度
+     * @param clampHeightPx 参与位置约束的高度
+     */
+    public void beginDrag(OverlayState state, ScreenBounds bounds, int clampWidthPx, int clampHeightPx) {
+        begin(MODE_DRAG, state, bounds);
+        this.clampWidthPx = clampWidthPx;
+        this.clampHeightPx = clampHeightPx;
+    }
+
+    /**
+     * 开始缩放会话。
+     *
+     * @param state 手势开始时的状态
+     * @param bounds 屏幕边界
+     * @param minWidthPx 允许的最小宽度
+     * @param minHeightPx 允许的最小高度
+     */
+    public void beginResize(OverlayState state, ScreenBounds bounds, int minWidthPx, int minHeightPx) {
+        begin(MODE_RESIZE, state, bounds);
+        this.minWidthPx = minWidthPx;
+        this.minHeightPx = minHeightPx;
+    }
+
+    /** 结束当前会话。 */
+    public void end() {
+        mode = MODE_NONE;
+        dirty = false;
+    }
+
+    /** @return 当前会话模式，见 MODE_* 常量 */
+    public int getMode() {
+        return mode;
+    }
+
+    /** @return 是否存在进行中的会话 */
+    public boolean isActive() {
+        return mode != MODE_NONE;
+    }
+
+    /** @return 自上次发布以来几何信息是否发生过变化 */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public int getXPx() {
+        return xPx;
+    }
+
+    public int getYPx() {
+        return yPx;
+    }
+
+    public int getWidthPx() {
+        return widthPx;
+    }
+
+    public int getHeightPx() {
+        return heightPx;
+    }
+
+    /**
+     * 按偏移量移动并就地约束到安全区域内。
+     *
+     * @param dxPx X 轴偏移量
+     * @param dyPx Y 轴偏移量
+     * @return 位置是否发生变化
+     */
+    public boolean dragBy(int dxPx, int dyPx) {
+        return moveTo(xPx + dxPx, yPx + dyPx, clampWidthPx, clampHeightPx);
+    }
+
+    /**
+     * 按增量调整尺寸，就地约束尺寸后再约束位置。
+     *
+     * @param dwPx 宽度增量
+     * @param dhPx 高度增量
+     * @return 几何信息是否发生变化
+     */
+    public boolean resizeBy(int dwPx, int dhPx) {
+        int maxWidth = (int) (screenWidthPx * 0.8f);
+        int maxHeight = (int) (screenHeightPx * 0.8f);
+        int newWidth = OverlayConstraints.clamp(widthPx + dwPx, minWidthPx, Math.max(minWidthPx, maxWidth));
+        int newHeight = OverlayConstraints.clamp(heightPx + dhPx, minHeightPx, Math.max(minHeightPx, maxHeight));
+        boolean sizeChanged = newWidth != widthPx || newHeight != heightPx;
+        widthPx = newWidth;
+        heightPx = newHeight;
+        if (sizeChanged) {
+            dirty = true;
+        }
+        boolean moved = moveTo(xPx, yPx, widthPx, heightPx);
+        return sizeChanged || moved;
+    }
+
+    /**
+     * 当距离左右边缘在阈值内时吸附到较近的一侧，并保证最终位置位于安全区域内。
+     *
+     * @param thresholdPx 吸附阈值
+     * @return 位置是否发生变化
+     */
+    public boolean snapToEdge(int thresholdPx) {
+        int leftEdge = insetLeft;
+        int rightEdge = screenWidthPx - insetRight - clampWidthPx;
+        int distanceLeft = Math.abs(xPx - leftEdge);
+        int distanceRight = Math.abs(xPx - rightEdge);
+        int targetX = xPx;
+        if (distanceLeft <= thresholdPx || distanceRight <= thresholdPx) {
+            targetX = distanceLeft <= distanceRight ? leftEdge : rightEdge;
+        }
+        return moveTo(targetX, yPx, clampWidthPx, clampHeightPx);
+    }
+
+    /**
+     * 将会话中的几何信息发布为不可变状态，非几何字段取自 {@code current}。
+     *
+     * @param current 当前已发布的状态
+     * @return 新的状态对象
+     */
+    public OverlayState publish(OverlayState current) {
+        dirty = false;
+        return new OverlayState(
+                widthPx,
+                heightPx,
+                xPx,
+                yPx,
+                current.visible,
+                current.closeButtonPosition,
+                current.soundEnabled,
+                current.keepAliveEnabled,
+                current.transparencyToggleEnabled,
+                current.transparentMode,
+                mode == MODE_DRAG,
+                mode == MODE_RESIZE,
+                current.isMinimized
+        );
+    }
+
+    private void begin(int newMode, OverlayState state, ScreenBounds bounds) {
+        mode = newMode;
+        xPx = state.xPx;
+        yPx = state.yPx;
+        widthPx = state.widthPx;
+        heightPx = state.heightPx;
+        clampWidthPx = state.widthPx;
+        clampHeightPx = state.heightPx;
+        screenWidthPx = bounds.widthPx;
+        screenHeightPx = bounds.heightPx;
+        Insets insets = bounds.safeInsets;
+        insetLeft = insets.left;
+        insetTop = insets.top;
+        insetRight = insets.right;
+        insetBottom = insets.bottom;
+        dirty = false;
+    }
+
+    private boolean moveTo(int targetX, int targetY, int width, int height) {
+        int maxX = screenWidthPx - insetRight - width;
+        int maxY = screenHeightPx - insetBottom - height;
+        int clampedX = OverlayConstraints.clamp(targetX, insetLeft, Math.max(insetLeft, maxX));
+        int clampedY = OverlayConstraints.clamp(targetY, insetTop, Math.max(insetTop, maxY));
+        if (clampedX == xPx && clampedY == yPx) {
+            return false;
+        }
+        xPx = clampedX;
+        yPx = clampedY;
+        dirty = true;
+        return true;
+    }
+}
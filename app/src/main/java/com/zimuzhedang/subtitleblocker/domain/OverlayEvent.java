@@ -0,0 +1,180 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.annotation.Nullable;
+
+/**
+ * 悬浮窗交互事件，作为 {@link OverlayReducer} 的输入。
+ * 不带参数的事件使用共享的单例，高频的移动事件只携带基本类型参数。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class OverlayEvent {
+    /** 事件类型枚举 */
+    public enum Type {
+        /** 请求显示悬浮窗 */
+        SHOW,
+        /** 请求显示但缺少悬浮窗权限 */
+        PERMISSION_DENIED,
+        /** 请求隐藏悬浮窗 */
+        HIDE,
+        /** 点击关闭按钮 */
+        CLOSE_CLICK,
+        /** 淡出结束，悬浮窗已隐藏 */
+        HIDDEN,
+        DRAG_START,
+        DRAG_MOVE,
+        DRAG_END,
+        RESIZE_START,
+        RESIZE_MOVE,
+        RESIZE_END,
+        /** 屏幕尺寸或安全区域变化 */
+        BOUNDS_CHANGED,
+        /** 配置已变更，携带变更前的配置 */
+        SETTINGS_CHANGED,
+        MINIMIZE_TOGGLE,
+        TRANSPARENCY_TOGGLE,
+        /** 透明模式自动恢复计时到期 */
+        AUTO_RESTORE_TIMEOUT,
+        /** 应用导入的状态 */
+        IMPORT
+    }
+
+    private static final OverlayEvent PERMISSION_DENIED = new OverlayEvent(Type.PERMISSION_DENIED);
+    private static final OverlayEvent HIDE = new OverlayEvent(Type.HIDE);
+    private static final OverlayEvent CLOSE_CLICK = new OverlayEvent(Type.CLOSE_CLICK);
+    private static final OverlayEvent HIDDEN = new OverlayEvent(Type.HIDDEN);
+    private static final OverlayEvent DRAG_START = new OverlayEvent(Type.DRAG_START);
+    private static final OverlayEvent RESIZE_START = new OverlayEvent(Type.RESIZE_START);
+    private static final OverlayEvent RESIZE_END = new OverlayEvent(Type.RESIZE_END);
+    private static final OverlayEvent BOUNDS_CHANGED = new OverlayEvent(Type.BOUNDS_CHANGED);
+    private static final OverlayEvent MINIMIZE_TOGGLE = new OverlayEvent(Type.MINIMIZE_TOGGLE);
+    private static final OverlayEvent TRANSPARENCY_TOGGLE = new OverlayEvent(Type.TRANSPARENCY_TOGGLE);
+    private static final OverlayEvent AUTO_RESTORE_TIMEOUT = new OverlayEvent(Type.AUTO_RESTORE_TIMEOUT);
+
+    /** 事件类型 */
+    public final Type type;
+    /** 拖拽的 X 偏移量或缩放的宽度增量 (像素) */
+    public final int dxPx;
+    /** 拖拽的 Y 偏移量或缩放的高度增量 (像素) */
+    public final int dyPx;
+    /** 抬手时的 X 轴速度 (像素/秒) */
+    public final float velocityXPxPerSec;
+    /** 抬手时的 Y 轴速度 (像素/秒) */
+    public final float velocityYPxPerSec;
+    /** SHOW 时为上次保存的状态，IMPORT 时为导入的状态，BOUNDS_CHANGED 时为按新屏幕配置恢复的状态 */
+    @Nullable
+    public final OverlayState state;
+    /** SETTINGS_CHANGED 时为变更前的配置 */
+    @Nullable
+    public final Settings previousSettings;
+
+    private OverlayEvent(Type type) {
+        this(type, 0, 0, 0f, 0f, null, null);
+    }
+
+    private OverlayEvent(
+            Type type,
+            int dxPx,
+            int dyPx,
+            float velocityXPxPerSec,
+            float velocityYPxPerSec,
+            @Nullable OverlayState state,
+            @Nullable Settings previousSettings
+    ) {
+        this.type = type;
+        this.dxPx = dxPx;
+        this.dyPx = dyPx;
+        this.velocityXPxPerSec = velocityXPxPerSec;
+        this.velocityYPxPerSec = velocityYPxPerSec;
+        this.state = state;
+        this.previousSettings = previousSettings;
+    }
+
+    /**
+     * @param lastState 上次保存的状态，没有时为 null
+     */
+    public static OverlayEvent show(@Nullable OverlayState lastState) {
+        return new OverlayEvent(Type.SHOW, 0, 0, 0f, 0f, lastState, null);
+    }
+
+    public static OverlayEvent permissionDenied() {
+        return PERMISSION_DENIED;
+    }
+
+    public static OverlayEvent hide() {
+        return HIDE;
+    }
+
+    public static OverlayEvent closeClick() {
+        return CLOSE_CLICK;
+    }
+
+    public static OverlayEvent hidden() {
+        return HIDDEN;
+    }
+
+    public static OverlayEvent dragStart() {
+        return DRAG_START;
+    }
+
+    public static OverlayEvent dragMove(int dxPx, int dyPx) {
+        return new OverlayEvent(Type.DRAG_MOVE, dxPx, dyPx, 0f, 0f, null, null);
+    }
+
+    public static OverlayEvent dragEnd(float velocityXPxPerSec, float velocityYPxPerSec) {
+        return new OverlayEvent(Type.DRAG_END, 0, 0, velocityXPxPerSec, velocityYPxPerSec, null, null);
+    }
+
+    public static OverlayEvent resizeStart() {
+        return RESIZE_START;
+    }
+
+    public static OverlayEvent resizeMove(int dwPx, int dhPx) {
+        return new OverlayEvent(Type.RESIZE_MOVE, dwPx, dhPx, 0f, 0f, null, null);
+    }
+
+    public static OverlayEvent resizeEnd() {
+        return RESIZE_END;
+    }
+
+    public static OverlayEvent boundsChanged() {
+        return BOUNDS_CHANGED;
+    }
+
+    /**
+     * @param restoredState 已应用新屏幕配置下缓存几何的当前状态，没有缓存时为 null
+     */
+    public static OverlayEvent boundsChanged(@Nullable OverlayState restoredState) {
+        if (restoredState == null) {
+            return BOUNDS_CHANGED;
+        }
+        return new OverlayEvent(Type.BOUNDS_CHANGED, 0, 0, 0f, 0f, restoredState, null);
+    }
+
+    /**
+     * @param previous 变更前的配置，变更后的配置在归约时传入
+     */
+    public static OverlayEvent settingsChanged(Settings previous) {
+        return new OverlayEvent(Type.SETTINGS_CHANGED, 0, 0, 0f, 0f, null, previous);
+    }
+
+    public static OverlayEvent minimizeToggle() {
+        return MINIMIZE_TOGGLE;
+    }
+
+    public static OverlayEvent transparencyToggle() {
+        return TRANSPARENCY_TOGGLE;
+    }
+
+    public static OverlayEvent autoRestoreTimeout() {
+        return AUTO_RESTORE_TIMEOUT;
+    }
+
+    /**
+     * @param importedState 导入的状态
+     */
+    public static OverlayEvent importState(OverlayState importedState) {
+        return new OverlayEvent(Type.IMPORT, 0, 0, 0f, 0f, importedState, null);
+    }
+}
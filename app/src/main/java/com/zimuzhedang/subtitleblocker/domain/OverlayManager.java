@@ -1,7 +1,7 @@
 package com.zimuzhedang.subtitleblocker.domain;
 
 import android.content.Context;
-import com.zimuzhedang.subtitleblocker.data.SharedPreferencesSettingsRepository;
+import com.zimuzhedang.subtitleblocker.data.SettingsStore;
 import com.zimuzhedang.subtitleblocker.platform.DefaultScreenInfoProvider;
 import com.zimuzhedang.subtitleblocker.vm.OverlayViewModel;
 
@@ -39,7 +39,7 @@ public final class OverlayManager {
     public synchronized OverlayViewModel getViewModel(Context context) {
         if (viewModel == null) {
             viewModel = new OverlayViewModel(
-                new SharedPreferencesSettingsRepository(context.getApplicationContext()),
+                SettingsStore.getInstance(context),
                 new DefaultScreenInfoProvider(context.getApplicationContext())
             );
         }
@@ -0,0 +1,520 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.annotation.Nullable;
+import androidx.core.graphics.Insets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 悬浮窗状态归约器。
+ * 以 {@code (状态, 事件, 屏幕边界, 配置) -> (新状态, 动画, 副作用)} 的形式集中处理拖拽、缩放、吸附、最小化、透明模式等全部状态转换，
+ * 不读写仓库、不依赖 Android 运行时，可在纯 JVM 中测试，也可供其他前端复用。
+ * 拖拽/缩放的几何计算借助内部的 {@link GestureSession} 就地完成，会话从 DRAG_START/RESIZE_START 保持到对应的结束事件，
+ * 结果对象也由归约器复用，因此每个移动事件最多生成一个新状态，被约束住的移动事件不分配任何对象。
+ * 这些内部缓冲使实例不是线程安全的，每个线程应使用各自的实例。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class OverlayReducer {
+    /** 移动动画时长 (毫秒) */
+    public static final long MOVE_ANIM_MS = 150L;
+    /** 缩放动画时长 (毫秒) */
+    public static final long RESIZE_ANIM_MS = 200L;
+    /** 淡入淡出动画时长 (毫秒) */
+    public static final long FADE_ANIM_MS = 300L;
+    /** 甩动后弹簧回到静止位置的时长 (毫秒) */
+    public static final long FLING_SETTLE_MS = 250L;
+    /** 按抬手速度推算落点时使用的投射时间 (秒)，相当于以恒定摩擦减速滑行的距离 */
+    private static final float FLING_PROJECTION_SECONDS = 0.2f;
+    /** 与窗口几何动画器一致：临界阻尼弹簧在 ωt ≈ 6.6 时基本静止 */
+    private static final float SPRING_SETTLE_OMEGA_TIME = 6.6f;
+    private static final int MIN_AUTO_RESTORE_SECONDS = 1;
+    private static final int MAX_AUTO_RESTORE_SECONDS = 60;
+
+    /**
+     * 按当前屏幕密度换算好的像素尺寸。
+     */
+    public static final class Dimensions {
+        public final int minWidthPx;
+        public final int minHeightPx;
+        /** 边缘吸附阈值 */
+        public final int snapThresholdPx;
+        public final int defaultWidthPx;
+        public final int defaultHeightPx;
+        /** 最小化圆点的边长 */
+        public final int minimizedDotSizePx;
+
+        public Dimensions(
+                int minWidthPx,
+                int minHeightPx,
+                int snapThresholdPx,
+                int defaultWidthPx,
+                int defaultHeightPx,
+                int minimizedDotSizePx
+        ) {
+            this.minWidthPx = minWidthPx;
+            this.minHeightPx = minHeightPx;
+            this.snapThresholdPx = snapThresholdPx;
+            this.defaultWidthPx = defaultWidthPx;
+            this.defaultHeightPx = defaultHeightPx;
+            this.minimizedDotSizePx = minimizedDotSizePx;
+        }
+    }
+
+    /**
+     * 一次归约的结果。
+     * 同一个归约器每次返回同一个结果对象，内容在下一次归约时被覆盖，调用方应在再次归约之前读取完所需字段。
+     */
+    public static final class Result {
+        private OverlayState state;
+        private boolean animationChanged;
+        @Nullable
+        private AnimationSpec animation;
+        private boolean persistState;
+        @Nullable
+        private List<OneShotEffect> effects;
+
+        private Result() {
+        }
+
+        /** @return 新状态，未变化时与输入为同一对象 */
+        public OverlayState getState() {
+            return state;
+        }
+
+        /** @return 是否需要更新动画规格；为 false 时保留原有规格 */
+        public boolean isAnimationChanged() {
+            return animationChanged;
+        }
+
+        /** @return 新的动画规格，null 表示直接跳到新状态 */
+        @Nullable
+        public AnimationSpec getAnimation() {
+            return animation;
+        }
+
+        /** @return 新状态是否需要保存为上次状态 */
+        public boolean shouldPersistState() {
+            return persistState;
+        }
+
+        /** @return 按顺序排列的副作用 */
+        public List<OneShotEffect> getEffects() {
+            return effects != null ? effects : Collections.<OneShotEffect>emptyList();
+        }
+    }
+
+    private final Dimensions dimensions;
+    /** 手势几何会话，从 DRAG_START/RESIZE_START 保持到对应的结束事件 */
+    private final GestureSession session = new GestureSession();
+    /** 会话最近一次播种或发布的状态，传入的状态不是它时说明期间有其他事件改动了状态，需要重新播种 */
+    @Nullable
+    private OverlayState sessionState;
+    /** 播种会话时使用的屏幕边界 */
+    @Nullable
+    private ScreenBounds sessionBounds;
+    private final Result result = new Result();
+    /** 以下字段只在一次 reduce 调用内使用 */
+    private OverlayState nextState;
+    private boolean animationChanged;
+    @Nullable
+    private AnimationSpec nextAnimation;
+    private boolean persistState;
+    @Nullable
+    private List<OneShotEffect> effects;
+
+    /**
+     * 构造函数。
+     *
+     * @param dimensions 像素尺寸
+     */
+    public OverlayReducer(Dimensions dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    /** @return 构造时使用的像素尺寸 */
+    public Dimensions getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * 根据当前状态与事件计算新状态。
+     *
+     * @param state 当前状态
+     * @param event 事件
+     * @param bounds 屏幕边界
+     * @param settings 当前配置
+     * @return 归约结果
+     */
+    public Result reduce(OverlayState state, OverlayEvent event, ScreenBounds bounds, Settings settings) {
+        begin(state);
+        switch (event.type) {
+            case SHOW:
+                show(event.state, bounds, settings);
+                break;
+            case PERMISSION_DENIED:
+                emit(new OneShotEffect(OneShotEffect.Type.NAVIGATE_TO_PERMISSION));
+                break;
+            case HIDE:
+            case CLOSE_CLICK:
+                if (state.soundEnabled) {
+                    emit(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
+                }
+                // 淡出期间状态不变，不会触发渲染，因此淡出作为副作用交给运行时执行
+                emit(new OneShotEffect(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, FADE_ANIM_MS));
+                break;
+            case HIDDEN:
+                nextState = state.withVisibility(false);
+                break;
+            case DRAG_START:
+                nextState = state.withDragging(true);
+                animate(null);
+                ensureDragSession(nextState, bounds);
+                break;
+            case DRAG_MOVE:
+                dragMove(state, event.dxPx, event.dyPx, bounds);
+                break;
+            case DRAG_END:
+                dragEnd(state, event.velocityXPxPerSec, event.velocityYPxPerSec, bounds);
+                break;
+            case RESIZE_START:
+                nextState = state.withResizing(true);
+                animate(null);
+                ensureResizeSession(nextState, bounds);
+                break;
+            case RESIZE_MOVE:
+                resizeMove(state, event.dxPx, event.dyPx, bounds);
+                break;
+            case RESIZE_END:
+                endSession();
+                nextState = state.withResizing(false);
+                persistState = true;
+                animate(new AnimationSpec(RESIZE_ANIM_MS, AnimType.RESIZE));
+                break;
+            case BOUNDS_CHANGED:
+                if (event.state != null) {
+                    // 回到曾用过的屏幕配置：直接跳到当时的布局，不经过约束与移动动画
+                    nextState = clampPositionForCurrentMode(event.state, bounds);
+                    animate(null);
+                    break;
+                }
+                OverlayState clamped = OverlayConstraints.clampSize(
+                        state, bounds, dimensions.minWidthPx, dimensions.minHeightPx);
+                nextState = clampPositionForCurrentMode(clamped, bounds);
+                animate(new AnimationSpec(MOVE_ANIM_MS, AnimType.MOVE));
+                break;
+            case SETTINGS_CHANGED:
+                settingsChanged(state, event.previousSettings, bounds, settings);
+                break;
+            case MINIMIZE_TOGGLE:
+                nextState = clampPositionForCurrentMode(state.withMinimized(!state.isMinimized), bounds);
+                persistState = nextState.visible;
+                break;
+            case TRANSPARENCY_TOGGLE:
+                transparencyToggle(state, settings);
+                break;
+            case AUTO_RESTORE_TIMEOUT:
+                if (state.transparentMode) {
+                    nextState = state.withTransparentMode(false);
+                }
+                break;
+            case IMPORT:
+                importState(state, event.state, settings);
+                break;
+            default:
+                break;
+        }
+        return finish();
+    }
+
+    /**
+     * 归约一个拖拽移动事件，与以 {@link OverlayEvent#dragMove} 调用 {@link #reduce} 等价，省去每帧的事件对象。
+     *
+     * @param state 当前状态
+     * @param dxPx X 轴偏移量
+     * @param dyPx Y 轴偏移量
+     * @param bounds 屏幕边界
+     * @return 归约结果
+     */
+    public Result reduceDragMove(OverlayState state, int dxPx, int dyPx, ScreenBounds bounds) {
+        begin(state);
+        dragMove(state, dxPx, dyPx, bounds);
+        return finish();
+    }
+
+    /**
+     * 归约一个缩放移动事件，与以 {@link OverlayEvent#resizeMove} 调用 {@link #reduce} 等价，省去每帧的事件对象。
+     *
+     * @param state 当前状态
+     * @param dwPx 宽度增量
+     * @param dhPx 高度增量
+     * @param bounds 屏幕边界
+     * @return 归约结果
+     */
+    public Result reduceResizeMove(OverlayState state, int dwPx, int dhPx, ScreenBounds bounds) {
+        begin(state);
+        resizeMove(state, dwPx, dhPx, bounds);
+        return finish();
+    }
+
+    /**
+     * 构造悬浮窗的默认状态：默认尺寸，水平居中，位于屏幕 65% 高度处。
+     *
+     * @param settings 当前配置
+     * @param bounds 屏幕边界
+     * @return 默认状态
+     */
+    public OverlayState buildDefaultState(Settings settings, ScreenBounds bounds) {
+        int width = dimensions.defaultWidthPx;
+        int height = dimensions.defaultHeightPx;
+        int x = Math.max(bounds.safeInsets.left, (bounds.widthPx - width) / 2);
+        int y = Math.max(bounds.safeInsets.top, (int) (bounds.heightPx * 0.65f));
+        return new OverlayState(
+                width,
+                height,
+                x,
+                y,
+                false,
+                settings.closeButtonPosition,
+                settings.soundEnabled,
+                settings.keepAliveEnabled,
+                settings.transparencyToggleEnabled,
+                false,
+                false,
+                false,
+                false
+        );
+    }
+
+    /**
+     * 将自动恢复秒数限制在允许范围内。
+     *
+     * @param seconds 原始秒数
+     * @return 限制后的秒数
+     */
+    public static int normalizeAutoRestoreSeconds(int seconds) {
+        return OverlayConstraints.clamp(seconds, MIN_AUTO_RESTORE_SECONDS, MAX_AUTO_RESTORE_SECONDS);
+    }
+
+    private void show(@Nullable OverlayState lastState, ScreenBounds bounds, Settings settings) {
+        OverlayState base = lastState != null ? lastState : buildDefaultState(settings, bounds);
+        OverlayState updated = base
+                .withCloseButtonPosition(settings.closeButtonPosition)
+                .withSoundEnabled(settings.soundEnabled)
+                .withKeepAliveEnabled(settings.keepAliveEnabled)
+                .withTransparencyToggleEnabled(settings.transparencyToggleEnabled)
+                .withTransparentMode(false)
+                .withVisibility(true);
+        nextState = clampPositionForCurrentMode(updated, bounds);
+        animate(null);
+    }
+
+    private void dragMove(OverlayState state, int dxPx, int dyPx, ScreenBounds bounds) {
+        ensureDragSession(state, bounds);
+        // 被边缘约束住时位置不变，无需生成新状态
+        if (session.dragBy(dxPx, dyPx) || !state.isDragging) {
+            nextState = session.publish(state);
+            sessionState = nextState;
+            animate(null);
+        }
+    }
+
+    private void resizeMove(OverlayState state, int dwPx, int dhPx, ScreenBounds bounds) {
+        ensureResizeSession(state, bounds);
+        // 被约束住时尺寸和位置都不变，无需生成新状态
+        if (session.resizeBy(dwPx, dhPx) || !state.isResizing) {
+            nextState = session.publish(state);
+            sessionState = nextState;
+            animate(null);
+        }
+    }
+
+    /**
+     * 根据抬手速度推算最终落点并在落点上进行边缘吸附，随后以带初速度的弹簧动画一次性移动到静止位置。
+     */
+    private void dragEnd(OverlayState state, float velocityXPxPerSec, float velocityYPxPerSec, ScreenBounds bounds) {
+        ensureDragSession(state, bounds);
+        int releaseX = session.getXPx();
+        int releaseY = session.getYPx();
+        boolean fling = velocityXPxPerSec != 0f || velocityYPxPerSec != 0f;
+        if (fling) {
+            session.dragBy(Math.round(velocityXPxPerSec * FLING_PROJECTION_SECONDS),
+                    Math.round(velocityYPxPerSec * FLING_PROJECTION_SECONDS));
+        }
+        session.snapToEdge(dimensions.snapThresholdPx);
+        // 先结束会话再发布，发布出的状态即为 isDragging=false 的最终状态
+        endSession();
+        OverlayState snapped = session.publish(state);
+        long durationMs = fling ? FLING_SETTLE_MS : MOVE_ANIM_MS;
+        float omega = SPRING_SETTLE_OMEGA_TIME * 1000f / durationMs;
+        float vx = settleVelocity(velocityXPxPerSec, snapped.xPx - releaseX, omega);
+        float vy = settleVelocity(velocityYPxPerSec, snapped.yPx - releaseY, omega);
+        nextState = snapped;
+        persistState = true;
+        animate(new AnimationSpec(durationMs, AnimType.MOVE, vx, vy));
+    }
+
+    private void settingsChanged(OverlayState state, @Nullable Settings previous, ScreenBounds bounds, Settings settings) {
+        OverlayState updated = state
+                .withCloseButtonPosition(settings.closeButtonPosition)
+                .withSoundEnabled(settings.soundEnabled)
+                .withKeepAliveEnabled(settings.keepAliveEnabled)
+                .withTransparencyToggleEnabled(settings.transparencyToggleEnabled);
+        if (!settings.transparencyToggleEnabled && state.transparentMode) {
+            updated = updated.withTransparentMode(false);
+            emit(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
+        } else if (previous != null && previous.transparencyAutoRestoreEnabled
+                && !settings.transparencyAutoRestoreEnabled) {
+            emit(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
+        }
+        if (previous != null && previous.transparencyAutoRestoreSeconds != settings.transparencyAutoRestoreSeconds
+                && updated.transparentMode && settings.transparencyAutoRestoreEnabled) {
+            int seconds = normalizeAutoRestoreSeconds(settings.transparencyAutoRestoreSeconds);
+            emit(new OneShotEffect(OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY, seconds * 1000L));
+        }
+        if (previous != null && previous.minimizeDotSize != settings.minimizeDotSize) {
+            if (updated.isMinimized) {
+                updated = clampPositionForCurrentMode(updated, bounds);
+            }
+            persistState = updated.visible;
+        }
+        nextState = updated;
+    }
+
+    private void transparencyToggle(OverlayState state, Settings settings) {
+        if (!settings.transparencyToggleEnabled) {
+            return;
+        }
+        boolean nextTransparent = !state.transparentMode;
+        nextState = state.withTransparentMode(nextTransparent);
+        if (nextTransparent) {
+            if (settings.transparencyAutoRestoreEnabled) {
+                int seconds = normalizeAutoRestoreSeconds(settings.transparencyAutoRestoreSeconds);
+                emit(new OneShotEffect(OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY, seconds * 1000L));
+            }
+        } else {
+            emit(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
+        }
+    }
+
+    private void importState(OverlayState state, @Nullable OverlayState importedState, Settings settings) {
+        if (importedState == null) {
+            return;
+        }
+        nextState = new OverlayState(
+                importedState.widthPx,
+                importedState.heightPx,
+                importedState.xPx,
+                importedState.yPx,
+                state.visible,
+                settings.closeButtonPosition,
+                settings.soundEnabled,
+                settings.keepAliveEnabled,
+                settings.transparencyToggleEnabled,
+                false,
+                state.isDragging,
+                state.isResizing,
+                state.isMinimized
+        );
+    }
+
+    /**
+     * 保证存在与当前状态一致的拖拽会话。会话里的几何信息只在状态由会话自己发布时才可信，
+     * 其他事件（如屏幕旋转、最小化切换）插入后传入的状态不再是 {@link #sessionState}，此时从该状态重新播种。
+     */
+    private void ensureDragSession(OverlayState state, ScreenBounds bounds) {
+        if (session.getMode() == GestureSession.MODE_DRAG && state == sessionState && bounds == sessionBounds) {
+            return;
+        }
+        if (state.isMinimized) {
+            int dotSizePx = dimensions.minimizedDotSizePx;
+            session.beginDrag(state, bounds, dotSizePx, dotSizePx);
+        } else {
+            session.beginDrag(state, bounds, state.widthPx, state.heightPx);
+        }
+        sessionState = state;
+        sessionBounds = bounds;
+    }
+
+    /** 保证存在与当前状态一致的缩放会话，判断方式同 {@link #ensureDragSession}。 */
+    private void ensureResizeSession(OverlayState state, ScreenBounds bounds) {
+        if (session.getMode() == GestureSession.MODE_RESIZE && state == sessionState && bounds == sessionBounds) {
+            return;
+        }
+        session.beginResize(state, bounds, dimensions.minWidthPx, dimensions.minHeightPx);
+        sessionState = state;
+        sessionBounds = bounds;
+    }
+
+    private void endSession() {
+        session.end();
+        sessionState = null;
+        sessionBounds = null;
+    }
+
+    private void begin(OverlayState state) {
+        nextState = state;
+        animationChanged = false;
+        nextAnimation = null;
+        persistState = false;
+        effects = null;
+    }
+
+    private Result finish() {
+        result.state = nextState;
+        result.animationChanged = animationChanged;
+        result.animation = nextAnimation;
+        result.persistState = persistState;
+        result.effects = effects;
+        nextState = null;
+        nextAnimation = null;
+        effects = null;
+        return result;
+    }
+
+    private void animate(@Nullable AnimationSpec spec) {
+        animationChanged = true;
+        nextAnimation = spec;
+    }
+
+    private void emit(OneShotEffect effect) {
+        if (effects == null) {
+            effects = new ArrayList<>(2);
+        }
+        effects.add(effect);
+    }
+
+    private OverlayState clampPositionForCurrentMode(OverlayState state, ScreenBounds bounds) {
+        if (!state.isMinimized) {
+            return OverlayConstraints.clampPosition(state, bounds);
+        }
+        int dotSizePx = dimensions.minimizedDotSizePx;
+        Insets insets = bounds.safeInsets;
+        int minX = insets.left;
+        int minY = insets.top;
+        int maxX = bounds.widthPx - insets.right - dotSizePx;
+        int maxY = bounds.heightPx - insets.bottom - dotSizePx;
+        int clampedX = OverlayConstraints.clamp(state.xPx, minX, Math.max(minX, maxX));
+        int clampedY = OverlayConstraints.clamp(state.yPx, minY, Math.max(minY, maxY));
+        return state.withPosition(clampedX, clampedY);
+    }
+
+    /**
+     * 计算交给弹簧的初速度：与位移方向相反时清零，同向时限制在不越过落点的范围内，
+     * 避免窗口冲出屏幕边缘后再弹回。
+     *
+     * @param velocity 抬手速度 (像素/秒)
+     * @param distancePx 从抬手位置到落点的位移
+     * @param omega 弹簧角频率
+     */
+    private static float settleVelocity(float velocity, int distancePx, float omega) {
+        if (distancePx == 0 || (velocity > 0f) != (distancePx > 0)) {
+            return 0f;
+        }
+        float limit = Math.abs(distancePx) * omega;
+        return Math.max(-limit, Math.min(limit, velocity));
+    }
+}
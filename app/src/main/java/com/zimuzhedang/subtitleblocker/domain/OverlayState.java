@@ -312,4 +312,46 @@ public final class OverlayState {
                 isMinimized
         );
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OverlayState)) {
+            return false;
+        }
+        OverlayState other = (OverlayState) o;
+        return widthPx == other.widthPx
+                && heightPx == other.heightPx
+                && xPx == other.xPx
+                && yPx == other.yPx
+                && visible == other.visible
+                && closeButtonPosition == other.closeButtonPosition
+                && soundEnabled == other.soundEnabled
+                && keepAliveEnabled == other.keepAliveEnabled
+                && transparencyToggleEnabled == other.transparencyToggleEnabled
+                && transparentMode == other.transparentMode
+                && isDragging == other.isDragging
+                && isResizing == other.isResizing
+                && isMinimized == other.isMinimized;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = widthPx;
+        result = 31 * result + heightPx;
+        result = 31 * result + xPx;
+        result = 31 * result + yPx;
+        result = 31 * result + (visible ? 1 : 0);
+        result = 31 * result + (closeButtonPosition != null ? closeButtonPosition.hashCode() : 0);
+        result = 31 * result + (soundEnabled ? 1 : 0);
+        result = 31 * result + (keepAliveEnabled ? 1 : 0);
+        result = 31 * result + (transparencyToggleEnabled ? 1 : 0);
+        result = 31 * result + (transparentMode ? 1 : 0);
+        result = 31 * result + (isDragging ? 1 : 0);
+        result = 31 * result + (isResizing ? 1 : 0);
+        result = 31 * result + (isMinimized ? 1 : 0);
+        return result;
+    }
 }
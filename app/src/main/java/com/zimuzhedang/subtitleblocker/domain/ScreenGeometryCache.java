@@ -0,0 +1,159 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.annotation.Nullable;
+import androidx.core.graphics.Insets;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按屏幕配置保存的悬浮窗几何缓存。
+ * 以屏幕尺寸、安全区域内边距与密度作为键，记录悬浮窗在该配置下的位置与尺寸，
+ * 旋转回到曾经使用过的配置时直接恢复当时的布局，不再把另一方向上的矩形逐级约束过来。
+ * 查找为一次哈希查找；按最近使用保留有限条目，超出时淘汰最久未使用的配置。
+ * 不是线程安全的，只在主线程使用。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class ScreenGeometryCache {
+    /** 默认保留的配置数量：竖屏、横屏以及若干分屏/多窗口尺寸 */
+    public static final int DEFAULT_MAX_ENTRIES = 8;
+
+    /**
+     * 屏幕配置键。
+     */
+    public static final class Key {
+        private final int widthPx;
+        private final int heightPx;
+        private final int insetLeft;
+        private final int insetTop;
+        private final int insetRight;
+        private final int insetBottom;
+        private final int densityKey;
+        private final int hash;
+
+        private Key(int widthPx, int heightPx, Insets insets, int densityKey) {
+            this.widthPx = widthPx;
+            this.heightPx = heightPx;
+            this.insetLeft = insets.left;
+            this.insetTop = insets.top;
+            this.insetRight = insets.right;
+            this.insetBottom = insets.bottom;
+            this.densityKey = densityKey;
+            int h = widthPx;
+            h = 31 * h + heightPx;
+            h = 31 * h + insetLeft;
+            h = 31 * h + insetTop;
+            h = 31 * h + insetRight;
+            h = 31 * h + insetBottom;
+            this.hash = 31 * h + densityKey;
+        }
+
+        /**
+         * 创建屏幕配置键。
+         *
+         * @param bounds 屏幕边界
+         * @param densityKey 能区分屏幕密度的整数，例如固定 dp 值换算出的像素数
+         * @return 配置键
+         */
+        public static Key of(ScreenBounds bounds, int densityKey) {
+            return new Key(bounds.widthPx, bounds.heightPx, bounds.safeInsets, densityKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && widthPx == other.widthPx
+                    && heightPx == other.heightPx
+                    && insetLeft == other.insetLeft
+                    && insetTop == other.insetTop
+                    && insetRight == other.insetRight
+                    && insetBottom == other.insetBottom
+                    && densityKey == other.densityKey;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** 每个配置下的 {x, y, width, height}，按访问顺序排列 */
+    private final LinkedHashMap<Key, int[]> entries;
+
+    public ScreenGeometryCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param maxEntries 最多保留的配置数量
+     */
+    public ScreenGeometryCache(final int maxEntries) {
+        entries = new LinkedHashMap<Key, int[]>(maxEntries * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, int[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 记录悬浮窗在指定配置下的位置与尺寸。
+     *
+     * @param key 屏幕配置键
+     * @param state 悬浮窗状态，只使用其中的位置与尺寸
+     */
+    public void remember(Key key, OverlayState state) {
+        int[] geometry = entries.get(key);
+        if (geometry == null) {
+            geometry = new int[4];
+            entries.put(key, geometry);
+        }
+        geometry[0] = state.xPx;
+        geometry[1] = state.yPx;
+        geometry[2] = state.widthPx;
+        geometry[3] = state.heightPx;
+    }
+
+    /**
+     * 把指定配置下记录的位置与尺寸应用到目标状态上。
+     *
+     * @param key 屏幕配置键
+     * @param target 目标状态，其余字段保持不变
+     * @return 应用后的状态，该配置没有记录时返回 null
+     */
+    @Nullable
+    public OverlayState restore(Key key, OverlayState target) {
+        int[] geometry = entries.get(key);
+        if (geometry == null) {
+            return null;
+        }
+        OverlayState restored = target;
+        if (restored.widthPx != geometry[2] || restored.heightPx != geometry[3]) {
+            restored = restored.withSize(geometry[2], geometry[3]);
+        }
+        if (restored.xPx != geometry[0] || restored.yPx != geometry[1]) {
+            restored = restored.withPosition(geometry[0], geometry[1]);
+        }
+        return restored;
+    }
+
+    /** @return 当前保留的配置数量 */
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -102,6 +102,44 @@ public final class Settings {
         return new Settings(closeButtonPosition, soundEnabled, keepAliveEnabled, appLanguage, transparencyToggleEnabled, transparencyAutoRestoreEnabled, transparencyAutoRestoreSeconds, minimizeDotSize, minimizeDotRotateEnabled, version);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Settings)) {
+            return false;
+        }
+        Settings other = (Settings) o;
+        return closeButtonPosition == other.closeButtonPosition
+                && soundEnabled == other.soundEnabled
+                && keepAliveEnabled == other.keepAliveEnabled
+                && appLanguage == other.appLanguage
+                && transparencyToggleEnabled == other.transparencyToggleEnabled
+                && transparencyAutoRestoreEnabled == other.transparencyAutoRestoreEnabled
+                && transparencyAutoRestoreSeconds == other.transparencyAutoRestoreSeconds
+                && minimizeDotSize == other.minimizeDotSize
+                && minimizeDotRotateEnabled == other.minimizeDotRotateEnabled
+                && (ignoredUpdateVersion == null
+                        ? other.ignoredUpdateVersion == null
+                        : ignoredUpdateVersion.equals(other.ignoredUpdateVersion));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = closeButtonPosition != null ? closeButtonPosition.hashCode() : 0;
+        result = 31 * result + (soundEnabled ? 1 : 0);
+        result = 31 * result + (keepAliveEnabled ? 1 : 0);
+        result = 31 * result + (appLanguage != null ? appLanguage.hashCode() : 0);
+        result = 31 * result + (transparencyToggleEnabled ? 1 : 0);
+        result = 31 * result + (transparencyAutoRestoreEnabled ? 1 : 0);
+        result = 31 * result + transparencyAutoRestoreSeconds;
+        result = 31 * result + minimizeDotSize;
+        result = 31 * result + (minimizeDotRotateEnabled ? 1 : 0);
+        result = 31 * result + (ignoredUpdateVersion != null ? ignoredUpdateVersion.hashCode() : 0);
+        return result;
+    }
+
     public enum AppLanguage {
         SYSTEM("SYSTEM", ""),
         ZH("ZH", "zh"),
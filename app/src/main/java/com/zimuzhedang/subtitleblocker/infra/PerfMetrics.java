@@ -0,0 +1,101 @@
+package com.zimuzhedang.subtitleblocker.infra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 轻量性能计数器。
+ * 按名称累计窗口重排次数、掉帧数等指标，用于对比优化前后的效果，可通过 {@link #dump()} 输出到日志。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class PerfMetrics {
+    /** WindowManager.updateViewLayout 调用次数 */
+    public static final String WINDOW_RELAYOUT = "window.relayout";
+    /** 手势输入采样数（包含批量事件中的历史采样） */
+    public static final String GESTURE_INPUT_SAMPLES = "gesture.input_samples";
+    /** 手势合并后实际提交的帧数 */
+    public static final String GESTURE_FRAMES_COMMITTED = "gesture.frames_committed";
+    /** 手势期间 Choreographer 回调延迟导致的掉帧数 */
+    public static final String GESTURE_FRAMES_DROPPED = "gesture.frames_dropped";
+    /** 已用真实采样验证过的拖拽预测次数 */
+    public static final String GESTURE_PREDICTION_EVALUATED = "gesture.prediction_evaluated";
+    /** 拖拽预测误差累计值 (像素)，除以验证次数即为平均误差 */
+    public static final String GESTURE_PREDICTION_ERROR_PX = "gesture.prediction_error_px";
+
+    private static final ConcurrentHashMap<String, AtomicLong> COUNTERS = new ConcurrentHashMap<>();
+
+    private PerfMetrics() {
+    }
+
+    /**
+     * 计数器加一。
+     *
+     * @param name 计数器名称
+     */
+    public static void increment(String name) {
+        add(name, 1L);
+    }
+
+    /**
+     * 计数器累加指定值。
+     *
+     * @param name 计数器名称
+     * @param delta 增量
+     */
+    public static void add(String name, long delta) {
+        counter(name).addAndGet(delta);
+    }
+
+    /**
+     * 读取计数器当前值。
+     *
+     * @param name 计数器名称
+     * @return 当前值，未记录过则返回 0
+     */
+    public static long get(String name) {
+        AtomicLong counter = COUNTERS.get(name);
+        return counter != null ? counter.get() : 0L;
+    }
+
+    /** 清空所有计数器。 */
+    public static void reset() {
+        COUNTERS.clear();
+    }
+
+    /** 按名称顺序将所有计数器输出到日志。 */
+    public static void dump() {
+        List<String> names = new ArrayList<>(COUNTERS.keySet());
+        Collections.sort(names);
+        StringBuilder builder = new StringBuilder("perf metrics:");
+        for (String name : names) {
+            builder.append(' ').append(name).append('=').append(get(name));
+        }
+        Logger.i(builder.toString());
+    }
+
+    /** @return 所有计数器的快照副本 */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> copy = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : COUNTERS.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().get());
+        }
+        return copy;
+    }
+
+    private static AtomicLong counter(String name) {
+        AtomicLong counter = COUNTERS.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        AtomicLong created = new AtomicLong();
+        AtomicLong existing = COUNTERS.putIfAbsent(name, created);
+        return existing != null ? existing : created;
+    }
+}
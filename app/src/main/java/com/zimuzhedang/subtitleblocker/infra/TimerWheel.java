@@ -0,0 +1,376 @@
+package com.zimuzhedang.subtitleblocker.infra;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 哈希时间轮定时器。
+ * 定时任务按到期 tick 挂到环形桶的双向链表上，调度与取消都是 O(1)，适合悬浮窗隐藏、自动恢复等大量短时延迟任务；
+ * 超过一圈的任务仍挂在对应的桶上，按记录的到期 tick 判断是否属于当前圈；每个桶记录其中最早的到期 tick，
+ * 推进与唤醒都直接跳到下一个真正到期的桶，长时间空闲或只有远期任务时不会逐个 tick 转动。
+ * 时间来源 {@link Clock} 与唤醒方式 {@link Waker} 均可替换，单元测试中可用虚拟时钟直接推进时间，几毫秒内跑完数小时的定时活动。
+ * 任务在到期 tick 被处理时执行，最多比设定时间晚一个 tick。非线程安全，只应在同一线程（通常为主线程）使用。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class TimerWheel {
+    /** 已调度的定时任务数 */
+    public static final String METRIC_SCHEDULED = "timer.scheduled";
+    /** 已执行的定时任务数 */
+    public static final String METRIC_FIRED = "timer.fired";
+    /** 被取消的定时任务数 */
+    public static final String METRIC_CANCELLED = "timer.cancelled";
+    /** 时间轮被唤醒推进的次数 */
+    public static final String METRIC_WAKEUPS = "timer.wakeups";
+    /** 默认 tick 长度 (毫秒) */
+    public static final long DEFAULT_TICK_MS = 10L;
+    /** 默认桶数量，一圈约 5 秒 */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * 单调递增的时间来源。
+     */
+    public interface Clock {
+        /** @return 当前时间 (毫秒) */
+        long nowMillis();
+    }
+
+    /**
+     * 唤醒器，负责在指定延迟后调用时间轮的推进任务。
+     */
+    public interface Waker {
+        /**
+         * 在延迟后执行推进任务，之前请求的唤醒会被替换。
+         *
+         * @param advance 推进任务
+         * @param delayMs 延迟 (毫秒)
+         */
+        void wakeAfter(Runnable advance, long delayMs);
+
+        /**
+         * 取消尚未执行的唤醒。
+         *
+         * @param advance 推进任务
+         */
+        void cancel(Runnable advance);
+    }
+
+    /**
+     * 已调度的定时任务句柄。
+     */
+    public static final class Timer {
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        /** 到期 tick */
+        private long tick;
+        /** 所在桶下标，-1 表示已从桶中摘下 */
+        private int bucket = -1;
+        private Timer prev;
+        private Timer next;
+        private int state = PENDING;
+
+        private Timer(TimerWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** @return 到期时间 (毫秒，与 {@link Clock} 同一时间基准) */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /** @return 是否仍在等待执行 */
+        public boolean isPending() {
+            return state == PENDING;
+        }
+
+        /**
+         * 取消任务。
+         *
+         * @return 是否取消成功，已执行或已取消的任务返回 false
+         */
+        public boolean cancel() {
+            if (state != PENDING) {
+                return false;
+            }
+            state = CANCELLED;
+            wheel.onCancelled(this);
+            return true;
+        }
+    }
+
+    private final Clock clock;
+    private final Waker waker;
+    private final long tickMs;
+    private final int mask;
+    private final Timer[] heads;
+    private final Timer[] tails;
+    /** 每个桶中最早的到期 tick，空桶为 Long.MAX_VALUE；取消任务后可能偏小，只会多一次空查看 */
+    private final long[] bucketMinTicks;
+    private final long startTime;
+    private final Runnable advanceTask = this::advance;
+    private final List<Timer> expired = new ArrayList<>();
+    /** 下一个待处理的 tick */
+    private long currentTick;
+    private int pendingCount;
+    /** 已请求的唤醒时间，Long.MAX_VALUE 表示没有请求 */
+    private long wakeAt = Long.MAX_VALUE;
+    /** 推进时实际遍历过的非空桶数 */
+    private long bucketVisits;
+
+    /**
+     * 构造函数。
+     *
+     * @param clock 时间来源
+     * @param waker 唤醒器
+     * @param tickMs tick 长度 (毫秒)
+     * @param wheelSize 桶数量，会向上取整为 2 的幂
+     */
+    public TimerWheel(Clock clock, Waker waker, long tickMs, int wheelSize) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.clock = clock;
+        this.waker = waker;
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.heads = new Timer[size];
+        this.tails = new Timer[size];
+        this.bucketMinTicks = new long[size];
+        Arrays.fill(bucketMinTicks, Long.MAX_VALUE);
+        this.startTime = clock.nowMillis();
+    }
+
+    /**
+     * 创建以 {@link SystemClock#uptimeMillis()} 计时、由主线程 Handler 唤醒的时间轮。
+     *
+     * @return 时间轮
+     */
+    public static TimerWheel onMainThread() {
+        return new TimerWheel(SystemClock::uptimeMillis, new HandlerWaker(), DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * 调度定时任务。
+     *
+     * @param task 到期时执行的任务
+     * @param delayMs 延迟 (毫秒)，负数按 0 处理
+     * @return 任务句柄，可用于取消
+     */
+    public Timer schedule(Runnable task, long delayMs) {
+        long now = clock.nowMillis();
+        if (pendingCount == 0) {
+            // 空轮在空闲期间没有被推进，先快进到当前时间，避免之后从很久以前的 tick 开始转动
+            currentTick = Math.max(currentTick, (now - startTime) / tickMs);
+        }
+        long deadline = now + Math.max(0L, delayMs);
+        Timer timer = new Timer(this, task, deadline);
+        // 向上取整，保证处理该 tick 时时间已经不早于 deadline
+        long tick = Math.max(currentTick, (deadline - startTime + tickMs - 1) / tickMs);
+        timer.tick = tick;
+        link(timer, (int) (tick & mask));
+        pendingCount++;
+        PerfMetrics.increment(METRIC_SCHEDULED);
+        requestWake(startTime + tick * tickMs);
+        return timer;
+    }
+
+    /** 取消所有等待中的任务。 */
+    public void cancelAll() {
+        for (int i = 0; i < heads.length; i++) {
+            Timer timer = heads[i];
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.cancel();
+                timer = next;
+            }
+        }
+    }
+
+    /** @return 等待中的任务数 */
+    public int pendingCount() {
+        return pendingCount;
+    }
+
+    /** @return 推进时累计遍历过的非空桶数，用于诊断 */
+    public long bucketVisits() {
+        return bucketVisits;
+    }
+
+    /**
+     * 推进时间轮到时钟当前时间，依次执行已到期的任务。
+     * 通常由 {@link Waker} 调用，测试中可在修改虚拟时钟后直接调用。
+     */
+    public void advance() {
+        wakeAt = Long.MAX_VALUE;
+        PerfMetrics.increment(METRIC_WAKEUPS);
+        long nowTick = (clock.nowMillis() - startTime) / tickMs;
+        if (currentTick <= nowTick) {
+            // 每个桶在一圈内只需查看一次，跳过空桶与只有远期任务的桶；空轮无需查看任何桶
+            long span = pendingCount == 0 ? 0L : Math.min(nowTick - currentTick + 1, heads.length);
+            for (long i = 0; i < span; i++) {
+                int index = (int) ((currentTick + i) & mask);
+                if (bucketMinTicks[index] <= nowTick) {
+                    collectExpired(index, nowTick);
+                }
+            }
+            // 跨越超过一圈时，先查看的桶里可能有更晚到期的任务，按到期时间排序后执行
+            boolean wrapped = nowTick - currentTick >= heads.length;
+            currentTick = nowTick + 1;
+            if (!expired.isEmpty()) {
+                runExpired(wrapped);
+            }
+        }
+        scheduleNextWake();
+    }
+
+    private void collectExpired(int index, long nowTick) {
+        bucketVisits++;
+        long minTick = Long.MAX_VALUE;
+        Timer timer = heads[index];
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.tick <= nowTick) {
+                unlink(timer);
+                expired.add(timer);
+            } else if (timer.tick < minTick) {
+                minTick = timer.tick;
+            }
+            timer = next;
+        }
+        bucketMinTicks[index] = minTick;
+    }
+
+    private void runExpired(boolean sort) {
+        // 回调中可能再次调度或取消任务，先拷贝出本次推进的到期列表
+        Timer[] batch = expired.toArray(new Timer[0]);
+        expired.clear();
+        if (sort) {
+            Arrays.sort(batch, new Comparator<Timer>() {
+                @Override
+                public int compare(Timer a, Timer b) {
+                    return Long.compare(a.deadline, b.deadline);
+                }
+            });
+        }
+        for (Timer timer : batch) {
+            if (timer.state != Timer.PENDING) {
+                continue;
+            }
+            timer.state = Timer.EXPIRED;
+            pendingCount--;
+            PerfMetrics.increment(METRIC_FIRED);
+            timer.task.run();
+        }
+    }
+
+    private void scheduleNextWake() {
+        if (pendingCount == 0) {
+            waker.cancel(advanceTask);
+            return;
+        }
+        // 找到本圈内第一个到期的桶；本圈没有到期任务时唤醒在最早的远期到期 tick
+        long earliest = Long.MAX_VALUE;
+        for (int i = 0; i < heads.length; i++) {
+            long tick = currentTick + i;
+            long minTick = bucketMinTicks[(int) (tick & mask)];
+            if (minTick <= tick) {
+                earliest = tick;
+                break;
+            }
+            earliest = Math.min(earliest, minTick);
+        }
+        if (earliest != Long.MAX_VALUE) {
+            requestWake(startTime + earliest * tickMs);
+        }
+    }
+
+    private void requestWake(long time) {
+        if (time >= wakeAt) {
+            return;
+        }
+        wakeAt = time;
+        waker.wakeAfter(advanceTask, Math.max(0L, time - clock.nowMillis()));
+    }
+
+    private void onCancelled(Timer timer) {
+        if (timer.bucket >= 0) {
+            unlink(timer);
+        }
+        pendingCount--;
+        PerfMetrics.increment(METRIC_CANCELLED);
+        if (pendingCount == 0) {
+            waker.cancel(advanceTask);
+            wakeAt = Long.MAX_VALUE;
+        }
+    }
+
+    private void link(Timer timer, int index) {
+        if (timer.tick < bucketMinTicks[index]) {
+            bucketMinTicks[index] = timer.tick;
+        }
+        timer.bucket = index;
+        timer.prev = tails[index];
+        timer.next = null;
+        if (tails[index] != null) {
+            tails[index].next = timer;
+        } else {
+            heads[index] = timer;
+        }
+        tails[index] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        int index = timer.bucket;
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            heads[index] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        } else {
+            tails[index] = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+
+    /**
+     * 基于主线程 Handler 的唤醒器。
+     */
+    private static final class HandlerWaker implements Waker {
+        private Handler handler;
+
+        @Override
+        public void wakeAfter(Runnable advance, long delayMs) {
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+            }
+            handler.removeCallbacks(advance);
+            handler.postDelayed(advance, delayMs);
+        }
+
+        @Override
+        public void cancel(Runnable advance) {
+            if (handler != null) {
+                handler.removeCallbacks(advance);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.zimuzhedang.subtitleblocker.platform;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+
+import androidx.annotation.Nullable;
+
+import com.zimuzhedang.subtitleblocker.infra.Logger;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+import java.util.Locale;
+
+/**
+ * 动画降级调度器。
+ * 监听省电模式、温控状态 (Android 10+) 以及亮屏/灭屏广播，
+ * 据此把最小化圆点的动画逐级降低到只剩静止圆点，条件恢复后再逐级还原。
+ * 每次级别变化都会记录到 {@link PerfMetrics}。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class AnimationGovernor {
+    /**
+     * 动画级别，从完整动画到静止圆点依次递减。
+     */
+    public enum Level {
+        /** 完整动画 */
+        FULL(30, true, true),
+        /** 降低帧率 */
+        REDUCED(15, true, true),
+        /** 只保留低帧率的透明度呼吸 */
+        MINIMAL(8, false, true),
+        /** 静止圆点 */
+        STATIC(0, false, false);
+
+        /** 帧率上限 */
+        public final int maxFps;
+        /** 是否保留旋转、缩放与闪烁 */
+        public final boolean motionEnabled;
+        /** 是否运行动画 */
+        public final boolean animated;
+        private final String metricName;
+
+        Level(int maxFps, boolean motionEnabled, boolean animated) {
+            this.maxFps = maxFps;
+            this.motionEnabled = motionEnabled;
+            this.animated = animated;
+            this.metricName = "anim.level." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 动画级别变化监听器。
+     */
+    public interface Listener {
+        void onLevelChanged(Level level);
+    }
+
+    /** 级别变化次数 */
+    public static final String METRIC_LEVEL_CHANGES = "anim.level.changes";
+    /** 温控状态：与 {@code PowerManager.THERMAL_STATUS_*} 取值一致 */
+    private static final int THERMAL_STATUS_LIGHT = 1;
+    private static final int THERMAL_STATUS_MODERATE = 2;
+    private static final int THERMAL_STATUS_SEVERE = 3;
+
+    private final Context context;
+    private final Listener listener;
+    @Nullable
+    private final PowerManager powerManager;
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            String action = intent.getAction();
+            if (Intent.ACTION_SCREEN_OFF.equals(action)) {
+                screenOn = false;
+            } else if (Intent.ACTION_SCREEN_ON.equals(action)) {
+                screenOn = true;
+            }
+            evaluate();
+        }
+    };
+    @Nullable
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+    private boolean started;
+    private boolean screenOn = true;
+    private int thermalStatus;
+    private Level level = Level.FULL;
+
+    /**
+     * 构造函数。
+     *
+     * @param context 上下文
+     * @param listener 级别变化监听器，在主线程回调
+     */
+    public AnimationGovernor(Context context, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.listener = listener;
+        this.powerManager = (PowerManager) this.context.getSystemService(Context.POWER_SERVICE);
+    }
+
+    /** 开始监听系统状态，并立即按当前状态回调一次级别。 */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+        filter.addAction(Intent.ACTION_SCREEN_ON);
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        context.registerReceiver(receiver, filter);
+        if (powerManager != null) {
+            screenOn = powerManager.isInteractive();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                thermalStatus = powerManager.getCurrentThermalStatus();
+                thermalListener = status -> {
+                    thermalStatus = status;
+                    evaluate();
+                };
+                powerManager.addThermalStatusListener(thermalListener);
+            }
+        }
+        level = computeLevel();
+        recordLevel(level);
+        listener.onLevelChanged(level);
+    }
+
+    /** 停止监听系统状态。 */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        try {
+            context.unregisterReceiver(receiver);
+        } catch (IllegalArgumentException e) {
+            Logger.e("animation governor unregister failed", e);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && powerManager != null && thermalListener != null) {
+            powerManager.removeThermalStatusListener(thermalListener);
+            thermalListener = null;
+        }
+    }
+
+    /** @return 当前动画级别 */
+    public Level getLevel() {
+        return level;
+    }
+
+    private void evaluate() {
+        if (!started) {
+            return;
+        }
+        Level latest = computeLevel();
+        if (latest == level) {
+            return;
+        }
+        Logger.i("animation level " + level + " -> " + latest);
+        level = latest;
+        recordLevel(latest);
+        listener.onLevelChanged(latest);
+    }
+
+    private Level computeLevel() {
+        boolean powerSave = powerManager != null && powerManager.isPowerSaveMode();
+        return levelFor(powerSave, thermalStatus, screenOn);
+    }
+
+    private static void recordLevel(Level level) {
+        PerfMetrics.increment(METRIC_LEVEL_CHANGES);
+        PerfMetrics.increment(level.metricName);
+    }
+
+    /**
+     * 根据系统状态计算动画级别，取各条件中最严格的一项。
+     *
+     * @param powerSave 是否处于省电模式
+     * @param thermalStatus 温控状态，取值同 {@code PowerManager.THERMAL_STATUS_*}
+     * @param screenOn 屏幕是否点亮
+     * @return 动画级别
+     */
+    static Level levelFor(boolean powerSave, int thermalStatus, boolean screenOn) {
+        if (!screenOn || thermalStatus >= THERMAL_STATUS_SEVERE) {
+            return Level.STATIC;
+        }
+        if (thermalStatus == THERMAL_STATUS_MODERATE) {
+            return Level.MINIMAL;
+        }
+        if (powerSave && thermalStatus == THERMAL_STATUS_LIGHT) {
+            return Level.MINIMAL;
+        }
+        if (powerSave || thermalStatus == THERMAL_STATUS_LIGHT) {
+            return Level.REDUCED;
+        }
+        return Level.FULL;
+    }
+}
@@ -1,25 +1,41 @@
 package com.zimuzhedang.subtitleblocker.platform;
 
+import android.content.ComponentCallbacks;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.graphics.Point;
+import android.hardware.display.DisplayManager;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Display;
 import android.view.WindowInsets;
 import android.view.WindowManager;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.graphics.Insets;
 
 import com.zimuzhedang.subtitleblocker.domain.ScreenBounds;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
 
 /**
  * 屏幕信息提供者的默认实现。
  * 使用 {@link WindowManager} 和 {@link android.view.WindowMetrics} 获取实时屏幕数据。
+ * 屏幕边界只在配置变化、显示器变化或 insets 变化时重新读取，其余时间直接返回缓存，
+ * 拖拽/缩放的每个事件不再查询 WindowMetrics 或创建新的 Insets。
  *
  * @author Trae
  * @since 2026-01-30
  */
 public final class DefaultScreenInfoProvider implements ScreenInfoProvider {
+    /** 屏幕边界缓存的刷新次数 */
+    public static final String METRIC_BOUNDS_REFRESH = "screen.bounds.refresh";
+
     private final Context context;
     private final WindowManager windowManager;
+    private volatile ScreenBounds cachedBounds;
+    private Listener listener;
 
     /**
      * 构造函数。
@@ -29,10 +45,89 @@ public final class DefaultScreenInfoProvider implements ScreenInfoProvider {
     public DefaultScreenInfoProvider(Context context) {
         this.context = context.getApplicationContext();
         this.windowManager = (WindowManager) this.context.getSystemService(Context.WINDOW_SERVICE);
+        registerCallbacks();
     }
 
     @Override
     public ScreenBounds getCurrentBounds() {
+        ScreenBounds bounds = cachedBounds;
+        if (bounds == null) {
+            bounds = readBounds();
+            cachedBounds = bounds;
+            PerfMetrics.increment(METRIC_BOUNDS_REFRESH);
+        }
+        return bounds;
+    }
+
+    @Override
+    public int dpToPx(float dp) {
+        return Math.round(dp * context.getResources().getDisplayMetrics().density);
+    }
+
+    @Override
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void invalidate() {
+        refresh(false);
+    }
+
+    private void registerCallbacks() {
+        context.registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+                // 密度变化时边界可能不变，但 dp 换算结果需要更新，因此强制通知
+                refresh(true);
+            }
+
+            @Override
+            public void onLowMemory() {
+            }
+        });
+        DisplayManager displayManager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+        if (displayManager != null) {
+            displayManager.registerDisplayListener(new DisplayManager.DisplayListener() {
+                @Override
+                public void onDisplayAdded(int displayId) {
+                }
+
+                @Override
+                public void onDisplayRemoved(int displayId) {
+                }
+
+                @Override
+                public void onDisplayChanged(int displayId) {
+                    if (displayId == Display.DEFAULT_DISPLAY) {
+                        refresh(false);
+                    }
+                }
+            }, new Handler(Looper.getMainLooper()));
+        }
+    }
+
+    /**
+     * 重新读取屏幕边界，只有边界确实变化（或强制）时才通知监听器。
+     *
+     * @param forceNotify 即使边界未变化也通知
+     */
+    private void refresh(boolean forceNotify) {
+        ScreenBounds previous = cachedBounds;
+        ScreenBounds latest = readBounds();
+        cachedBounds = latest;
+        PerfMetrics.increment(METRIC_BOUNDS_REFRESH);
+        boolean changed = previous == null
+                || previous.widthPx != latest.widthPx
+                || previous.heightPx != latest.heightPx
+                || !previous.safeInsets.equals(latest.safeInsets);
+        Listener current = listener;
+        if ((changed || forceNotify) && current != null) {
+            current.onScreenChanged();
+        }
+    }
+
+    private ScreenBounds readBounds() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
             android.view.WindowMetrics metrics = windowManager.getCurrentWindowMetrics();
             android.graphics.Rect bounds = metrics.getBounds();
@@ -46,9 +141,4 @@ public final class DefaultScreenInfoProvider implements ScreenInfoProvider {
         Insets safeInsets = Insets.of(0, 0, 0, 0);
         return new ScreenBounds(size.x, size.y, safeInsets);
     }
-
-    @Override
-    public int dpToPx(float dp) {
-        return Math.round(dp * context.getResources().getDisplayMetrics().density);
-    }
 }
@@ -0,0 +1,14 @@
+package com.zimuzhedang.subtitleblocker.platform;
+
+/**
+ * 悬浮窗拖拽/缩放期间移动窗口的方式。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public enum DragMode {
+    /** 每帧修改 LayoutParams 并调用 updateViewLayout（跨进程重排） */
+    WINDOW_LAYOUT,
+    /** 手势期间临时放大窗口，通过渲染节点平移移动内容，手势结束后只提交一次窗口位置 */
+    TRANSLATION
+}
@@ -15,15 +15,20 @@ import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
  */
 public interface FloatWindowController {
     /**
-     * 显示悬浮窗。
+     * 显示悬浮窗。窗口在添加时即使用目标位置、尺寸与标志，首帧直接出现在正确的位置，无需再次重新布局。
      *
      * @param contentView 悬浮窗中要显示的 View
+     * @param rectPx 窗口的目标矩形 (像素)
+     * @param windowFlags 窗口标志，即 {@code WindowManager.LayoutParams.flags}
      */
-    void show(View contentView);
+    void show(View contentView, Rect rectPx, int windowFlags);
 
-    /** 隐藏并移除悬浮窗。 */
+    /** 隐藏悬浮窗。实现可以暂时保留窗口以便快速重新显示，需要确保移除时调用 {@link #release()}。 */
     void hide();
 
+    /** 隐藏并立即移除悬浮窗，释放窗口占用的资源。 */
+    void release();
+
     /** @return 悬浮窗当前是否正在显示 */
     boolean isShowing();
 
@@ -34,5 +39,18 @@ public interface FloatWindowController {
      * @param anim 动画规格，如果为 null 则立即更新
      */
     void update(Rect rectPx, @Nullable AnimationSpec anim);
+
+    /**
+     * 在当前位置淡出悬浮窗内容，结束后恢复不透明度，窗口本身由之后的 {@link #hide()} 隐藏。
+     *
+     * @param durationMs 淡出时长 (毫秒)
+     */
+    void fadeOut(long durationMs);
+
+    /** 拖拽或缩放手势开始，之后的 {@link #update} 调用属于同一手势。 */
+    void beginGesture();
+
+    /** 拖拽或缩放手势结束，收尾动画（如有）结束后完成本次手势。 */
+    void endGesture();
 }
 
@@ -16,8 +16,7 @@ import java.util.Locale;
 import androidx.annotation.Nullable;
 
 import com.zimuzhedang.subtitleblocker.R;
-import com.zimuzhedang.subtitleblocker.data.SettingsRepository;
-import com.zimuzhedang.subtitleblocker.data.SharedPreferencesSettingsRepository;
+import com.zimuzhedang.subtitleblocker.data.SettingsStore;
 import com.zimuzhedang.subtitleblocker.domain.Settings;
 import com.zimuzhedang.subtitleblocker.infra.Logger;
 import com.zimuzhedang.subtitleblocker.ui.MainActivity;
@@ -40,7 +39,8 @@ public final class KeepAliveService extends Service {
         super.onCreate();
         setupForeground();
         // 注意：KeepAliveService 只负责保持前台服务，不管理 OverlayRuntime
-        // OverlayRuntime 的生命周期完全由 MainActivity 管理
+        // OverlayRuntime 的生命周期完全由 MainActivity 管理，这里只在主线程空闲时预热悬浮窗视图
+        OverlayRuntime.getInstance().prewarm(this);
     }
 
     /**
@@ -107,8 +107,7 @@ public final class KeepAliveService extends Service {
     }
 
     private Context getLocalizedContext() {
-        SettingsRepository repository = new SharedPreferencesSettingsRepository(this);
-        Settings settings = repository.loadSettings();
+        Settings settings = SettingsStore.getInstance(this).get();
         return applyLanguage(this, settings.appLanguage);
     }
 
@@ -1,20 +1,27 @@
 package com.zimuzhedang.subtitleblocker.platform;
 
 import android.content.Context;
-import android.os.Handler;
 import android.os.Looper;
 
-import androidx.lifecycle.Observer;
+import androidx.annotation.Nullable;
+import androidx.core.graphics.Insets;
+import androidx.core.view.WindowInsetsCompat;
 
+import com.zimuzhedang.subtitleblocker.data.SettingsStore;
 import com.zimuzhedang.subtitleblocker.data.SoundPlayer;
 import com.zimuzhedang.subtitleblocker.data.ToneSoundPlayer;
 import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
 import com.zimuzhedang.subtitleblocker.domain.OneShotEffect;
 import com.zimuzhedang.subtitleblocker.domain.OverlayManager;
 import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+import com.zimuzhedang.subtitleblocker.infra.TimerWheel;
 import com.zimuzhedang.subtitleblocker.ui.OverlayViewBinder;
 import com.zimuzhedang.subtitleblocker.ui.OverlayWindowView;
+import com.zimuzhedang.subtitleblocker.vm.EffectChannel;
 import com.zimuzhedang.subtitleblocker.vm.OverlayViewModel;
+import com.zimuzhedang.subtitleblocker.vm.StateStore;
 
 /**
  * 悬浮窗运行时环境，负责连接 ViewModel 和具体的 Android 平台实现。
@@ -24,6 +31,28 @@ import com.zimuzhedang.subtitleblocker.vm.OverlayViewModel;
  * @since 2026-01-30
  */
 public final class OverlayRuntime {
+    /** 是否启用拖拽触摸预测 */
+    private static final boolean TOUCH_PREDICTION_ENABLED = false;
+    /**
+     * 是否使用单视图绘制遮挡区域，缩放时只有一个节点参与测量与布局。
+     * 单视图没有为按钮提供无障碍虚拟节点，默认关闭，仍使用带内容描述与焦点的按钮布局。
+     */
+    private static final boolean FLAT_BLOCKER_ENABLED = false;
+    /** 拖拽/缩放期间移动窗口的方式，{@link DragMode#TRANSLATION} 仍为实验选项 */
+    private static final DragMode DRAG_MODE = DragMode.WINDOW_LAYOUT;
+    /** 隐藏后保留窗口以便快速重新显示的空闲时长 (毫秒) */
+    private static final long SOFT_HIDE_IDLE_MS = 30_000L;
+    /** 展开后保留最小化圆点的时长 (毫秒)，超过后释放圆点视图与图层 */
+    private static final long DOT_RELEASE_DELAY_MS = 60_000L;
+    /** 淡出结束后再隐藏窗口的余量 (毫秒)，避免最后一帧淡出被截断 */
+    private static final long HIDE_AFTER_FADE_SLACK_MS = 20L;
+    /** 预热耗时 (微秒) */
+    private static final String METRIC_PREWARM_US = "overlay.prewarm_us";
+    /** 启动时命中预热对象的次数 */
+    private static final String METRIC_PREWARM_HIT = "overlay.prewarm.hit";
+    /** insets 分发但系统栏与刘海未变化、跳过屏幕信息刷新的次数 */
+    private static final String METRIC_INSETS_UNCHANGED = "screen.insets.unchanged";
+
     private static OverlayRuntime instance;
 
     private OverlayViewModel viewModel;
@@ -31,16 +60,29 @@ public final class OverlayRuntime {
     private FloatWindowController windowController;
     private OverlayViewBinder viewBinder;
     private SoundPlayer soundPlayer;
-    private final Handler handler = new Handler(Looper.getMainLooper());
+    private SettingsStore settingsStore;
+    /** 根据省电、温控与屏幕状态调整最小化圆点的动画级别 */
+    private AnimationGovernor animationGovernor;
+    /** 淡出后隐藏、透明模式自动恢复等延迟任务共用的时间轮 */
+    private final TimerWheel timers = TimerWheel.onMainThread();
     private AnimationSpec pendingAnim;
     private boolean started;
-    /** 用于精确取消隐藏任务的 Runnable 引用 */
-    private Runnable hideRunnable;
-    private Runnable restoreRunnable;
+    /** 用于精确取消隐藏任务的定时器句柄 */
+    private TimerWheel.Timer hideTimer;
+    private TimerWheel.Timer restoreTimer;
+    /** 主线程空闲时预先构建、尚未被 start 使用的视图和窗口控制器 */
+    private OverlayWindowView prewarmedView;
+    private WindowManagerFloatWindowController prewarmedController;
+    private boolean prewarmScheduled;
+    /** 上次收到的系统栏与刘海 insets，只有它们变化时才让屏幕信息重新读取 */
+    @Nullable
+    private Insets lastSafeInsets;
 
-    private final Observer<OverlayState> stateObserver = this::renderOverlay;
-    private final Observer<AnimationSpec> animObserver = spec -> pendingAnim = spec;
-    private final Observer<OneShotEffect> effectObserver = this::handleEffect;
+    private final StateStore.Subscriber<OverlayState> stateSubscriber = this::renderOverlay;
+    private final StateStore.Subscriber<AnimationSpec> animSubscriber = spec -> pendingAnim = spec;
+    private final EffectChannel.Subscriber effectSubscriber = this::handleEffect;
+    /** 圆点样式不属于 OverlayState，设置变化时需要主动重新渲染 */
+    private final SettingsStore.Listener settingsListener = this::onSettingsChanged;
 
     private OverlayRuntime() {}
 
@@ -56,6 +98,33 @@ public final class OverlayRuntime {
         return instance;
     }
 
+    /**
+     * 在主线程空闲时预先构建悬浮窗视图层级和窗口参数，使之后的 {@link #start(Context)} 不必在显示路径上解析布局。
+     * 必须在主线程调用；已启动或已预热时忽略。
+     *
+     * @param context Android 上下文
+     */
+    public synchronized void prewarm(Context context) {
+        if (started || prewarmScheduled || prewarmedView != null) {
+            return;
+        }
+        Context app = context.getApplicationContext();
+        prewarmScheduled = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            synchronized (OverlayRuntime.this) {
+                prewarmScheduled = false;
+                if (!started && prewarmedView == null) {
+                    long start = System.nanoTime();
+                    prewarmedController = createController(app);
+                    prewarmedController.prepare();
+                    prewarmedView = createView(app);
+                    PerfMetrics.add(METRIC_PREWARM_US, (System.nanoTime() - start) / 1000L);
+                }
+            }
+            return false;
+        });
+    }
+
     /**
      * 启动悬浮窗运行时。
      *
@@ -69,9 +138,16 @@ public final class OverlayRuntime {
         cancelPendingHide();
         cancelPendingRestore();
         viewModel = OverlayManager.getInstance().getViewModel(context.getApplicationContext());
-        windowController = new WindowManagerFloatWindowController(context.getApplicationContext());
-        overlayView = new OverlayWindowView(context.getApplicationContext());
-        viewBinder = new OverlayViewBinder(windowController, overlayView);
+        boolean prewarmed = prewarmedView != null;
+        windowController = prewarmed ? prewarmedController : createController(context.getApplicationContext());
+        overlayView = prewarmed ? prewarmedView : createView(context.getApplicationContext());
+        prewarmedView = null;
+        prewarmedController = null;
+        if (prewarmed) {
+            PerfMetrics.increment(METRIC_PREWARM_HIT);
+        }
+        settingsStore = SettingsStore.getInstance(context);
+        viewBinder = new OverlayViewBinder(windowController, overlayView, settingsStore);
         soundPlayer = new ToneSoundPlayer();
 
         overlayView.setListener(new OverlayWindowView.Listener() {
@@ -101,8 +177,8 @@ public final class OverlayRuntime {
             }
 
             @Override
-            public void onDragEnd() {
-                viewModel.onDragEnd();
+            public void onDragEnd(float velocityXPxPerSec, float velocityYPxPerSec) {
+                viewModel.onDragEnd(velocityXPxPerSec, velocityYPxPerSec);
             }
 
             @Override
@@ -120,10 +196,33 @@ public final class OverlayRuntime {
                 viewModel.onResizeEnd();
             }
         });
+        // 刘海/导航栏等安全区域变化只会体现在 insets 上，交由 ViewModel 判断是否需要重新约束；
+        // 移动或缩放窗口也会重新分发 insets，系统栏与刘海未变时不再重新读取 WindowMetrics
+        lastSafeInsets = null;
+        overlayView.setOnApplyWindowInsetsListener((v, insets) -> {
+            Insets safeInsets = WindowInsetsCompat.toWindowInsetsCompat(insets, v).getInsets(
+                    WindowInsetsCompat.Type.systemBars() | WindowInsetsCompat.Type.displayCutout());
+            if (!safeInsets.equals(lastSafeInsets)) {
+                lastSafeInsets = safeInsets;
+                viewModel.onWindowInsetsChanged();
+            } else {
+                PerfMetrics.increment(METRIC_INSETS_UNCHANGED);
+            }
+            return v.onApplyWindowInsets(insets);
+        });
 
-        viewModel.getOverlayState().observeForever(stateObserver);
-        viewModel.getAnimationSpec().observeForever(animObserver);
-        viewModel.getEffect().observeForever(effectObserver);
+        viewModel.getOverlayState().subscribe(stateSubscriber);
+        viewModel.getAnimationSpec().subscribe(animSubscriber);
+        // 订阅时回放的是上一次的动画规格，不应作用于之后的渲染
+        pendingAnim = null;
+        // PLAY_SOUND 和 NAVIGATE_TO_PERMISSION 由 MainActivity 订阅
+        viewModel.getEffects().subscribe(effectSubscriber,
+                OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE,
+                OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY,
+                OneShotEffect.Type.CANCEL_RESTORE_DELAY);
+        settingsStore.addListener(settingsListener);
+        animationGovernor = new AnimationGovernor(context, overlayView::setAnimationLevel);
+        animationGovernor.start();
         started = true;
     }
 
@@ -134,36 +233,61 @@ public final class OverlayRuntime {
         if (!started) {
             return;
         }
-        // 取消所有待执行的 Handler 任务，防止已注册的隐藏任务在 stop 后仍然执行
+        // 取消所有待执行的定时任务，防止已注册的隐藏任务在 stop 后仍然执行
         cancelPendingHide();
         cancelPendingRestore();
+        timers.cancelAll();
         if (viewModel != null) {
-            viewModel.getOverlayState().removeObserver(stateObserver);
-            viewModel.getAnimationSpec().removeObserver(animObserver);
-            viewModel.getEffect().removeObserver(effectObserver);
+            viewModel.getOverlayState().unsubscribe(stateSubscriber);
+            viewModel.getAnimationSpec().unsubscribe(animSubscriber);
+            viewModel.getEffects().unsubscribe(effectSubscriber);
+        }
+        if (settingsStore != null) {
+            settingsStore.removeListener(settingsListener);
+        }
+        if (animationGovernor != null) {
+            animationGovernor.stop();
+            animationGovernor = null;
         }
         if (windowController != null) {
-            windowController.hide();
+            // 运行时停止后不再需要保留窗口
+            windowController.release();
+        }
+        if (settingsStore != null) {
+            settingsStore.flush();
         }
+        PerfMetrics.dump();
         started = false;
     }
 
+    private static WindowManagerFloatWindowController createController(Context app) {
+        WindowManagerFloatWindowController controller = new WindowManagerFloatWindowController(app);
+        controller.setDragMode(DRAG_MODE);
+        controller.setSoftHideIdleMs(SOFT_HIDE_IDLE_MS);
+        return controller;
+    }
+
+    private static OverlayWindowView createView(Context app) {
+        OverlayWindowView view = new OverlayWindowView(app, FLAT_BLOCKER_ENABLED);
+        view.setTouchPredictionEnabled(TOUCH_PREDICTION_ENABLED);
+        view.setDotReleaseDelayMs(DOT_RELEASE_DELAY_MS);
+        return view;
+    }
+
     /**
      * 取消待执行的隐藏任务。
      */
     private void cancelPendingHide() {
-        if (hideRunnable != null) {
-            handler.removeCallbacks(hideRunnable);
-            hideRunnable = null;
+        if (hideTimer != null) {
+            hideTimer.cancel();
+            hideTimer = null;
         }
-        // 额外清除所有可能残留的回调
-        handler.removeCallbacksAndMessages(null);
     }
 
     private void cancelPendingRestore() {
-        if (restoreRunnable != null) {
-            handler.removeCallbacks(restoreRunnable);
-            restoreRunnable = null;
+        if (restoreTimer != null) {
+            restoreTimer.cancel();
+            restoreTimer = null;
         }
     }
 
@@ -181,61 +305,55 @@ public final class OverlayRuntime {
         pendingAnim = null;
     }
 
+    private void onSettingsChanged(Settings previous, Settings current) {
+        if (!started || viewModel == null) {
+            return;
+        }
+        if (previous.minimizeDotSize != current.minimizeDotSize
+                || previous.minimizeDotRotateEnabled != current.minimizeDotRotateEnabled) {
+            renderOverlay(viewModel.getOverlayState().getValue());
+        }
+    }
+
     /**
      * 处理一次性副作用。
      *
      * @param effect 副作用类型
      */
     private void handleEffect(OneShotEffect effect) {
-        if (effect == null) {
-            return;
-        }
-        // OverlayRuntime 只处理 REQUEST_HIDE_AFTER_FADE
-        // PLAY_SOUND 和 NAVIGATE_TO_PERMISSION 由 MainActivity 处理
-        if (effect.type == OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE) {
-            // 使用 consume() 确保每个副作用只被处理一次
-            if (!effect.consume()) {
-                return;
-            }
-            // 先取消之前可能存在的隐藏任务，避免重复执行
-            cancelPendingHide();
-            cancelPendingRestore();
-            hideRunnable = () -> {
-                if (!started) {
-                    // 如果已经停止，不执行隐藏操作
-                    return;
-                }
-                windowController.hide();
-                viewModel.onOverlayHidden();
-                hideRunnable = null;
-                // 注意：不再调用 stopCallback，避免服务自杀
-            };
-            handler.postDelayed(hideRunnable, 320L);
-            viewModel.clearEffect();
-        }
-        if (effect.type == OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY) {
-            if (!effect.consume()) {
-                return;
-            }
-            cancelPendingRestore();
-            restoreRunnable = () -> {
-                if (!started) {
-                    return;
-                }
-                viewModel.onTransparencyAutoRestoreTimeout();
-                restoreRunnable = null;
-            };
-            long delay = Math.max(0L, effect.delayMs);
-            handler.postDelayed(restoreRunnable, delay);
-            viewModel.clearEffect();
-        }
-        if (effect.type == OneShotEffect.Type.CANCEL_RESTORE_DELAY) {
-            if (!effect.consume()) {
-                return;
-            }
-            cancelPendingRestore();
-            viewModel.clearEffect();
+        switch (effect.type) {
+            case REQUEST_HIDE_AFTER_FADE:
+                // 先取消之前可能存在的隐藏任务，避免重复执行
+                cancelPendingHide();
+                cancelPendingRestore();
+                viewBinder.fadeOut(effect.delayMs);
+                hideTimer = timers.schedule(() -> {
+                    hideTimer = null;
+                    if (!started) {
+                        // 如果已经停止，不执行隐藏操作
+                        return;
+                    }
+                    windowController.hide();
+                    viewModel.onOverlayHidden();
+                    // 注意：不再调用 stopCallback，避免服务自杀
+                }, effect.delayMs + HIDE_AFTER_FADE_SLACK_MS);
+                break;
+            case REQUEST_RESTORE_AFTER_DELAY:
+                cancelPendingRestore();
+                restoreTimer = timers.schedule(() -> {
+                    restoreTimer = null;
+                    if (!started) {
+                        return;
+                    }
+                    viewModel.onTransparencyAutoRestoreTimeout();
+                }, effect.delayMs);
+                break;
+            case CANCEL_RESTORE_DELAY:
+                cancelPendingRestore();
+                break;
+            default:
+                // 其他类型的 effect 不在这里处理
+                break;
         }
-        // 其他类型的 effect 不在这里处理
     }
 }
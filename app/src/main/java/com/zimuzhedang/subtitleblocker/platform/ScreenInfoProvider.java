@@ -1,5 +1,7 @@
 package com.zimuzhedang.subtitleblocker.platform;
 
+import androidx.annotation.Nullable;
+
 import com.zimuzhedang.subtitleblocker.domain.ScreenBounds;
 
 /**
@@ -10,6 +12,14 @@ import com.zimuzhedang.subtitleblocker.domain.ScreenBounds;
  * @since 2026-01-30
  */
 public interface ScreenInfoProvider {
+    /**
+     * 屏幕边界变化监听器。
+     */
+    interface Listener {
+        /** 屏幕尺寸、安全区域或密度发生变化时回调（主线程） */
+        void onScreenChanged();
+    }
+
     /**
      * 获取当前屏幕的边界信息。
      *
@@ -24,5 +34,16 @@ public interface ScreenInfoProvider {
      * @return 转换后的像素值
      */
     int dpToPx(float dp);
-}
 
+    /**
+     * 设置屏幕变化监听器。
+     *
+     * @param listener 监听器，传 null 表示移除
+     */
+    void setListener(@Nullable Listener listener);
+
+    /**
+     * 通知提供者屏幕信息可能已变化（如窗口 insets 更新），需要重新读取。
+     */
+    void invalidate();
+}
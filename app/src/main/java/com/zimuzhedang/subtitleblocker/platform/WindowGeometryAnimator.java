@@ -0,0 +1,204 @@
+package com.zimuzhedang.subtitleblocker.platform;
+
+import android.view.Choreographer;
+
+/**
+ * 悬浮窗几何动画器。
+ * 由 {@link Choreographer} 驱动，对 X、Y、宽、高四个通道分别使用临界阻尼弹簧求解，
+ * 运行中可以随时切换目标，切换时保留当前位置与速度，因此不会出现多个动画同时争抢窗口布局的情况。
+ * 每帧只更新基本类型字段，不分配对象；取整后的矩形与上一帧相同时不提交。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class WindowGeometryAnimator implements Choreographer.FrameCallback {
+    /**
+     * 动画帧接收者。
+     */
+    public interface Sink {
+        /**
+         * 提交一帧的窗口几何信息。
+         *
+         * @param xPx 左上角 X 坐标
+         * @param yPx 左上角 Y 坐标
+         * @param widthPx 宽度
+         * @param heightPx 高度
+         */
+        void onAnimationFrame(int xPx, int yPx, int widthPx, int heightPx);
+
+        /** 动画自然停止（到达目标并静止）时回调，被打断或取消时不回调。 */
+        void onAnimationSettled();
+    }
+
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int WIDTH = 2;
+    private static final int HEIGHT = 3;
+    private static final int CHANNELS = 4;
+    /** 临界阻尼弹簧在 ωt ≈ 6.6 时剩余位移约为初始的 1%，据此由期望时长换算角频率 */
+    private static final float SETTLE_OMEGA_TIME = 6.6f;
+    /** 位移与速度都低于阈值时视为静止 */
+    private static final float REST_DISTANCE_PX = 0.5f;
+    private static final float REST_VELOCITY_PX = 20f;
+    /** 单帧最大步长，避免卸载/卡顿后一次跳过整个动画 */
+    private static final float MAX_STEP_SECONDS = 0.05f;
+
+    private final Sink sink;
+    private final float[] position = new float[CHANNELS];
+    /** 速度 (像素/秒) */
+    private final float[] velocity = new float[CHANNELS];
+    private final int[] target = new int[CHANNELS];
+    private final int[] lastApplied = new int[CHANNELS];
+    private float omega;
+    private long lastFrameNanos;
+    private boolean running;
+    private Choreographer choreographer;
+
+    /**
+     * 构造函数。
+     *
+     * @param sink 动画帧接收者
+     */
+    public WindowGeometryAnimator(Sink sink) {
+        this.sink = sink;
+    }
+
+    /** @return 动画是否正在运行 */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 停止动画并把当前几何信息设为给定值，速度清零。
+     * 用于立即更新窗口时同步动画器的起点。
+     */
+    public void jumpTo(int xPx, int yPx, int widthPx, int heightPx) {
+        cancel();
+        set(position, xPx, yPx, widthPx, heightPx);
+        set(lastApplied, xPx, yPx, widthPx, heightPx);
+        velocity[X] = 0f;
+        velocity[Y] = 0f;
+        velocity[WIDTH] = 0f;
+        velocity[HEIGHT] = 0f;
+    }
+
+    /**
+     * 以弹簧动画移动到新的目标。
+     * 如果动画正在运行，则从当前位置和速度继续，只替换目标与时长。
+     *
+     * @param xPx 目标 X 坐标
+     * @param yPx 目标 Y 坐标
+     * @param widthPx 目标宽度
+     * @param heightPx 目标高度
+     * @param durationMs 期望的稳定时长 (毫秒)
+     */
+    public void animateTo(int xPx, int yPx, int widthPx, int heightPx, long durationMs) {
+        animateTo(xPx, yPx, widthPx, heightPx, durationMs, velocity[X], velocity[Y]);
+    }
+
+    /**
+     * 以弹簧动画移动到新的目标，并把位置通道的速度设为给定的初速度（如手指抬起时的甩动速度）。
+     *
+     * @param xPx 目标 X 坐标
+     * @param yPx 目标 Y 坐标
+     * @param widthPx 目标宽度
+     * @param heightPx 目标高度
+     * @param durationMs 期望的稳定时长 (毫秒)
+     * @param velocityXPxPerSec X 轴初速度 (像素/秒)
+     * @param velocityYPxPerSec Y 轴初速度 (像素/秒)
+     */
+    public void animateTo(int xPx, int yPx, int widthPx, int heightPx, long durationMs,
+                          float velocityXPxPerSec, float velocityYPxPerSec) {
+        velocity[X] = velocityXPxPerSec;
+        velocity[Y] = velocityYPxPerSec;
+        set(target, xPx, yPx, widthPx, heightPx);
+        omega = SETTLE_OMEGA_TIME * 1000f / Math.max(1L, durationMs);
+        if (running) {
+            return;
+        }
+        running = true;
+        lastFrameNanos = System.nanoTime();
+        if (choreographer == null) {
+            choreographer = Choreographer.getInstance();
+        }
+        choreographer.postFrameCallback(this);
+    }
+
+    /** 停止动画，保留当前位置。 */
+    public void cancel() {
+        if (running && choreographer != null) {
+            choreographer.removeFrameCallback(this);
+        }
+        running = false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        float dt = (frameTimeNanos - lastFrameNanos) / 1_000_000_000f;
+        lastFrameNanos = frameTimeNanos;
+        if (dt < 0f) {
+            dt = 0f;
+        } else if (dt > MAX_STEP_SECONDS) {
+            dt = MAX_STEP_SECONDS;
+        }
+        boolean settled = true;
+        for (int i = 0; i < CHANNELS; i++) {
+            settled &= step(i, dt);
+        }
+        if (settled) {
+            running = false;
+        } else {
+            choreographer.postFrameCallback(this);
+        }
+        int x = Math.round(position[X]);
+        int y = Math.round(position[Y]);
+        int w = Math.round(position[WIDTH]);
+        int h = Math.round(position[HEIGHT]);
+        if (x != lastApplied[X] || y != lastApplied[Y] || w != lastApplied[WIDTH] || h != lastApplied[HEIGHT]) {
+            set(lastApplied, x, y, w, h);
+            sink.onAnimationFrame(x, y, w, h);
+        }
+        if (settled) {
+            sink.onAnimationSettled();
+        }
+    }
+
+    /**
+     * 按临界阻尼弹簧的解析解推进一个通道。
+     *
+     * @return 该通道是否已静止
+     */
+    private boolean step(int channel, float dt) {
+        float displacement = position[channel] - target[channel];
+        float v = velocity[channel];
+        float decay = (float) Math.exp(-omega * dt);
+        float c = v + omega * displacement;
+        float nextDisplacement = (displacement + c * dt) * decay;
+        float nextVelocity = (v - omega * dt * c) * decay;
+        if (Math.abs(nextDisplacement) < REST_DISTANCE_PX && Math.abs(nextVelocity) < REST_VELOCITY_PX) {
+            position[channel] = target[channel];
+            velocity[channel] = 0f;
+            return true;
+        }
+        position[channel] = target[channel] + nextDisplacement;
+        velocity[channel] = nextVelocity;
+        return false;
+    }
+
+    private static void set(float[] values, int x, int y, int width, int height) {
+        values[X] = x;
+        values[Y] = y;
+        values[WIDTH] = width;
+        values[HEIGHT] = height;
+    }
+
+    private static void set(int[] values, int x, int y, int width, int height) {
+        values[X] = x;
+        values[Y] = y;
+        values[WIDTH] = width;
+        values[HEIGHT] = height;
+    }
+}
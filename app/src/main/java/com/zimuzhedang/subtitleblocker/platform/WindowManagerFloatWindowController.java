@@ -1,24 +1,38 @@
 package com.zimuzhedang.subtitleblocker.platform;
 
-import android.animation.ValueAnimator;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Point;
 import android.graphics.Rect;
 import android.os.Build;
 import android.provider.Settings;
 import android.view.Gravity;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.view.WindowManager;
+import android.widget.FrameLayout;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.zimuzhedang.subtitleblocker.domain.AnimType;
 import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
 import com.zimuzhedang.subtitleblocker.infra.Logger;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+import com.zimuzhedang.subtitleblocker.infra.TimerWheel;
 
 /**
  * 基于 {@link WindowManager} 实现的悬浮窗控制器。
  * 使用系统的 WindowManager API 来添加、更新和移除悬浮窗视图。
- * 支持平移动画、缩放动画和淡出动画。
+ * 支持平移动画、缩放动画和淡出动画；平移与缩放共用一个可中途改变目标的 {@link WindowGeometryAnimator}。
+ * 在 {@link DragMode#TRANSLATION} 模式下，内容视图被包在一个宿主容器中，手势中第一次移动超过触摸阈值后窗口临时铺满屏幕，
+ * 每帧只修改内容视图的平移与尺寸，手势及其收尾动画结束后才把真实位置提交给窗口；
+ * 手指抬起后铺满屏幕的窗口不再接收触摸，收尾动画期间不会拦截其他应用的点击。
+ * 启用软隐藏后，{@link #hide()} 只把窗口设为不可见且不接收触摸，再次显示时无需重新创建窗口；
+ * 空闲超过设定时长或系统内存紧张时才真正移除窗口。冷启动与软隐藏恢复两条路径的显示耗时分别计入 {@link PerfMetrics}。
  *
  * @author Trae
  * @since 2026-01-30
@@ -27,7 +41,77 @@ public final class WindowManagerFloatWindowController implements FloatWindowCont
     private final Context context;
     private final WindowManager windowManager;
     private View contentView;
+    /** 实际添加到 WindowManager 的视图：TRANSLATION 模式下为宿主容器，否则为内容视图本身 */
+    private View windowView;
+    private FrameLayout translationHost;
     private WindowManager.LayoutParams layoutParams;
+    /** 由 {@link #prepare()} 预先创建、尚未使用的窗口参数 */
+    @Nullable
+    private WindowManager.LayoutParams preparedParams;
+    private final WindowGeometryAnimator geometryAnimator = new WindowGeometryAnimator(new WindowGeometryAnimator.Sink() {
+        @Override
+        public void onAnimationFrame(int xPx, int yPx, int widthPx, int heightPx) {
+            applyRect(xPx, yPx, widthPx, heightPx);
+        }
+
+        @Override
+        public void onAnimationSettled() {
+            if (gestureEnding) {
+                finishGesture();
+            }
+        }
+    });
+    private DragMode dragMode = DragMode.WINDOW_LAYOUT;
+    /** 内容在屏幕上的逻辑矩形，TRANSLATION 模式下可能与窗口参数不同 */
+    private int rectX;
+    private int rectY;
+    private int rectWidth;
+    private int rectHeight;
+    /** 当前是否处于平移模式（窗口已放大） */
+    private boolean translating;
+    /** 进入平移模式前的窗口标志，退出时原样恢复 */
+    private int flagsBeforeTranslation;
+    /** 手势开始时内容的矩形，移动超过触摸阈值后才进入平移模式 */
+    private int gestureStartX;
+    private int gestureStartY;
+    private int gestureStartWidth;
+    private int gestureStartHeight;
+    private final int touchSlop;
+    private final Point screenSize = new Point();
+    /** 手势统计：从手势开始到收尾动画结束 */
+    private boolean gestureActive;
+    private boolean gestureEnding;
+    private int gestureRelayouts;
+    private int gestureFrames;
+    private long gestureFrameNanosTotal;
+    private long gestureFrameNanosMax;
+    /** 软隐藏后保留窗口的空闲时长 (毫秒)，0 表示不启用软隐藏 */
+    private long softHideIdleMs;
+    /** 窗口仍然附着但处于不可见、不可触摸状态 */
+    private boolean softHidden;
+    private final TimerWheel timers = TimerWheel.onMainThread();
+    private TimerWheel.Timer releaseTimer;
+    /** 软隐藏期间监听内存压力，及时释放保留的窗口 */
+    private final ComponentCallbacks2 memoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            // UI_HIDDEN 只表示界面退到后台，对悬浮窗而言是常态，不视为内存压力
+            if (level == TRIM_MEMORY_RUNNING_LOW
+                    || level == TRIM_MEMORY_RUNNING_CRITICAL
+                    || level >= TRIM_MEMORY_BACKGROUND) {
+                release();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            release();
+        }
+    };
 
     /**
      * 构造函数。
@@ -37,10 +121,36 @@ public final class WindowManagerFloatWindowController implements FloatWindowCont
     public WindowManagerFloatWindowController(Context context) {
         this.context = context.getApplicationContext();
         this.windowManager = (WindowManager) this.context.getSystemService(Context.WINDOW_SERVICE);
+        this.touchSlop = ViewConfiguration.get(this.context).getScaledTouchSlop();
+    }
+
+    /**
+     * 设置手势期间移动窗口的方式，在下一次窗口添加时生效。
+     *
+     * @param dragMode 拖拽模式
+     */
+    public void setDragMode(DragMode dragMode) {
+        this.dragMode = dragMode;
+    }
+
+    /**
+     * 设置软隐藏的空闲时长。隐藏后超过该时长仍未重新显示时才真正移除窗口。
+     *
+     * @param idleMs 空闲时长 (毫秒)，0 表示隐藏时立即移除窗口
+     */
+    public void setSoftHideIdleMs(long idleMs) {
+        this.softHideIdleMs = Math.max(0L, idleMs);
     }
 
     @Override
-    public void show(View contentView) {
+    public void show(View contentView, Rect rectPx, int windowFlags) {
+        if (softHidden) {
+            if (contentView == this.contentView) {
+                showFromSoftHide(rectPx, windowFlags);
+                return;
+            }
+            release();
+        }
         if (isShowing()) {
             return;
         }
@@ -49,45 +159,69 @@ public final class WindowManagerFloatWindowController implements FloatWindowCont
             return;
         }
         this.contentView = contentView;
-        int type = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
-                ? WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY
-                : WindowManager.LayoutParams.TYPE_PHONE;
-        layoutParams = new WindowManager.LayoutParams(
-                WindowManager.LayoutParams.WRAP_CONTENT,
-                WindowManager.LayoutParams.WRAP_CONTENT,
-                type,
-                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE,
-                android.graphics.PixelFormat.TRANSLUCENT
-        );
-        layoutParams.gravity = Gravity.TOP | Gravity.START;
-        layoutParams.x = 0;
-        layoutParams.y = 0;
+        layoutParams = obtainLayoutParams();
+        layoutParams.flags = windowFlags;
+        setWindowRect(rectPx);
+        windowView = dragMode == DragMode.TRANSLATION ? wrapInHost(contentView) : contentView;
+        long start = System.nanoTime();
         try {
-            windowManager.addView(contentView, layoutParams);
+            windowManager.addView(windowView, layoutParams);
+            trackShowLatency("window.show.cold.", start);
         } catch (Exception e) {
+            unwrapFromHost();
             this.contentView = null;
+            windowView = null;
             layoutParams = null;
             Logger.e("window addView failed", e);
         }
     }
 
+    /**
+     * 预先创建窗口参数，使首次显示时只需填入目标矩形。
+     */
+    public void prepare() {
+        if (preparedParams == null) {
+            preparedParams = createLayoutParams();
+        }
+    }
+
     @Override
     public void hide() {
         if (!isShowing()) {
             return;
         }
+        if (softHideIdleMs <= 0L) {
+            release();
+            return;
+        }
+        softHide();
+    }
+
+    @Override
+    public void release() {
+        if (contentView == null) {
+            return;
+        }
+        leaveSoftHidden();
+        geometryAnimator.cancel();
+        if (gestureActive) {
+            reportGesture();
+        }
         try {
-            windowManager.removeView(contentView);
+            windowManager.removeView(windowView);
         } catch (Exception e) {
             Logger.e("window removeView failed", e);
         }
+        windowView.setVisibility(View.VISIBLE);
+        unwrapFromHost();
         contentView = null;
+        windowView = null;
         layoutParams = null;
     }
 
     @Override
     public boolean isShowing() {
-        return contentView != null;
+        return contentView != null && !softHidden;
     }
 
     @Override
@@ -96,60 +230,333 @@ public final class WindowManagerFloatWindowController implements FloatWindowCont
             return;
         }
         if (anim == null || anim.durationMs <= 0) {
-            applyRect(rectPx);
+            applyImmediately(rectPx);
             return;
         }
         if (anim.type == AnimType.FADE) {
-            animateFade(rectPx, anim.durationMs);
+            applyImmediately(rectPx);
+            fadeOut(anim.durationMs);
+            return;
+        }
+        animateRect(rectPx, anim);
+    }
+
+    @Override
+    public void fadeOut(long durationMs) {
+        if (!isShowing() || contentView == null) {
+            return;
+        }
+        contentView.animate()
+                .alpha(0f)
+                .setDuration(durationMs)
+                .withEndAction(() -> contentView.setAlpha(1f))
+                .start();
+    }
+
+    @Override
+    public void beginGesture() {
+        if (!isShowing()) {
             return;
         }
-        animateRect(rectPx, anim.durationMs);
+        if (gestureActive) {
+            // 上一个手势的收尾动画尚未结束，沿用当前窗口状态，避免再次放大/提交
+            reportGesture();
+            if (translating && (layoutParams.flags & WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE) != 0
+                    && (flagsBeforeTranslation & WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE) == 0) {
+                layoutParams.flags &= ~WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+                relayoutWindow();
+            }
+        }
+        gestureActive = true;
+        gestureEnding = false;
+        gestureRelayouts = 0;
+        gestureFrames = 0;
+        gestureFrameNanosTotal = 0L;
+        gestureFrameNanosMax = 0L;
+        // 按下时不放大窗口，单击不会产生额外的重新布局；真正移动后才在 applyRect 中进入平移模式
+        gestureStartX = rectX;
+        gestureStartY = rectY;
+        gestureStartWidth = rectWidth;
+        gestureStartHeight = rectHeight;
     }
 
-    private void applyRect(Rect rect) {
-        layoutParams.width = rect.width();
-        layoutParams.height = rect.height();
-        layoutParams.x = rect.left;
-        layoutParams.y = rect.top;
+    @Override
+    public void endGesture() {
+        if (!gestureActive) {
+            return;
+        }
+        gestureEnding = true;
+        if (!geometryAnimator.isRunning()) {
+            finishGesture();
+        } else if (translating) {
+            // 收尾动画期间铺满屏幕的窗口不再拦截触摸，退出平移模式时恢复原标志
+            layoutParams.flags |= WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+            relayoutWindow();
+        }
+    }
+
+    /** 保留窗口，仅设为不可见且不接收触摸，并在空闲时长后真正移除。 */
+    private void softHide() {
+        geometryAnimator.cancel();
+        if (translating) {
+            exitTranslation();
+        }
+        if (gestureActive) {
+            reportGesture();
+        }
+        contentView.animate().cancel();
+        contentView.setAlpha(1f);
+        windowView.setVisibility(View.INVISIBLE);
+        layoutParams.flags |= WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE;
+        relayoutWindow();
+        softHidden = true;
+        releaseTimer = timers.schedule(this::release, softHideIdleMs);
+        context.registerComponentCallbacks(memoryCallbacks);
+    }
+
+    private void showFromSoftHide(Rect rectPx, int windowFlags) {
+        leaveSoftHidden();
+        long start = System.nanoTime();
+        // 标志与目标矩形在同一次重新布局中提交
+        layoutParams.flags = windowFlags;
+        setWindowRect(rectPx);
+        windowView.setVisibility(View.VISIBLE);
+        relayoutWindow();
+        trackShowLatency("window.show.warm.", start);
+    }
+
+    private void leaveSoftHidden() {
+        if (!softHidden) {
+            return;
+        }
+        softHidden = false;
+        if (releaseTimer != null) {
+            releaseTimer.cancel();
+            releaseTimer = null;
+        }
+        context.unregisterComponentCallbacks(memoryCallbacks);
+    }
+
+    /** 取出预先创建的窗口参数，没有时新建。 */
+    private WindowManager.LayoutParams obtainLayoutParams() {
+        WindowManager.LayoutParams params = preparedParams;
+        preparedParams = null;
+        return params != null ? params : createLayoutParams();
+    }
+
+    private static WindowManager.LayoutParams createLayoutParams() {
+        int type = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                ? WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY
+                : WindowManager.LayoutParams.TYPE_PHONE;
+        WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+                WindowManager.LayoutParams.WRAP_CONTENT,
+                WindowManager.LayoutParams.WRAP_CONTENT,
+                type,
+                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE,
+                android.graphics.PixelFormat.TRANSLUCENT
+        );
+        params.gravity = Gravity.TOP | Gravity.START;
+        return params;
+    }
+
+    /** 把目标矩形写入窗口参数和逻辑矩形，并让几何动画器从该位置开始。 */
+    private void setWindowRect(Rect rect) {
+        geometryAnimator.jumpTo(rect.left, rect.top, rect.width(), rect.height());
+        rectX = rect.left;
+        rectY = rect.top;
+        rectWidth = rect.width();
+        rectHeight = rect.height();
+        layoutParams.x = rectX;
+        layoutParams.y = rectY;
+        layoutParams.width = rectWidth;
+        layoutParams.height = rectHeight;
+    }
+
+    /** 记录从发起显示到首帧绘制前的耗时。 */
+    private void trackShowLatency(String prefix, long startNanos) {
+        ViewTreeObserver observer = windowView.getViewTreeObserver();
+        observer.addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                long elapsedUs = (System.nanoTime() - startNanos) / 1000L;
+                if (windowView != null) {
+                    windowView.getViewTreeObserver().removeOnPreDrawListener(this);
+                }
+                PerfMetrics.increment(prefix + "count");
+                PerfMetrics.add(prefix + "us", elapsedUs);
+                Logger.i("window show: path=" + prefix + " firstFrameUs=" + elapsedUs);
+                return true;
+            }
+        });
+    }
+
+    /** 立即应用矩形，同时中断正在运行的几何动画。 */
+    private void applyImmediately(Rect rect) {
+        geometryAnimator.jumpTo(rect.left, rect.top, rect.width(), rect.height());
+        applyRect(rect.left, rect.top, rect.width(), rect.height());
+    }
+
+    private void applyRect(int xPx, int yPx, int widthPx, int heightPx) {
+        if (layoutParams == null) {
+            return;
+        }
+        long start = gestureActive ? System.nanoTime() : 0L;
+        rectX = xPx;
+        rectY = yPx;
+        rectWidth = widthPx;
+        rectHeight = heightPx;
+        if (translating) {
+            applyTranslation();
+        } else if (shouldEnterTranslation()) {
+            enterTranslation();
+        } else {
+            layoutParams.width = widthPx;
+            layoutParams.height = heightPx;
+            layoutParams.x = xPx;
+            layoutParams.y = yPx;
+            relayoutWindow();
+        }
+        if (gestureActive) {
+            long elapsed = System.nanoTime() - start;
+            gestureFrames++;
+            gestureFrameNanosTotal += elapsed;
+            if (elapsed > gestureFrameNanosMax) {
+                gestureFrameNanosMax = elapsed;
+            }
+        }
+    }
+
+    private void relayoutWindow() {
+        PerfMetrics.increment(PerfMetrics.WINDOW_RELAYOUT);
+        if (gestureActive) {
+            gestureRelayouts++;
+        }
         try {
-            windowManager.updateViewLayout(contentView, layoutParams);
+            windowManager.updateViewLayout(windowView, layoutParams);
         } catch (Exception e) {
             Logger.e("window updateViewLayout failed", e);
         }
     }
 
-    private void animateRect(Rect target, long durationMs) {
-        Rect start = new Rect(layoutParams.x, layoutParams.y,
-                layoutParams.x + layoutParams.width,
-                layoutParams.y + layoutParams.height);
-        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
-        animator.setDuration(durationMs);
-        animator.addUpdateListener(animation -> {
-            float fraction = (float) animation.getAnimatedValue();
-            Rect current = new Rect(
-                    lerp(start.left, target.left, fraction),
-                    lerp(start.top, target.top, fraction),
-                    lerp(start.right, target.right, fraction),
-                    lerp(start.bottom, target.bottom, fraction)
-            );
-            applyRect(current);
-        });
-        animator.start();
+    /**
+     * 以弹簧动画移动到目标矩形。目标以基本类型复制，调用方之后修改 Rect 不会影响动画。
+     */
+    private void animateRect(Rect target, AnimationSpec anim) {
+        if (!geometryAnimator.isRunning()) {
+            // 动画器空闲时以内容当前矩形作为起点；WRAP_CONTENT 等负值尺寸直接取目标尺寸
+            int width = rectWidth > 0 ? rectWidth : target.width();
+            int height = rectHeight > 0 ? rectHeight : target.height();
+            geometryAnimator.jumpTo(rectX, rectY, width, height);
+        }
+        if (anim.velocityXPxPerSec != 0f || anim.velocityYPxPerSec != 0f) {
+            geometryAnimator.animateTo(target.left, target.top, target.width(), target.height(), anim.durationMs,
+                    anim.velocityXPxPerSec, anim.velocityYPxPerSec);
+        } else {
+            geometryAnimator.animateTo(target.left, target.top, target.width(), target.height(), anim.durationMs);
+        }
     }
 
-    private void animateFade(Rect rect, long durationMs) {
-        applyRect(rect);
-        if (contentView == null) {
-            return;
+    private View wrapInHost(View content) {
+        if (translationHost == null) {
+            translationHost = new FrameLayout(context);
         }
-        contentView.animate()
-                .alpha(0f)
-                .setDuration(durationMs)
-                .withEndAction(() -> contentView.setAlpha(1f))
-                .start();
+        translationHost.addView(content, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        return translationHost;
+    }
+
+    private void unwrapFromHost() {
+        translating = false;
+        gestureActive = false;
+        gestureEnding = false;
+        if (translationHost != null && contentView != null && contentView.getParent() == translationHost) {
+            contentView.setTranslationX(0f);
+            contentView.setTranslationY(0f);
+            translationHost.removeView(contentView);
+        }
+    }
+
+    /** 手势进行中且内容相对手势开始时移动或缩放超过触摸阈值时进入平移模式。 */
+    private boolean shouldEnterTranslation() {
+        if (dragMode != DragMode.TRANSLATION || translationHost == null || !gestureActive || gestureEnding
+                || rectWidth <= 0 || gestureStartWidth <= 0) {
+            return false;
+        }
+        return Math.abs(rectX - gestureStartX) > touchSlop
+                || Math.abs(rectY - gestureStartY) > touchSlop
+                || Math.abs(rectWidth - gestureStartWidth) > touchSlop
+                || Math.abs(rectHeight - gestureStartHeight) > touchSlop;
+    }
+
+    /**
+     * 放大窗口到整个屏幕，内容视图固定为当前尺寸并平移到原位置，之后的帧只需修改平移量。
+     * 放大后的窗口允许覆盖状态栏与导航栏区域，内容平移坐标与屏幕坐标一致。
+     */
+    @SuppressWarnings("deprecation")
+    private void enterTranslation() {
+        windowManager.getDefaultDisplay().getRealSize(screenSize);
+        translating = true;
+        flagsBeforeTranslation = layoutParams.flags;
+        layoutParams.flags |= WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS
+                | WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN;
+        layoutParams.x = 0;
+        layoutParams.y = 0;
+        layoutParams.width = screenSize.x;
+        layoutParams.height = screenSize.y;
+        applyTranslation();
+        relayoutWindow();
+    }
+
+    private void applyTranslation() {
+        ViewGroup.LayoutParams childParams = contentView.getLayoutParams();
+        if (childParams.width != rectWidth || childParams.height != rectHeight) {
+            // 尺寸变化只触发窗口内的重新布局，不需要跨进程重排
+            childParams.width = rectWidth;
+            childParams.height = rectHeight;
+            contentView.setLayoutParams(childParams);
+        }
+        contentView.setTranslationX(rectX - layoutParams.x);
+        contentView.setTranslationY(rectY - layoutParams.y);
+    }
+
+    /** 手势及收尾动画结束：平移模式下把内容的逻辑矩形一次性提交给窗口，并输出统计。 */
+    private void finishGesture() {
+        if (translating && layoutParams != null) {
+            exitTranslation();
+        }
+        reportGesture();
+    }
+
+    /** 退出平移模式：内容恢复铺满窗口，窗口按内容的逻辑矩形重新布局。 */
+    private void exitTranslation() {
+        translating = false;
+        ViewGroup.LayoutParams childParams = contentView.getLayoutParams();
+        childParams.width = ViewGroup.LayoutParams.MATCH_PARENT;
+        childParams.height = ViewGroup.LayoutParams.MATCH_PARENT;
+        contentView.setLayoutParams(childParams);
+        contentView.setTranslationX(0f);
+        contentView.setTranslationY(0f);
+        layoutParams.flags = flagsBeforeTranslation;
+        layoutParams.x = rectX;
+        layoutParams.y = rectY;
+        layoutParams.width = rectWidth;
+        layoutParams.height = rectHeight;
+        relayoutWindow();
     }
 
-    private int lerp(int start, int end, float fraction) {
-        return start + Math.round((end - start) * fraction);
+    private void reportGesture() {
+        String prefix = dragMode == DragMode.TRANSLATION ? "window.gesture.translation." : "window.gesture.layout.";
+        PerfMetrics.increment(prefix + "count");
+        PerfMetrics.add(prefix + "relayout", gestureRelayouts);
+        PerfMetrics.add(prefix + "frames", gestureFrames);
+        PerfMetrics.add(prefix + "frame_us", gestureFrameNanosTotal / 1000L);
+        long averageUs = gestureFrames > 0 ? gestureFrameNanosTotal / gestureFrames / 1000L : 0L;
+        Logger.i("window gesture: mode=" + dragMode
+                + " relayouts=" + gestureRelayouts
+                + " frames=" + gestureFrames
+                + " avgFrameUs=" + averageUs
+                + " maxFrameUs=" + gestureFrameNanosMax / 1000L);
+        gestureActive = false;
+        gestureEnding = false;
     }
 }
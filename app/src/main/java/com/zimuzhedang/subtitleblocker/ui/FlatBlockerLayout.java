@@ -0,0 +1,133 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+/**
+ * 扁平遮挡视图的区域布局与命中测试。
+ * 按原 {@code view_overlay_window.xml} 中各子控件的尺寸、边距与重力计算按钮和缩放手柄的矩形，
+ * 命中测试按原布局的叠放顺序从上到下查找，结果与原视图层级的触摸分发一致。
+ * 只保存基本类型坐标，尺寸不变时不重新计算。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class FlatBlockerLayout {
+    /** 遮挡区域主体，用于拖拽与点击切换透明 */
+    public static final int REGION_BODY = 0;
+    public static final int REGION_RESIZE_RIGHT = 1;
+    public static final int REGION_RESIZE_BOTTOM = 2;
+    /** 右下角缩放手柄，同时调整宽和高 */
+    public static final int REGION_RESIZE_CORNER = 3;
+    public static final int REGION_CLOSE = 4;
+    public static final int REGION_TRANSPARENCY = 5;
+    public static final int REGION_MINIMIZE = 6;
+    /** 区域数量，区域编号同时也是叠放顺序，编号越大越靠上 */
+    public static final int REGION_COUNT = 7;
+
+    private final int edgeHandlePx;
+    private final int cornerHandlePx;
+    private final int buttonPx;
+    private final int buttonMarginPx;
+    private final int[] lefts = new int[REGION_COUNT];
+    private final int[] tops = new int[REGION_COUNT];
+    private final int[] rights = new int[REGION_COUNT];
+    private final int[] bottoms = new int[REGION_COUNT];
+    private int width = -1;
+    private int height = -1;
+    private boolean closeOnLeft;
+    private boolean transparencyVisible;
+
+    /**
+     * 构造函数。
+     *
+     * @param edgeHandlePx 右侧与底部缩放条的厚度
+     * @param cornerHandlePx 右下角缩放手柄的边长
+     * @param buttonPx 按钮的边长
+     * @param buttonMarginPx 按钮与边缘的间距
+     */
+    public FlatBlockerLayout(int edgeHandlePx, int cornerHandlePx, int buttonPx, int buttonMarginPx) {
+        this.edgeHandlePx = edgeHandlePx;
+        this.cornerHandlePx = cornerHandlePx;
+        this.buttonPx = buttonPx;
+        this.buttonMarginPx = buttonMarginPx;
+    }
+
+    /**
+     * 按视图尺寸与按钮配置更新各区域，参数与上次相同时直接返回。
+     *
+     * @param width 视图宽度
+     * @param height 视图高度
+     * @param closeOnLeft 关闭按钮是否位于左上角
+     * @param transparencyVisible 透明切换按钮是否显示
+     */
+    public void update(int width, int height, boolean closeOnLeft, boolean transparencyVisible) {
+        if (width == this.width && height == this.height
+                && closeOnLeft == this.closeOnLeft && transparencyVisible == this.transparencyVisible) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        this.closeOnLeft = closeOnLeft;
+        this.transparencyVisible = transparencyVisible;
+        set(REGION_BODY, 0, 0, width, height);
+        set(REGION_RESIZE_RIGHT, width - edgeHandlePx, 0, width, height);
+        set(REGION_RESIZE_BOTTOM, 0, height - edgeHandlePx, width, height);
+        set(REGION_RESIZE_CORNER, width - cornerHandlePx, height - cornerHandlePx, width, height);
+        int buttonTop = buttonMarginPx;
+        int startLeft = buttonMarginPx;
+        int endLeft = width - buttonMarginPx - buttonPx;
+        set(REGION_CLOSE, closeOnLeft ? startLeft : endLeft, buttonTop,
+                (closeOnLeft ? startLeft : endLeft) + buttonPx, buttonTop + buttonPx);
+        set(REGION_TRANSPARENCY, startLeft, buttonTop, startLeft + buttonPx, buttonTop + buttonPx);
+        int centerLeft = (width - buttonPx) / 2;
+        set(REGION_MINIMIZE, centerLeft, buttonTop, centerLeft + buttonPx, buttonTop + buttonPx);
+    }
+
+    /**
+     * 查找坐标所在的最上层区域。
+     *
+     * @return REGION_* 之一，坐标在视图外时返回 -1
+     */
+    public int hitTest(float x, float y) {
+        for (int region = REGION_COUNT - 1; region >= 0; region--) {
+            if (region == REGION_TRANSPARENCY && !transparencyVisible) {
+                continue;
+            }
+            if (x >= lefts[region] && x < rights[region] && y >= tops[region] && y < bottoms[region]) {
+                return region;
+            }
+        }
+        return -1;
+    }
+
+    /** @return 区域是否为按钮 (关闭、透明切换或最小化) */
+    public static boolean isButton(int region) {
+        return region >= REGION_CLOSE && region < REGION_COUNT;
+    }
+
+    /** @return 透明切换按钮是否显示 */
+    public boolean isTransparencyVisible() {
+        return transparencyVisible;
+    }
+
+    public int getLeft(int region) {
+        return lefts[region];
+    }
+
+    public int getTop(int region) {
+        return tops[region];
+    }
+
+    public int getRight(int region) {
+        return rights[region];
+    }
+
+    public int getBottom(int region) {
+        return bottoms[region];
+    }
+
+    private void set(int region, int left, int top, int right, int bottom) {
+        lefts[region] = left;
+        tops[region] = top;
+        rights[region] = right;
+        bottoms[region] = bottom;
+    }
+}
@@ -0,0 +1,312 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+import android.widget.Button;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import com.zimuzhedang.subtitleblocker.R;
+
+import java.util.List;
+
+/**
+ * 扁平化的遮挡区域视图。
+ * 在一次 {@link #onDraw(Canvas)} 中绘制背景、边框、三个按钮与三个缩放手柄，并自行按区域做命中测试，
+ * 取代原先由根布局、三个 {@code ImageButton} 与三个手柄 {@code View} 组成的层级。
+ * 缩放时只有本视图一个节点参与测量与布局，按钮位置与透明模式的变化只触发重绘。
+ * 按钮与缩放手柄通过 {@link ExploreByTouchHelper} 以虚拟节点的形式提供给无障碍服务，
+ * 内容描述沿用原布局中按钮的字符串资源。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class FlatBlockerView extends View {
+    /**
+     * 触摸分发回调，按按下时命中的区域把整个手势交给对应的处理逻辑。
+     */
+    public interface Callback {
+        /** 主体区域的触摸事件 (拖拽与点击) */
+        boolean onBodyTouch(MotionEvent event);
+
+        /**
+         * 缩放手柄的触摸事件。
+         *
+         * @param region {@link FlatBlockerLayout} 中的缩放区域
+         */
+        boolean onResizeTouch(int region, MotionEvent event);
+
+        /**
+         * 按钮被点击。
+         *
+         * @param region {@link FlatBlockerLayout} 中的按钮区域
+         */
+        void onButtonClick(int region);
+    }
+
+    /** 与 overlay_background_transparent、resize_handle_bg 一致的半透明填充色 */
+    private static final int TRANSLUCENT_FILL = 0x33000000;
+    /** 与 close_button_bg 一致的按钮底色 */
+    private static final int BUTTON_FILL = 0xCC000000;
+    /** 与布局中一致的边缘缩放条厚度 (dp) */
+    private static final int EDGE_HANDLE_DP = 10;
+    private static final int BUTTON_MARGIN_DP = 6;
+
+    private final FlatBlockerLayout layout;
+    private final RegionAccessibilityHelper accessibilityHelper;
+    private final Paint fillPaint = new Paint();
+    private final Paint borderPaint = new Paint();
+    private final Paint buttonPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final int opaqueColor;
+    @Nullable
+    private final Drawable closeIcon;
+    @Nullable
+    private final Drawable transparencyIcon;
+    @Nullable
+    private final Drawable minimizeIcon;
+    @Nullable
+    private Callback callback;
+    private boolean closeOnLeft;
+    private boolean transparencyVisible;
+    private boolean transparentMode;
+    /** 当前手势按下时命中的区域，-1 表示没有进行中的手势 */
+    private int touchRegion = -1;
+
+    public FlatBlockerView(@NonNull Context context) {
+        super(context);
+        float density = context.getResources().getDisplayMetrics().density;
+        layout = new FlatBlockerLayout(
+                Math.round(EDGE_HANDLE_DP * density),
+                context.getResources().getDimensionPixelSize(R.dimen.overlay_resize_handle_size),
+                context.getResources().getDimensionPixelSize(R.dimen.overlay_close_button_size),
+                Math.round(BUTTON_MARGIN_DP * density));
+        opaqueColor = ContextCompat.getColor(context, R.color.black_opaque);
+        fillPaint.setStyle(Paint.Style.FILL);
+        borderPaint.setStyle(Paint.Style.STROKE);
+        borderPaint.setStrokeWidth(1f);
+        borderPaint.setColor(ContextCompat.getColor(context, R.color.border_gray));
+        buttonPaint.setStyle(Paint.Style.FILL);
+        buttonPaint.setColor(BUTTON_FILL);
+        closeIcon = ContextCompat.getDrawable(context, R.drawable.ic_close);
+        transparencyIcon = ContextCompat.getDrawable(context, R.drawable.ic_magnifier);
+        Drawable minimize = ContextCompat.getDrawable(context, R.drawable.ic_minimize);
+        if (minimize != null) {
+            minimize = minimize.mutate();
+            minimize.setTint(Color.WHITE);
+        }
+        minimizeIcon = minimize;
+        accessibilityHelper = new RegionAccessibilityHelper();
+        ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
+    }
+
+    public void setCallback(@Nullable Callback callback) {
+        this.callback = callback;
+    }
+
+    public void setCloseOnLeft(boolean closeOnLeft) {
+        if (this.closeOnLeft != closeOnLeft) {
+            this.closeOnLeft = closeOnLeft;
+            invalidate();
+            accessibilityHelper.invalidateRoot();
+        }
+    }
+
+    public void setTransparencyButtonVisible(boolean visible) {
+        if (transparencyVisible != visible) {
+            transparencyVisible = visible;
+            invalidate();
+            accessibilityHelper.invalidateRoot();
+        }
+    }
+
+    public void setTransparentMode(boolean transparentMode) {
+        if (this.transparentMode != transparentMode) {
+            this.transparentMode = transparentMode;
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        accessibilityHelper.invalidateRoot();
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return accessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, @Nullable Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        accessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        updateLayout();
+        drawBox(canvas, FlatBlockerLayout.REGION_BODY, transparentMode ? TRANSLUCENT_FILL : opaqueColor);
+        drawBox(canvas, FlatBlockerLayout.REGION_RESIZE_RIGHT, TRANSLUCENT_FILL);
+        drawBox(canvas, FlatBlockerLayout.REGION_RESIZE_BOTTOM, TRANSLUCENT_FILL);
+        drawBox(canvas, FlatBlockerLayout.REGION_RESIZE_CORNER, TRANSLUCENT_FILL);
+        drawButton(canvas, FlatBlockerLayout.REGION_CLOSE, closeIcon);
+        if (transparencyVisible) {
+            drawButton(canvas, FlatBlockerLayout.REGION_TRANSPARENCY, transparencyIcon);
+        }
+        drawButton(canvas, FlatBlockerLayout.REGION_MINIMIZE, minimizeIcon);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            updateLayout();
+            touchRegion = layout.hitTest(event.getX(), event.getY());
+        }
+        int region = touchRegion;
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            touchRegion = -1;
+        }
+        if (region < 0 || callback == null) {
+            return region >= 0;
+        }
+        switch (region) {
+            case FlatBlockerLayout.REGION_BODY:
+                return callback.onBodyTouch(event);
+            case FlatBlockerLayout.REGION_RESIZE_RIGHT:
+            case FlatBlockerLayout.REGION_RESIZE_BOTTOM:
+            case FlatBlockerLayout.REGION_RESIZE_CORNER:
+                return callback.onResizeTouch(region, event);
+            default:
+                // 与按钮一致：抬起时仍在按钮范围内才算点击
+                if (action == MotionEvent.ACTION_UP
+                        && layout.hitTest(event.getX(), event.getY()) == region) {
+                    callback.onButtonClick(region);
+                }
+                return true;
+        }
+    }
+
+    private void updateLayout() {
+        layout.update(getWidth(), getHeight(), closeOnLeft, transparencyVisible);
+    }
+
+    private void drawBox(Canvas canvas, int region, int fillColor) {
+        float left = layout.getLeft(region);
+        float top = layout.getTop(region);
+        float right = layout.getRight(region);
+        float bottom = layout.getBottom(region);
+        fillPaint.setColor(fillColor);
+        canvas.drawRect(left, top, right, bottom, fillPaint);
+        // 1px 描边画在边界内侧，与 shape drawable 的 stroke 一致
+        canvas.drawRect(left + 0.5f, top + 0.5f, right - 0.5f, bottom - 0.5f, borderPaint);
+    }
+
+    private void drawButton(Canvas canvas, int region, @Nullable Drawable icon) {
+        int left = layout.getLeft(region);
+        int top = layout.getTop(region);
+        int right = layout.getRight(region);
+        int bottom = layout.getBottom(region);
+        canvas.drawOval(left, top, right, bottom, buttonPaint);
+        if (icon != null) {
+            icon.setBounds(left, top, right, bottom);
+            icon.draw(canvas);
+        }
+    }
+
+    /**
+     * 把按钮与缩放手柄暴露为虚拟无障碍节点。主体区域不单独建节点，由视图本身代表。
+     */
+    private final class RegionAccessibilityHelper extends ExploreByTouchHelper {
+        private final Rect bounds = new Rect();
+
+        RegionAccessibilityHelper() {
+            super(FlatBlockerView.this);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            updateLayout();
+            int region = layout.hitTest(x, y);
+            return region > FlatBlockerLayout.REGION_BODY ? region : HOST_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            updateLayout();
+            // 按原布局的朗读顺序：按钮在前，缩放手柄在后
+            virtualViewIds.add(FlatBlockerLayout.REGION_CLOSE);
+            if (transparencyVisible) {
+                virtualViewIds.add(FlatBlockerLayout.REGION_TRANSPARENCY);
+            }
+            virtualViewIds.add(FlatBlockerLayout.REGION_MINIMIZE);
+            virtualViewIds.add(FlatBlockerLayout.REGION_RESIZE_RIGHT);
+            virtualViewIds.add(FlatBlockerLayout.REGION_RESIZE_BOTTOM);
+            virtualViewIds.add(FlatBlockerLayout.REGION_RESIZE_CORNER);
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, @NonNull AccessibilityNodeInfoCompat node) {
+            updateLayout();
+            node.setContentDescription(getResources().getString(descriptionOf(virtualViewId)));
+            bounds.set(layout.getLeft(virtualViewId), layout.getTop(virtualViewId),
+                    layout.getRight(virtualViewId), layout.getBottom(virtualViewId));
+            node.setBoundsInParent(bounds);
+            if (FlatBlockerLayout.isButton(virtualViewId)) {
+                node.setClassName(Button.class.getName());
+                node.setClickable(true);
+                node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+            }
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, @Nullable Bundle arguments) {
+            if (action != AccessibilityNodeInfoCompat.ACTION_CLICK || !FlatBlockerLayout.isButton(virtualViewId)) {
+                return false;
+            }
+            if (callback != null) {
+                callback.onButtonClick(virtualViewId);
+            }
+            sendEventForVirtualView(virtualViewId, AccessibilityEvent.TYPE_VIEW_CLICKED);
+            return true;
+        }
+
+        private int descriptionOf(int region) {
+            switch (region) {
+                case FlatBlockerLayout.REGION_CLOSE:
+                    return R.string.action_disable_overlay;
+                case FlatBlockerLayout.REGION_TRANSPARENCY:
+                    return R.string.action_toggle_transparency;
+                case FlatBlockerLayout.REGION_MINIMIZE:
+                    return R.string.action_minimize_overlay;
+                case FlatBlockerLayout.REGION_RESIZE_RIGHT:
+                    return R.string.label_resize_width;
+                case FlatBlockerLayout.REGION_RESIZE_BOTTOM:
+                    return R.string.label_resize_height;
+                default:
+                    return R.string.label_resize_corner;
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.view.Choreographer;
+
+import com.zimuzhedang.subtitleblocker.infra.Logger;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+/**
+ * 基于 {@link Choreographer} 的手势输入合并器。
+ * 高刷新率触摸屏在一个显示帧内会产生多个 MotionEvent，这里将拖拽与缩放增量（含批量事件中的历史采样）累加，
+ * 每个显示帧只向下游提交一次几何更新，避免每个触摸采样都触发一次窗口重排。
+ * 取整后的小数部分会保留到下一帧，长距离拖拽不会产生累计误差。
+ * 可选地启用 {@link TouchPredictor}：预测偏移只作为渲染偏移交给 {@link Sink#onPredictionFrame}，
+ * 不并入提交给下游的几何位移，因此边缘约束只作用于真实位移，手势结束时把渲染偏移清零，最终位置始终与手指一致。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class GestureInputCoalescer implements Choreographer.FrameCallback {
+    /**
+     * 合并后的几何更新接收者。
+     */
+    public interface Sink {
+        /**
+         * 提交一帧内累计的拖拽位移。
+         *
+         * @param dxPx X 轴偏移量 (像素)
+         * @param dyPx Y 轴偏移量 (像素)
+         */
+        void onDragFrame(int dxPx, int dyPx);
+
+        /**
+         * 提交一帧内累计的尺寸变化。
+         *
+         * @param dwPx 宽度变化量 (像素)
+         * @param dhPx 高度变化量 (像素)
+         */
+        void onResizeFrame(int dwPx, int dhPx);
+
+        /**
+         * 更新只用于渲染的预测偏移，叠加在已提交的几何位置之上，不参与位置计算与约束。
+         *
+         * @param offsetXPx X 轴预测偏移 (像素)，手势结束时为 0
+         * @param offsetYPx Y 轴预测偏移 (像素)，手势结束时为 0
+         */
+        void onPredictionFrame(int offsetXPx, int offsetYPx);
+    }
+
+    /**
+     * 帧回调的调度方式，默认使用主线程的 {@link Choreographer}。
+     */
+    interface FrameScheduler {
+        void postFrameCallback(Choreographer.FrameCallback callback);
+
+        void removeFrameCallback(Choreographer.FrameCallback callback);
+    }
+
+    /** 预测外推的帧数，对应窗口移动相对手指滞后的合成帧数 */
+    private static final float PREDICTION_HORIZON_FRAMES = 1.5f;
+    /** 单次预测允许的最大偏移 (像素) */
+    private static final float MAX_PREDICTION_OFFSET_PX = 96f;
+
+    private final Sink sink;
+    private final long frameIntervalNanos;
+    private final FrameScheduler scheduler;
+    /** 是否在手势结束时输出统计日志 */
+    private final boolean logGestures;
+    /** 为 null 表示未启用预测 */
+    private TouchPredictor predictor;
+    /** 已交给接收者的渲染预测偏移 */
+    private int appliedPredictionX;
+    private int appliedPredictionY;
+    private boolean frameScheduled;
+    private float pendingDragX;
+    private float pendingDragY;
+    private float pendingResizeW;
+    private float pendingResizeH;
+    /** 当前手势的统计数据，手势结束时输出 */
+    private int gestureSamples;
+    private int gestureFrames;
+    private long gestureDroppedFrames;
+
+    /**
+     * 构造函数。
+     *
+     * @param sink 合并结果接收者
+     * @param refreshRate 显示刷新率 (Hz)，用于计算掉帧数
+     */
+    public GestureInputCoalescer(Sink sink, float refreshRate) {
+        this(sink, refreshRate, new ChoreographerScheduler(), true);
+    }
+
+    GestureInputCoalescer(Sink sink, float refreshRate, FrameScheduler scheduler, boolean logGestures) {
+        this.sink = sink;
+        float safeRate = refreshRate >= 1f ? refreshRate : 60f;
+        this.frameIntervalNanos = (long) (1_000_000_000L / safeRate);
+        this.scheduler = scheduler;
+        this.logGestures = logGestures;
+    }
+
+    /**
+     * 启用或关闭拖拽位置预测。
+     *
+     * @param enabled 是否启用
+     */
+    public void setPredictionEnabled(boolean enabled) {
+        if (enabled && predictor == null) {
+            predictor = new TouchPredictor((long) (frameIntervalNanos * PREDICTION_HORIZON_FRAMES),
+                    MAX_PREDICTION_OFFSET_PX);
+        } else if (!enabled) {
+            predictor = null;
+            clearPrediction();
+        }
+    }
+
+    /**
+     * 累加一个拖拽采样。
+     *
+     * @param dxPx X 轴偏移量 (像素，可为小数)
+     * @param dyPx Y 轴偏移量 (像素，可为小数)
+     * @param eventTimeNanos 采样时间 (纳秒)
+     * @param rawX 采样的屏幕 X 坐标，供预测使用
+     * @param rawY 采样的屏幕 Y 坐标，供预测使用
+     */
+    public void addDrag(float dxPx, float dyPx, long eventTimeNanos, float rawX, float rawY) {
+        pendingDragX += dxPx;
+        pendingDragY += dyPx;
+        if (predictor != null) {
+            predictor.addSample(eventTimeNanos, rawX, rawY);
+        }
+        onSampleAdded();
+    }
+
+    /**
+     * 累加一个缩放采样。
+     *
+     * @param dwPx 宽度变化量 (像素，可为小数)
+     * @param dhPx 高度变化量 (像素，可为小数)
+     */
+    public void addResize(float dwPx, float dhPx) {
+        pendingResizeW += dwPx;
+        pendingResizeH += dhPx;
+        onSampleAdded();
+    }
+
+    /**
+     * 立即提交尚未提交的增量，并结束当前手势的统计。
+     * 在手势抬起/取消时调用，确保结束回调之前最后的位移已经生效。
+     */
+    public void flush() {
+        cancelFrame();
+        commit();
+        // 预测偏移只存在于渲染层，清零后显示位置即为约束后的真实位置
+        clearPrediction();
+        endGesture();
+    }
+
+    /** 丢弃所有未提交的增量。 */
+    public void reset() {
+        cancelFrame();
+        pendingDragX = 0f;
+        pendingDragY = 0f;
+        pendingResizeW = 0f;
+        pendingResizeH = 0f;
+        clearPrediction();
+        if (predictor != null) {
+            predictor.reset();
+        }
+        gestureSamples = 0;
+        gestureFrames = 0;
+        gestureDroppedFrames = 0L;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        // 与 Choreographer 的跳帧判断一致：回调执行时间相对 vsync 的滞后超过一个帧间隔即视为掉帧
+        long jitterNanos = System.nanoTime() - frameTimeNanos;
+        if (jitterNanos >= frameIntervalNanos) {
+            long dropped = jitterNanos / frameIntervalNanos;
+            gestureDroppedFrames += dropped;
+            PerfMetrics.add(PerfMetrics.GESTURE_FRAMES_DROPPED, dropped);
+        }
+        commit();
+        if (predictor != null) {
+            applyPrediction(frameTimeNanos + (long) (frameIntervalNanos * PREDICTION_HORIZON_FRAMES));
+        }
+        if (predictor != null && !frameScheduled && (appliedPredictionX != 0 || appliedPredictionY != 0)) {
+            // 手指停住后不再有新采样，多请求一帧让过期的预测偏移回落到 0
+            scheduleFrame();
+        }
+    }
+
+    /**
+     * 计算外推到画面呈现时间的预测偏移，变化时交给接收者作为渲染偏移。
+     */
+    private void applyPrediction(long presentTimeNanos) {
+        predictor.predict(presentTimeNanos);
+        setPrediction(Math.round(predictor.getPredictedDx()), Math.round(predictor.getPredictedDy()));
+    }
+
+    private void clearPrediction() {
+        setPrediction(0, 0);
+    }
+
+    private void setPrediction(int offsetX, int offsetY) {
+        if (offsetX == appliedPredictionX && offsetY == appliedPredictionY) {
+            return;
+        }
+        appliedPredictionX = offsetX;
+        appliedPredictionY = offsetY;
+        sink.onPredictionFrame(offsetX, offsetY);
+    }
+
+    private void onSampleAdded() {
+        gestureSamples++;
+        PerfMetrics.increment(PerfMetrics.GESTURE_INPUT_SAMPLES);
+        if (frameScheduled) {
+            return;
+        }
+        scheduleFrame();
+    }
+
+    private void scheduleFrame() {
+        scheduler.postFrameCallback(this);
+        frameScheduled = true;
+    }
+
+    private void cancelFrame() {
+        if (frameScheduled) {
+            scheduler.removeFrameCallback(this);
+        }
+        frameScheduled = false;
+    }
+
+    private void commit() {
+        int dx = Math.round(pendingDragX);
+        int dy = Math.round(pendingDragY);
+        int dw = Math.round(pendingResizeW);
+        int dh = Math.round(pendingResizeH);
+        pendingDragX -= dx;
+        pendingDragY -= dy;
+        pendingResizeW -= dw;
+        pendingResizeH -= dh;
+        boolean committed = false;
+        if (dx != 0 || dy != 0) {
+            sink.onDragFrame(dx, dy);
+            committed = true;
+        }
+        if (dw != 0 || dh != 0) {
+            sink.onResizeFrame(dw, dh);
+            committed = true;
+        }
+        if (committed) {
+            gestureFrames++;
+            PerfMetrics.increment(PerfMetrics.GESTURE_FRAMES_COMMITTED);
+        }
+    }
+
+    private void endGesture() {
+        if (logGestures && gestureSamples > 0) {
+            Logger.i("gesture coalesced: samples=" + gestureSamples
+                    + " frames=" + gestureFrames
+                    + " dropped=" + gestureDroppedFrames);
+        }
+        if (predictor != null) {
+            int evaluated = predictor.getErrorSamples();
+            if (evaluated > 0) {
+                PerfMetrics.add(PerfMetrics.GESTURE_PREDICTION_EVALUATED, evaluated);
+                PerfMetrics.add(PerfMetrics.GESTURE_PREDICTION_ERROR_PX,
+                        Math.round(predictor.getMeanErrorPx() * evaluated));
+            }
+            if (logGestures && evaluated > 0) {
+                Logger.i("gesture prediction: evaluated=" + evaluated
+                        + " meanErrorPx=" + predictor.getMeanErrorPx()
+                        + " maxErrorPx=" + predictor.getMaxErrorPx());
+            }
+            predictor.reset();
+        }
+        pendingDragX = 0f;
+        pendingDragY = 0f;
+        pendingResizeW = 0f;
+        pendingResizeH = 0f;
+        gestureSamples = 0;
+        gestureFrames = 0;
+        gestureDroppedFrames = 0L;
+    }
+
+    private static final class ChoreographerScheduler implements FrameScheduler {
+        private Choreographer choreographer;
+
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+            if (choreographer == null) {
+                choreographer = Choreographer.getInstance();
+            }
+            choreographer.postFrameCallback(callback);
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            if (choreographer != null) {
+                choreographer.removeFrameCallback(callback);
+            }
+        }
+    }
+}
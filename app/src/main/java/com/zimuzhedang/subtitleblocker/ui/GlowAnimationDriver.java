@@ -0,0 +1,190 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.view.Choreographer;
+
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+/**
+ * 最小化圆点的统一动画时钟。
+ * 缩放、透明度、射线旋转与闪烁全部由同一个帧时间戳计算，每帧只回调一次接收者，
+ * 取代原先五个各自调度属性更新与重绘的无限循环动画。
+ * 支持帧率上限，超过上限的 vsync 不会唤醒计算，降低常驻圆点在视频播放时的 CPU 占用。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class GlowAnimationDriver implements Choreographer.FrameCallback {
+    /**
+     * 动画帧接收者。
+     */
+    public interface Sink {
+        /**
+         * 应用一帧的动画参数。
+         *
+         * @param scale 缩放比例
+         * @param alpha 透明度
+         * @param rayRotation 射线旋转角度
+         * @param flicker 闪烁强度
+         */
+        void onGlowFrame(float scale, float alpha, float rayRotation, float flicker);
+    }
+
+    /**
+     * 帧回调的调度方式，默认使用主线程的 {@link Choreographer}。
+     */
+    public interface FrameScheduler {
+        void postFrameCallbackDelayed(Choreographer.FrameCallback callback, long delayMs);
+
+        void removeFrameCallback(Choreographer.FrameCallback callback);
+    }
+
+    /** 呼吸 (缩放与透明度) 周期 */
+    private static final long BREATH_PERIOD_MS = 1500L;
+    /** 射线旋转一周的时长 */
+    private static final long ROTATION_PERIOD_MS = 9000L;
+    private static final long FLICKER_PERIOD_MS = 1800L;
+    private static final float[] SCALE_KEYS = {1.0f, 1.06f, 1.0f};
+    private static final float[] ALPHA_KEYS = {0.92f, 1.0f, 0.92f};
+    private static final float[] FLICKER_KEYS = {0.96f, 1.08f, 0.88f, 1.12f, 0.94f};
+    /** 帧率上限判断的容差，避免 vsync 抖动导致多跳一帧 */
+    private static final long FRAME_SLACK_NANOS = 4_000_000L;
+    private static final String METRIC_FRAMES = "glow.frames";
+
+    private final Sink sink;
+    private final FrameScheduler scheduler;
+    private long minFrameIntervalNanos;
+    private boolean rotateEnabled = true;
+    private boolean running;
+    /** 动画起点的帧时间，-1 表示尚未收到首帧 */
+    private long originNanos = -1L;
+    private long lastAppliedNanos = -1L;
+
+    /**
+     * 构造函数。
+     *
+     * @param sink 动画帧接收者
+     * @param scheduler 帧回调调度器
+     */
+    public GlowAnimationDriver(Sink sink, FrameScheduler scheduler) {
+        this.sink = sink;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 创建由主线程 {@link Choreographer} 驱动的动画时钟。
+     *
+     * @param sink 动画帧接收者
+     * @return 动画时钟
+     */
+    public static GlowAnimationDriver onMainThread(Sink sink) {
+        return new GlowAnimationDriver(sink, new ChoreographerScheduler());
+    }
+
+    /**
+     * 设置帧率上限。
+     *
+     * @param maxFps 每秒最多计算的帧数，0 或负数表示跟随屏幕刷新率
+     */
+    public void setMaxFps(int maxFps) {
+        minFrameIntervalNanos = maxFps > 0 ? 1_000_000_000L / maxFps : 0L;
+    }
+
+    /**
+     * 设置是否启用旋转、缩放与闪烁。关闭后只保留透明度呼吸，其余参数保持静止值。
+     */
+    public void setRotateEnabled(boolean enabled) {
+        rotateEnabled = enabled;
+    }
+
+    /** @return 动画是否正在运行 */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** 启动动画，已在运行时忽略。 */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        originNanos = -1L;
+        lastAppliedNanos = -1L;
+        scheduler.postFrameCallbackDelayed(this, 0L);
+    }
+
+    /** 停止动画并把参数恢复为静止值。 */
+    public void stop() {
+        if (running) {
+            scheduler.removeFrameCallback(this);
+            running = false;
+        }
+        sink.onGlowFrame(1.0f, 1.0f, 0.0f, 1.0f);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        if (originNanos < 0L) {
+            originNanos = frameTimeNanos;
+        }
+        long sinceLast = frameTimeNanos - lastAppliedNanos;
+        if (lastAppliedNanos >= 0L && sinceLast < minFrameIntervalNanos - FRAME_SLACK_NANOS) {
+            scheduler.postFrameCallbackDelayed(this, 0L);
+            return;
+        }
+        lastAppliedNanos = frameTimeNanos;
+        long elapsedMs = (frameTimeNanos - originNanos) / 1_000_000L;
+        float breath = accelerateDecelerate(phase(elapsedMs, BREATH_PERIOD_MS));
+        float alpha = keyframes(ALPHA_KEYS, breath);
+        if (rotateEnabled) {
+            float scale = keyframes(SCALE_KEYS, breath);
+            float rotation = phase(elapsedMs, ROTATION_PERIOD_MS) * 360f;
+            float flicker = keyframes(FLICKER_KEYS, accelerateDecelerate(phase(elapsedMs, FLICKER_PERIOD_MS)));
+            sink.onGlowFrame(scale, alpha, rotation, flicker);
+        } else {
+            sink.onGlowFrame(1.0f, alpha, 0.0f, 1.0f);
+        }
+        PerfMetrics.increment(METRIC_FRAMES);
+        // 帧率受限时延迟到下一个允许的时刻再请求 vsync，中间的帧不唤醒主线程
+        long delayMs = Math.max(0L, (minFrameIntervalNanos - FRAME_SLACK_NANOS) / 1_000_000L);
+        scheduler.postFrameCallbackDelayed(this, delayMs);
+    }
+
+    /** @return 当前时刻在周期内的进度 [0, 1) */
+    static float phase(long elapsedMs, long periodMs) {
+        return (elapsedMs % periodMs) / (float) periodMs;
+    }
+
+    /** 与 {@code AccelerateDecelerateInterpolator} 相同的插值曲线。 */
+    static float accelerateDecelerate(float fraction) {
+        return (float) (Math.cos((fraction + 1) * Math.PI) / 2.0) + 0.5f;
+    }
+
+    /** 与 {@code ValueAnimator.ofFloat(keys...)} 相同，在均匀分布的关键帧之间线性插值。 */
+    static float keyframes(float[] keys, float fraction) {
+        float position = fraction * (keys.length - 1);
+        int index = Math.min((int) position, keys.length - 2);
+        return keys[index] + (keys[index + 1] - keys[index]) * (position - index);
+    }
+
+    private static final class ChoreographerScheduler implements FrameScheduler {
+        private Choreographer choreographer;
+
+        @Override
+        public void postFrameCallbackDelayed(Choreographer.FrameCallback callback, long delayMs) {
+            if (choreographer == null) {
+                choreographer = Choreographer.getInstance();
+            }
+            choreographer.postFrameCallbackDelayed(callback, delayMs);
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            if (choreographer != null) {
+                choreographer.removeFrameCallback(callback);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+import android.util.LruCache;
+
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+/**
+ * 光点静态主体的位图图层缓存。
+ * 光晕、辉光、核心与高光每帧只有透明度随脉动变化，因此每层以基准脉动渲染到位图中，
+ * 位图内的透明度相对该层的基准透明度归一化，绘制时由画笔透明度给出 min(255, 基准透明度 × 脉动系数)，
+ * 脉动高于基准时不会因烘焙阶段的截断而变暗。描边与闪点的透明度曲线与所在图层不同，放进同一图层会随图层一起截断，
+ * 它们只是几个纯色圆，由光点视图按 {@link #rimAlpha}、{@link #sparkleAlpha} 直接绘制。
+ * 图层按量化后的像素尺寸作为键放入按字节计量的 LRU 缓存，
+ * 拖动圆点尺寸滑块时相近尺寸共用同一组图层并缩放绘制，不会每次尺寸变化都重新创建渐变着色器。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class GlowLayerCache {
+    /** 图层烘焙时使用的脉动强度 */
+    public static final float BAKED_PULSE = 1f;
+    /** 各层在基准脉动下的透明度，绘制时按脉动缩放 */
+    private static final float HALO_BASE_ALPHA = 122f;
+    private static final float BODY_BASE_ALPHA = 228f;
+    private static final float HIGHLIGHT_BASE_ALPHA = 238f;
+    /** 各元素烘焙进图层时的透明度，实际透明度为 烘焙透明度 × 画笔透明度 / 255 */
+    static final int HALO_BAKED_ALPHA = baked(122f * BAKED_PULSE, HALO_BASE_ALPHA);
+    static final int BLOOM_BAKED_ALPHA = baked(146f * bodyPulse(BAKED_PULSE), BODY_BASE_ALPHA);
+    static final int CORE_BAKED_ALPHA = baked(228f * bodyPulse(BAKED_PULSE), BODY_BASE_ALPHA);
+    static final int HIGHLIGHT_BAKED_ALPHA = baked(238f * BAKED_PULSE, HIGHLIGHT_BASE_ALPHA);
+    /** 每组图层的位图数量 */
+    private static final int LAYER_COUNT = 3;
+    /** 尺寸量化步长 (像素)，图层边长向上取整到该步长的倍数 */
+    private static final int SIZE_STEP_PX = 16;
+    private static final String METRIC_HIT = "glow.layers.hit";
+    private static final String METRIC_MISS = "glow.layers.miss";
+
+    /** 一组按同一尺寸渲染的图层，按绘制顺序分为三层，各层透明度随脉动的变化规律不同。 */
+    public static final class Layers {
+        /** 图层位图边长 (像素) */
+        public final int sizePx;
+        /** 外层光晕，透明度与脉动成正比 */
+        public final Bitmap halo;
+        /** 辉光与核心，透明度随脉动小幅变化 */
+        public final Bitmap body;
+        /** 高光，透明度与脉动成正比 */
+        public final Bitmap highlight;
+
+        private Layers(int sizePx, Bitmap halo, Bitmap body, Bitmap highlight) {
+            this.sizePx = sizePx;
+            this.halo = halo;
+            this.body = body;
+            this.highlight = highlight;
+        }
+
+        private int byteCount() {
+            return halo.getByteCount() + body.getByteCount() + highlight.getByteCount();
+        }
+    }
+
+    private final LruCache<Integer, Layers> cache;
+
+    /**
+     * 构造函数。
+     *
+     * @param maxBytes 缓存图层位图的总字节上限
+     */
+    public GlowLayerCache(int maxBytes) {
+        cache = new LruCache<Integer, Layers>(maxBytes) {
+            @Override
+            protected int sizeOf(Integer key, Layers value) {
+                return value.byteCount();
+            }
+        };
+    }
+
+    /**
+     * 获取覆盖指定尺寸的图层，缓存未命中时渲染一组新的图层。
+     *
+     * @param sizePx 光点视图的边长 (像素)
+     * @return 图层，边长不小于 sizePx
+     */
+    public Layers obtain(int sizePx) {
+        int key = bucketSize(sizePx);
+        Layers layers = cache.get(key);
+        if (layers != null) {
+            PerfMetrics.increment(METRIC_HIT);
+            return layers;
+        }
+        PerfMetrics.increment(METRIC_MISS);
+        layers = render(key);
+        cache.put(key, layers);
+        return layers;
+    }
+
+    /** 释放所有缓存的图层。 */
+    public void clear() {
+        cache.evictAll();
+    }
+
+    /**
+     * 计算能容纳指定数量最大尺寸图层组的缓存字节数。
+     *
+     * @param maxSizePx 光点视图的最大边长 (像素)
+     * @param entries 需要同时保留的图层组数量
+     * @return 缓存字节上限
+     */
+    public static int budgetFor(int maxSizePx, int entries) {
+        long side = bucketSize(maxSizePx);
+        long bytes = side * side * 4L * LAYER_COUNT * Math.max(1, entries);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    /** @return 光晕层在指定脉动下的画笔透明度 */
+    public static int haloAlpha(float pulse) {
+        return alpha(HALO_BASE_ALPHA * pulse / BAKED_PULSE);
+    }
+
+    /** @return 主体层在指定脉动下的画笔透明度 */
+    public static int bodyAlpha(float pulse) {
+        return alpha(BODY_BASE_ALPHA * bodyPulse(pulse) / bodyPulse(BAKED_PULSE));
+    }
+
+    /** @return 高光层在指定脉动下的画笔透明度 */
+    public static int highlightAlpha(float pulse) {
+        return alpha(HIGHLIGHT_BASE_ALPHA * pulse / BAKED_PULSE);
+    }
+
+    /** @return 描边在指定脉动下的透明度，直接用于描边画笔 */
+    public static int rimAlpha(float pulse) {
+        return alpha(95f * (0.92f + pulse * 0.08f));
+    }
+
+    /** @return 大闪点在指定脉动下的透明度，直接用于闪点颜色 */
+    public static int sparkleAlpha(float pulse) {
+        return alpha(172f * pulse);
+    }
+
+    /** @return 小闪点在指定脉动下的透明度，直接用于闪点颜色 */
+    public static int smallSparkleAlpha(float pulse) {
+        return alpha(114f * pulse);
+    }
+
+    private static float bodyPulse(float pulse) {
+        return 0.9f + pulse * 0.1f;
+    }
+
+    /** 把像素尺寸向上量化到 {@link #SIZE_STEP_PX} 的倍数，至少为一个步长。 */
+    static int bucketSize(int sizePx) {
+        int steps = (Math.max(1, sizePx) + SIZE_STEP_PX - 1) / SIZE_STEP_PX;
+        return steps * SIZE_STEP_PX;
+    }
+
+    private static Layers render(int sizePx) {
+        float center = sizePx / 2f;
+        float radius = sizePx / 2f;
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        Bitmap halo = Bitmap.createBitmap(sizePx, sizePx, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(halo);
+        paint.setShader(new RadialGradient(
+                center,
+                center,
+                radius,
+                new int[]{
+                        Color.argb(170, 130, 243, 255),
+                        Color.argb(82, 95, 198, 255),
+                        Color.argb(0, 95, 198, 255)
+                },
+                new float[]{0f, 0.62f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        paint.setAlpha(HALO_BAKED_ALPHA);
+        canvas.drawCircle(center, center, radius * 1.06f, paint);
+
+        Bitmap body = Bitmap.createBitmap(sizePx, sizePx, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(body);
+        paint.setShader(new RadialGradient(
+                center,
+                center,
+                radius * 0.96f,
+                new int[]{
+                        Color.argb(210, 198, 244, 255),
+                        Color.argb(130, 128, 217, 255),
+                        Color.argb(0, 128, 217, 255)
+                },
+                new float[]{0f, 0.55f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        paint.setAlpha(BLOOM_BAKED_ALPHA);
+        canvas.drawCircle(center, center, radius * 0.9f, paint);
+        paint.setShader(new RadialGradient(
+                center - radius * 0.08f,
+                center - radius * 0.1f,
+                radius * 0.76f,
+                new int[]{
+                        Color.WHITE,
+                        Color.argb(255, 228, 250, 255),
+                        Color.argb(230, 180, 234, 255),
+                        Color.argb(68, 88, 193, 255)
+                },
+                new float[]{0f, 0.24f, 0.7f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        paint.setAlpha(CORE_BAKED_ALPHA);
+        canvas.drawCircle(center, center, radius * 0.62f, paint);
+
+        Bitmap highlight = Bitmap.createBitmap(sizePx, sizePx, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(highlight);
+        paint.setShader(new RadialGradient(
+                center - radius * 0.24f,
+                center - radius * 0.24f,
+                radius * 0.38f,
+                new int[]{
+                        Color.argb(255, 255, 255, 255),
+                        Color.argb(0, 230, 246, 255)
+                },
+                new float[]{0f, 1f},
+                Shader.TileMode.CLAMP
+        ));
+        paint.setAlpha(HIGHLIGHT_BAKED_ALPHA);
+        canvas.drawCircle(center - radius * 0.18f, center - radius * 0.18f, radius * 0.34f, paint);
+        return new Layers(sizePx, halo, body, highlight);
+    }
+
+    /** 把绘制透明度换算为相对该层基准透明度的烘焙透明度。 */
+    private static int baked(float value, float baseAlpha) {
+        return alpha(255f * value / baseAlpha);
+    }
+
+    private static int alpha(float value) {
+        return Math.max(0, Math.min(255, Math.round(value)));
+    }
+}
@@ -0,0 +1,199 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import java.util.Random;
+
+/**
+ * 光点射线的批量几何。
+ * 射线的基础方向、长度与线宽系数在构造时一次算好，尺寸变化时换算成像素；
+ * 每帧只精确计算一次整体旋转，单条射线的闪烁使用查表得到的正弦值，并按透明度分桶把线段写入各桶的坐标数组，
+ * 绘制时每个桶只需一次 {@code Canvas.drawLines} 调用，整个过程不分配对象。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class GlowRayBatch {
+    /** 透明度分桶数 */
+    public static final int ALPHA_BUCKETS = 4;
+    /** 线宽档位数，每条射线的线宽档位在构造时固定 */
+    public static final int WIDTH_TIERS = 2;
+    /** 桶总数，下标为 {@code tier * ALPHA_BUCKETS + alphaBucket} */
+    public static final int BUCKETS = ALPHA_BUCKETS * WIDTH_TIERS;
+    private static final float TWO_PI = (float) (Math.PI * 2.0);
+    /** 正弦表长度，必须是 2 的幂 */
+    private static final int SINE_TABLE_SIZE = 1024;
+    private static final int SINE_TABLE_MASK = SINE_TABLE_SIZE - 1;
+    private static final float SINE_INDEX_SCALE = SINE_TABLE_SIZE / TWO_PI;
+    private static final float[] SINE_TABLE = new float[SINE_TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < SINE_TABLE_SIZE; i++) {
+            SINE_TABLE[i] = (float) Math.sin(i * TWO_PI / SINE_TABLE_SIZE);
+        }
+    }
+
+    private final int rayCount;
+    /** 未旋转时各射线的方向单位向量 */
+    private final float[] baseCos;
+    private final float[] baseSin;
+    private final float[] endFactors;
+    private final float[] alphaFactors;
+    /** 各射线闪烁相位的偏移 */
+    private final float[] phaseOffsets;
+    private final int[] widthTiers;
+    /** 各线宽档位内射线线宽系数的平均值 */
+    private final float[] tierWidthFactors = new float[WIDTH_TIERS];
+    private final float[] tierStrokeWidths = new float[WIDTH_TIERS];
+    private final float[][] lines = new float[BUCKETS][];
+    private final int[] lineFloatCounts = new int[BUCKETS];
+    private final float[] alphaSums = new float[BUCKETS];
+    private final float[] energySums = new float[BUCKETS];
+
+    private float centerX;
+    private float centerY;
+    private float radius;
+
+    /**
+     * 构造函数。
+     *
+     * @param rayCount 射线条数
+     * @param seed 长度、透明度与线宽系数的随机种子
+     */
+    public GlowRayBatch(int rayCount, long seed) {
+        this.rayCount = rayCount;
+        baseCos = new float[rayCount];
+        baseSin = new float[rayCount];
+        endFactors = new float[rayCount];
+        alphaFactors = new float[rayCount];
+        phaseOffsets = new float[rayCount];
+        widthTiers = new int[rayCount];
+        float[] widthFactors = new float[rayCount];
+        Random random = new Random(seed);
+        for (int i = 0; i < rayCount; i++) {
+            double angle = Math.PI * 2.0 * i / rayCount;
+            baseCos[i] = (float) Math.cos(angle);
+            baseSin[i] = (float) Math.sin(angle);
+            float sinSeed = (float) Math.sin(i * 0.73f);
+            float lengthFactor = clamp(0.48f + (sinSeed * 0.16f) + (random.nextFloat() * 0.24f), 0.3f, 1.0f);
+            endFactors[i] = 0.74f + lengthFactor * 0.26f;
+            alphaFactors[i] = clamp(0.26f + random.nextFloat() * 0.74f, 0.26f, 1.0f);
+            widthFactors[i] = clamp(0.15f + random.nextFloat() * 0.85f, 0.15f, 1.0f);
+            phaseOffsets[i] = i * 0.62f;
+        }
+        int[] tierSizes = new int[WIDTH_TIERS];
+        for (int i = 0; i < rayCount; i++) {
+            int tier = Math.min(WIDTH_TIERS - 1, (int) ((widthFactors[i] - 0.15f) / 0.85f * WIDTH_TIERS));
+            widthTiers[i] = tier;
+            tierWidthFactors[tier] += widthFactors[i];
+            tierSizes[tier]++;
+        }
+        for (int tier = 0; tier < WIDTH_TIERS; tier++) {
+            if (tierSizes[tier] > 0) {
+                tierWidthFactors[tier] /= tierSizes[tier];
+            }
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            lines[b] = new float[rayCount * 4];
+        }
+    }
+
+    /**
+     * 视图尺寸变化时更新中心点、半径以及各档位的像素线宽。
+     */
+    public void setSize(float centerX, float centerY, float radius) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.radius = radius;
+        for (int tier = 0; tier < WIDTH_TIERS; tier++) {
+            tierStrokeWidths[tier] = Math.max(0.8f, radius * (0.009f + 0.009f * tierWidthFactors[tier]));
+        }
+    }
+
+    /**
+     * 计算一帧的射线线段并按桶归类。
+     *
+     * @param rotationDegrees 射线整体旋转角度
+     * @param pulse 整体脉动强度
+     * @param twinkle 是否启用单条射线的闪烁
+     * @param uptimeMillis 当前时间，决定闪烁相位
+     */
+    public void update(float rotationDegrees, float pulse, boolean twinkle, long uptimeMillis) {
+        for (int b = 0; b < BUCKETS; b++) {
+            lineFloatCounts[b] = 0;
+            alphaSums[b] = 0f;
+            energySums[b] = 0f;
+        }
+        if (radius <= 0f) {
+            return;
+        }
+        // 整体旋转每帧只精确计算一次，各射线方向由基础向量旋转得到
+        double rotationRad = Math.toRadians(rotationDegrees);
+        float rotationCos = (float) Math.cos(rotationRad);
+        float rotationSin = (float) Math.sin(rotationRad);
+        float time = twinkle ? uptimeMillis * 0.0036f : 0f;
+        float startRadius = radius * 0.42f;
+        float minEnd = startRadius + 1f;
+        float maxEnd = radius * 1.02f;
+        float baseAlpha = twinkle ? 50f : 36f;
+        float alphaRange = twinkle ? 126f : 86f;
+        for (int i = 0; i < rayCount; i++) {
+            float energy = pulse * (twinkle ? 0.82f + 0.18f * sin(time + phaseOffsets[i]) : 0.84f);
+            float endRadius = clamp(radius * endFactors[i] * energy, minEnd, maxEnd);
+            float alpha = clamp((baseAlpha + alphaRange * alphaFactors[i]) * energy, 0f, 255f);
+            int alphaBucket = Math.min(ALPHA_BUCKETS - 1, (int) (alpha * ALPHA_BUCKETS / 256f));
+            int bucket = widthTiers[i] * ALPHA_BUCKETS + alphaBucket;
+
+            float c = baseCos[i] * rotationCos - baseSin[i] * rotationSin;
+            float s = baseSin[i] * rotationCos + baseCos[i] * rotationSin;
+            float[] out = lines[bucket];
+            int offset = lineFloatCounts[bucket];
+            out[offset] = centerX + c * startRadius;
+            out[offset + 1] = centerY + s * startRadius;
+            out[offset + 2] = centerX + c * endRadius;
+            out[offset + 3] = centerY + s * endRadius;
+            lineFloatCounts[bucket] = offset + 4;
+            alphaSums[bucket] += alpha;
+            energySums[bucket] += energy;
+        }
+    }
+
+    /** @return 桶内线段坐标，有效长度见 {@link #getLineFloatCount(int)} */
+    public float[] getLines(int bucket) {
+        return lines[bucket];
+    }
+
+    /** @return 桶内线段的坐标个数，每条线段占 4 个 */
+    public int getLineFloatCount(int bucket) {
+        return lineFloatCounts[bucket];
+    }
+
+    /** @return 桶内射线透明度的平均值 (0-255) */
+    public int getAlpha(int bucket) {
+        int rays = lineFloatCounts[bucket] >> 2;
+        return rays == 0 ? 0 : Math.round(alphaSums[bucket] / rays);
+    }
+
+    /** @return 桶内射线能量的平均值，用于决定颜色 */
+    public float getEnergy(int bucket) {
+        int rays = lineFloatCounts[bucket] >> 2;
+        return rays == 0 ? 0f : energySums[bucket] / rays;
+    }
+
+    /** @return 桶对应档位的像素线宽 */
+    public float getStrokeWidth(int bucket) {
+        return tierStrokeWidths[bucket / ALPHA_BUCKETS];
+    }
+
+    /** 查表正弦，误差约为 {@code 2π / 1024}。 */
+    static float sin(float rad) {
+        return SINE_TABLE[(int) (rad * SINE_INDEX_SCALE) & SINE_TABLE_MASK];
+    }
+
+    /** 查表余弦。 */
+    static float cos(float rad) {
+        return SINE_TABLE[((int) (rad * SINE_INDEX_SCALE) + (SINE_TABLE_SIZE >> 2)) & SINE_TABLE_MASK];
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -50,7 +50,7 @@ import com.zimuzhedang.subtitleblocker.R;
 import com.zimuzhedang.subtitleblocker.data.GithubReleaseClient;
 import com.zimuzhedang.subtitleblocker.data.ReleaseInfo;
 import com.zimuzhedang.subtitleblocker.data.SettingsRepository;
-import com.zimuzhedang.subtitleblocker.data.SharedPreferencesSettingsRepository;
+import com.zimuzhedang.subtitleblocker.data.SettingsStore;
 import com.zimuzhedang.subtitleblocker.data.SoundPlayer;
 import com.zimuzhedang.subtitleblocker.data.ToneSoundPlayer;
 import com.zimuzhedang.subtitleblocker.data.VersionNameComparator;
@@ -65,7 +65,9 @@ import com.zimuzhedang.subtitleblocker.platform.KeepAliveController;
 import com.zimuzhedang.subtitleblocker.platform.OverlayRuntime;
 import com.zimuzhedang.subtitleblocker.platform.PermissionNavigator;
 import com.zimuzhedang.subtitleblocker.platform.SystemPermissionNavigator;
+import com.zimuzhedang.subtitleblocker.vm.EffectChannel;
 import com.zimuzhedang.subtitleblocker.vm.OverlayViewModel;
+import com.zimuzhedang.subtitleblocker.vm.StateStore;
 
 /**
  * 应用主界面。
@@ -86,6 +88,8 @@ public final class MainActivity extends AppCompatActivity {
     private static final String UPDATE_APK_TMP_FILE_NAME = "subtitle-blocker-latest.apk.part";
 
     private OverlayViewModel viewModel;
+    private final StateStore.Subscriber<OverlayState> overlayStateSubscriber = this::renderOverlay;
+    private final EffectChannel.Subscriber effectSubscriber = this::handleEffect;
     /** 权限导航器 */
     private PermissionNavigator permissionNavigator;
     /** 常驻后台控制器 */
@@ -99,6 +103,8 @@ public final class MainActivity extends AppCompatActivity {
     private volatile boolean checkingUpdate;
     /** 当前悬浮窗状态缓存 */
     private OverlayState currentState;
+    /** 拖动圆点尺寸滑块期间持有的设置事务，松手时提交一次 */
+    private boolean dotSizeTransactionOpen;
 
     private MaterialButton btnEnable;
     private MaterialButton btnDisable;
@@ -132,8 +138,7 @@ public final class MainActivity extends AppCompatActivity {
 
     @Override
     protected void attachBaseContext(Context newBase) {
-        SettingsRepository repository = new SharedPreferencesSettingsRepository(newBase);
-        Settings settings = repository.loadSettings();
+        Settings settings = SettingsStore.getInstance(newBase).get();
         super.attachBaseContext(applyLanguage(newBase, settings.appLanguage));
     }
 
@@ -142,17 +147,18 @@ public final class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        settingsRepository = new SharedPreferencesSettingsRepository(this);
+        settingsRepository = SettingsStore.getInstance(this);
         viewModel = OverlayManager.getInstance().getViewModel(this);
         permissionNavigator = new SystemPermissionNavigator(this);
         keepAliveController = new DefaultKeepAliveController(this);
         soundPlayer = new ToneSoundPlayer();
 
         bindViews();
-        bindViewModel();
         Settings settings = settingsRepository.loadSettings();
         currentAppLanguage = settings.appLanguage;
         setupSettingsUi(settings);
+        // 首帧绘制完成后的空闲时间里预先构建悬浮窗视图，开启悬浮窗时无需再解析布局
+        OverlayRuntime.getInstance().prewarm(this);
         if (savedInstanceState == null) {
             checkForUpdate(false);
         }
@@ -226,10 +232,13 @@ public final class MainActivity extends AppCompatActivity {
             viewModel.onKeepAliveChanged(isChecked);
         });
         switchTransparencyToggle.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            viewModel.onTransparencyToggleEnabledChanged(isChecked);
-            if (!isChecked) {
-                switchTransparencyAutoRestore.setChecked(false);
-            }
+            // 关闭透明切换会连带关闭自动恢复，两项修改合并为一次提交
+            SettingsStore.getInstance(this).runInTransaction(() -> {
+                viewModel.onTransparencyToggleEnabledChanged(isChecked);
+                if (!isChecked) {
+                    switchTransparencyAutoRestore.setChecked(false);
+                }
+            });
             updateTransparencySettingsUi();
         });
         switchTransparencyAutoRestore.setOnCheckedChangeListener((buttonView, isChecked) -> {
@@ -267,39 +276,67 @@ public final class MainActivity extends AppCompatActivity {
 
             @Override
             public void onStartTrackingTouch(SeekBar seekBar) {
+                beginDotSizeTransaction();
             }
 
             @Override
             public void onStopTrackingTouch(SeekBar seekBar) {
+                endDotSizeTransaction();
             }
         });
     }
 
+    private void beginDotSizeTransaction() {
+        if (!dotSizeTransactionOpen) {
+            dotSizeTransactionOpen = true;
+            SettingsStore.getInstance(this).beginTransaction();
+        }
+    }
+
+    private void endDotSizeTransaction() {
+        if (dotSizeTransactionOpen) {
+            dotSizeTransactionOpen = false;
+            SettingsStore.getInstance(this).endTransaction();
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        bindViewModel();
+    }
+
+    @Override
+    protected void onStop() {
+        // 拖动中途离开界面时不会收到 onStopTrackingTouch，在此提交
+        endDotSizeTransaction();
+        unbindViewModel();
+        super.onStop();
+    }
+
     /**
-     * 绑定 ViewModel 数据流。
+     * 绑定 ViewModel 数据流，只在界面可见期间订阅。
      */
     private void bindViewModel() {
-        viewModel.getOverlayState().observe(this, this::renderOverlay);
-        viewModel.getEffect().observe(this, effect -> {
-            if (effect == null) {
-                return;
-            }
-            // MainActivity 只处理 NAVIGATE_TO_PERMISSION 和 PLAY_SOUND
-            // REQUEST_HIDE_AFTER_FADE 由 OverlayRuntime 处理，不在这里消费
-            if (effect.type == OneShotEffect.Type.NAVIGATE_TO_PERMISSION) {
-                if (effect.consume()) {
-                    Toast.makeText(this, R.string.action_open_permission, Toast.LENGTH_SHORT).show();
-                    permissionNavigator.openOverlayPermissionSettings(this);
-                    viewModel.clearEffect();
-                }
-            } else if (effect.type == OneShotEffect.Type.PLAY_SOUND) {
-                if (effect.consume()) {
-                    soundPlayer.playClick();
-                    viewModel.clearEffect();
-                }
-            }
-            // 注意：不处理 REQUEST_HIDE_AFTER_FADE，让 OverlayRuntime 处理
-        });
+        viewModel.getOverlayState().subscribe(overlayStateSubscriber);
+        // REQUEST_HIDE_AFTER_FADE 等窗口相关副作用由 OverlayRuntime 订阅
+        viewModel.getEffects().subscribe(effectSubscriber,
+                OneShotEffect.Type.NAVIGATE_TO_PERMISSION,
+                OneShotEffect.Type.PLAY_SOUND);
+    }
+
+    private void unbindViewModel() {
+        viewModel.getOverlayState().unsubscribe(overlayStateSubscriber);
+        viewModel.getEffects().unsubscribe(effectSubscriber);
+    }
+
+    private void handleEffect(OneShotEffect effect) {
+        if (effect.type == OneShotEffect.Type.NAVIGATE_TO_PERMISSION) {
+            Toast.makeText(this, R.string.action_open_permission, Toast.LENGTH_SHORT).show();
+            permissionNavigator.openOverlayPermissionSettings(this);
+        } else if (effect.type == OneShotEffect.Type.PLAY_SOUND) {
+            soundPlayer.playClick();
+        }
     }
 
     /**
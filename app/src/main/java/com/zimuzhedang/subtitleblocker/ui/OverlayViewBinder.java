@@ -1,33 +1,66 @@
 package com.zimuzhedang.subtitleblocker.ui;
 
 import android.graphics.Rect;
+import android.view.WindowManager;
 
+import com.zimuzhedang.subtitleblocker.data.SettingsStore;
 import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
 import com.zimuzhedang.subtitleblocker.domain.OverlayState;
-import com.zimuzhedang.subtitleblocker.platform.FloatWindowController;
-import com.zimuzhedang.subtitleblocker.data.SharedPreferencesSettingsRepository;
 import com.zimuzhedang.subtitleblocker.domain.Settings;
+import com.zimuzhedang.subtitleblocker.platform.FloatWindowController;
 
 /**
  * 悬浮窗视图绑定器。
  * 负责将 {@link OverlayState} 的状态应用到 {@link OverlayWindowView} 和 {@link FloatWindowController} 上。
+ * 绑定器记录上一次已应用的状态并计算变更掩码，只更新真正发生变化的子视图和窗口参数，
+ * 拖拽过程中只改变位置的帧不会触发子视图重新布局或背景资源查找。
  *
  * @author Trae
  * @since 2026-01-30
  */
 public final class OverlayViewBinder {
+    /** 关闭按钮位置变化 */
+    private static final int CHANGE_CLOSE_POSITION = 1;
+    /** 透明切换按钮开关变化 */
+    private static final int CHANGE_TRANSPARENCY_TOGGLE = 1 << 1;
+    /** 透明模式变化 */
+    private static final int CHANGE_TRANSPARENT_MODE = 1 << 2;
+    /** 最小化状态、圆点尺寸或圆点动效变化 */
+    private static final int CHANGE_MINIMIZED = 1 << 3;
+    private static final int CHANGE_ALL = CHANGE_CLOSE_POSITION
+            | CHANGE_TRANSPARENCY_TOGGLE
+            | CHANGE_TRANSPARENT_MODE
+            | CHANGE_MINIMIZED;
+    /** 悬浮窗窗口标志：不抢占输入焦点 */
+    private static final int WINDOW_FLAGS = WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE;
+
     private final FloatWindowController windowController;
     private final OverlayWindowView overlayView;
+    private final SettingsStore settingsStore;
+    /** 上一次已应用到视图上的状态，null 表示尚未绑定过 */
+    private OverlayState lastState;
+    private int lastDotSizeDp;
+    private boolean lastDotRotateEnabled;
+    /** 上一次提交给窗口控制器的矩形 */
+    private boolean hasLastRect;
+    private int lastLeft;
+    private int lastTop;
+    private int lastRight;
+    private int lastBottom;
+    /** 是否已通知窗口控制器手势开始 */
+    private boolean gestureActive;
 
     /**
      * 构造函数。
      *
      * @param windowController 悬浮窗控制器
      * @param overlayView 悬浮窗视图
+     * @param settingsStore 设置存储，渲染时只读取其内存快照
      */
-    public OverlayViewBinder(FloatWindowController windowController, OverlayWindowView overlayView) {
+    public OverlayViewBinder(FloatWindowController windowController, OverlayWindowView overlayView, SettingsStore settingsStore) {
         this.windowController = windowController;
         this.overlayView = overlayView;
+        this.settingsStore = settingsStore;
     }
 
     /**
@@ -38,26 +71,118 @@ public final class OverlayViewBinder {
      * @param anim 可选的动画规格
      */
     public void bind(OverlayState state, AnimationSpec anim) {
-        overlayView.updateCloseButtonPosition(state.closeButtonPosition);
-        overlayView.updateTransparencyToggleEnabled(state.transparencyToggleEnabled);
-        overlayView.updateTransparentMode(state.transparentMode);
-        Settings settings = new SharedPreferencesSettingsRepository(overlayView.getContext()).loadSettings();
+        Settings settings = settingsStore.get();
         int dotSizeDp = settings.minimizeDotSize;
-        overlayView.updateMinimized(state.isMinimized, dotSizeDp, settings.minimizeDotRotateEnabled);
+        int changes = computeChangeMask(state, dotSizeDp, settings.minimizeDotRotateEnabled);
+        if (state.visible && !windowController.isShowing()) {
+            // 窗口移除时圆点动画随 onDetachedFromWindow 停止，重新显示时需要重新应用最小化状态
+            changes |= CHANGE_MINIMIZED;
+        }
+        if ((changes & CHANGE_CLOSE_POSITION) != 0) {
+            overlayView.updateCloseButtonPosition(state.closeButtonPosition);
+        }
+        if ((changes & CHANGE_TRANSPARENCY_TOGGLE) != 0) {
+            overlayView.updateTransparencyToggleEnabled(state.transparencyToggleEnabled);
+        }
+        if ((changes & CHANGE_TRANSPARENT_MODE) != 0) {
+            overlayView.updateTransparentMode(state.transparentMode);
+        }
+        if ((changes & CHANGE_MINIMIZED) != 0) {
+            overlayView.updateMinimized(state.isMinimized, dotSizeDp, settings.minimizeDotRotateEnabled);
+        }
+        lastState = state;
+        lastDotSizeDp = dotSizeDp;
+        lastDotRotateEnabled = settings.minimizeDotRotateEnabled;
+
         if (!state.visible) {
             if (windowController.isShowing()) {
                 windowController.hide();
             }
+            hasLastRect = false;
+            gestureActive = false;
             return;
         }
-        if (!windowController.isShowing()) {
-            windowController.show(overlayView);
-        }
-                float density = overlayView.getContext().getResources().getDisplayMetrics().density;
+        float density = overlayView.getContext().getResources().getDisplayMetrics().density;
         int dotSizePx = (int) (dotSizeDp * density);
         int w = state.isMinimized ? dotSizePx : state.widthPx;
         int h = state.isMinimized ? dotSizePx : state.heightPx;
-        Rect rect = new Rect(state.xPx, state.yPx, state.xPx + w, state.yPx + h);
-        windowController.update(rect, anim);
+        int left = state.xPx;
+        int top = state.yPx;
+        int right = left + w;
+        int bottom = top + h;
+        if (!windowController.isShowing()) {
+            // 添加窗口时直接带上目标矩形，首帧即位于正确位置，无需再调用 update
+            windowController.show(overlayView, new Rect(left, top, right, bottom), WINDOW_FLAGS);
+            gestureActive = false;
+            rememberRect(left, top, right, bottom);
+        } else {
+            boolean sameRect = hasLastRect
+                    && left == lastLeft
+                    && top == lastTop
+                    && right == lastRight
+                    && bottom == lastBottom;
+            // 矩形未变化时跳过 updateViewLayout
+            if (!sameRect) {
+                windowController.update(new Rect(left, top, right, bottom), anim);
+                rememberRect(left, top, right, bottom);
+            }
+        }
+        boolean gesture = state.isDragging || state.isResizing;
+        if (gesture && !gestureActive) {
+            windowController.beginGesture();
+            gestureActive = true;
+        }
+        // 先提交结束位置（可能带收尾动画），再结束手势
+        if (!gesture && gestureActive) {
+            windowController.endGesture();
+            gestureActive = false;
+        }
+    }
+
+    /**
+     * 淡出正在显示的悬浮窗。淡出期间悬浮窗状态不变，不经过 {@link #bind}，由隐藏副作用直接触发。
+     *
+     * @param durationMs 淡出时长 (毫秒)
+     */
+    public void fadeOut(long durationMs) {
+        if (windowController.isShowing()) {
+            windowController.fadeOut(durationMs);
+        }
+    }
+
+    private void rememberRect(int left, int top, int right, int bottom) {
+        hasLastRect = true;
+        lastLeft = left;
+        lastTop = top;
+        lastRight = right;
+        lastBottom = bottom;
+    }
+
+    /**
+     * 对比上一次已应用的状态，计算需要刷新的视图属性。
+     *
+     * @return 变更掩码，由 CHANGE_* 位组成
+     */
+    private int computeChangeMask(OverlayState state, int dotSizeDp, boolean dotRotateEnabled) {
+        OverlayState previous = lastState;
+        if (previous == null) {
+            return CHANGE_ALL;
+        }
+        int changes = 0;
+        if (previous.closeButtonPosition != state.closeButtonPosition) {
+            changes |= CHANGE_CLOSE_POSITION;
+        }
+        if (previous.transparencyToggleEnabled != state.transparencyToggleEnabled) {
+            changes |= CHANGE_TRANSPARENCY_TOGGLE;
+        }
+        if (previous.transparentMode != state.transparentMode) {
+            changes |= CHANGE_TRANSPARENT_MODE;
+        }
+        if (previous.isMinimized != state.isMinimized
+                || lastDotSizeDp != dotSizeDp
+                || lastDotRotateEnabled != dotRotateEnabled) {
+            changes |= CHANGE_MINIMIZED;
+        }
+        return changes;
     }
 }
@@ -1,20 +1,25 @@
 package com.zimuzhedang.subtitleblocker.ui;
 
 import android.content.Context;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
+import android.view.Display;
+import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
-import android.view.animation.LinearInterpolator;
+import android.view.WindowManager;
 import android.widget.FrameLayout;
 import android.widget.ImageButton;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.zimuzhedang.subtitleblocker.R;
 import com.zimuzhedang.subtitleblocker.domain.CloseButtonPosition;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+import com.zimuzhedang.subtitleblocker.infra.TimerWheel;
+import com.zimuzhedang.subtitleblocker.platform.AnimationGovernor;
 
 /**
  * 悬浮窗自定义视图类。
@@ -24,6 +29,15 @@ import com.zimuzhedang.subtitleblocker.domain.CloseButtonPosition;
  * @since 2026-01-30
  */
 public final class OverlayWindowView extends FrameLayout {
+    /** 默认的圆点释放延迟：展开后保持该时长未再最小化即释放圆点 */
+    public static final long DEFAULT_DOT_RELEASE_DELAY_MS = 60_000L;
+    /** 圆点的默认尺寸 (dp)，实际尺寸由 {@link #updateMinimized} 设置 */
+    private static final int DEFAULT_DOT_SIZE_DP = 40;
+    private static final String METRIC_DOT_CREATED = "dot.created";
+    private static final String METRIC_DOT_RELEASED = "dot.released";
+    /** 创建圆点前后 Java 堆已用字节数的差值累计 */
+    private static final String METRIC_DOT_HEAP_DELTA = "dot.heap_delta_bytes";
+
     /**
      * 悬浮窗交互事件监听器接口。
      */
@@ -44,8 +58,13 @@ public final class OverlayWindowView extends FrameLayout {
          */
         void onDragMove(int dxPx, int dyPx);
 
-        /** 结束拖拽悬浮窗时触发 */
-        void onDragEnd();
+        /**
+         * 结束拖拽悬浮窗时触发。
+         *
+         * @param velocityXPxPerSec 手指抬起时的 X 轴速度 (像素/秒)，低于甩动阈值或手势被取消时为 0
+         * @param velocityYPxPerSec 手指抬起时的 Y 轴速度 (像素/秒)
+         */
+        void onDragEnd(float velocityXPxPerSec, float velocityYPxPerSec);
 
         /** 开始缩放悬浮窗时触发 */
         void onResizeStart();
@@ -63,13 +82,24 @@ public final class OverlayWindowView extends FrameLayout {
     }
 
     private Listener listener;
+    /** 扁平渲染模式下的遮挡视图，为 null 时使用布局文件中的视图层级 */
+    @Nullable
+    private final FlatBlockerView flatBlocker;
+    @Nullable
     private final ImageButton closeButton;
+    @Nullable
     private final ImageButton transparencyButton;
+    @Nullable
     private final ImageButton minimizeButton;
-    private final GlowDotView minimizedDot;
+    /** 最小化圆点，首次最小化时才创建，展开一段时间后释放 */
+    @Nullable
+    private GlowDotView minimizedDot;
     private final View overlayRoot;
+    @Nullable
     private final View resizeHandle;
+    @Nullable
     private final View resizeHandleRight;
+    @Nullable
     private final View resizeHandleBottom;
     private boolean draggingActive;
     private boolean resizingActive;
@@ -83,12 +113,23 @@ public final class OverlayWindowView extends FrameLayout {
     private float lastResizeX;
     private float lastResizeY;
     private final int touchSlop;
-    private ObjectAnimator glowScaleXAnimator;
-    private ObjectAnimator glowScaleYAnimator;
-    private ObjectAnimator glowAlphaAnimator;
-    private ObjectAnimator glowRotationAnimator;
-    private ValueAnimator glowFlickerAnimator;
+    private final int minFlingVelocity;
+    private final int maxFlingVelocity;
+    /** 拖拽期间使用屏幕坐标跟踪速度，窗口随手指移动不会影响结果 */
+    private VelocityTracker velocityTracker;
+    /** 将一帧内的多个触摸采样合并为一次几何更新 */
+    private final GestureInputCoalescer inputCoalescer;
+    /** 最小化圆点的缩放、透明度、旋转与闪烁共用一个帧时钟，随圆点一起创建和释放 */
+    @Nullable
+    private GlowAnimationDriver glowDriver;
+    /** 展开后延迟释放圆点的定时器 */
+    private final TimerWheel timers = TimerWheel.onMainThread();
+    @Nullable
+    private TimerWheel.Timer dotReleaseTimer;
+    private long dotReleaseDelayMs = DEFAULT_DOT_RELEASE_DELAY_MS;
     private boolean minimizeDotRotateEnabled = false;
+    /** 由系统省电、温控与屏幕状态决定的动画级别 */
+    private AnimationGovernor.Level animationLevel = AnimationGovernor.Level.FULL;
 
     /**
      * 构造函数。
@@ -97,44 +138,153 @@ public final class OverlayWindowView extends FrameLayout {
      * @param context Android 上下文
      */
     public OverlayWindowView(@NonNull Context context) {
+        this(context, false);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param context Android 上下文
+     * @param flatRenderer 是否使用单个 {@link FlatBlockerView} 绘制遮挡区域，而不是加载布局文件中的视图层级
+     */
+    public OverlayWindowView(@NonNull Context context, boolean flatRenderer) {
         super(context);
-        LayoutInflater.from(context).inflate(R.layout.view_overlay_window, this, true);
-        overlayRoot = findViewById(R.id.overlayRoot);
-        closeButton = findViewById(R.id.btnClose);
-        transparencyButton = findViewById(R.id.btnTransparency);
-        minimizeButton = findViewById(R.id.btnMinimize);
-        minimizedDot = findViewById(R.id.minimizedDot);
-        minimizeButton.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onMinimizeToggle();
+        if (flatRenderer) {
+            flatBlocker = new FlatBlockerView(context);
+            flatBlocker.setCallback(new FlatBlockerView.Callback() {
+                @Override
+                public boolean onBodyTouch(MotionEvent event) {
+                    return handleDragTouch(OverlayWindowView.this, event);
+                }
+
+                @Override
+                public boolean onResizeTouch(int region, MotionEvent event) {
+                    if (region == FlatBlockerLayout.REGION_RESIZE_RIGHT) {
+                        return handleResizeRightTouch(OverlayWindowView.this, event);
+                    }
+                    if (region == FlatBlockerLayout.REGION_RESIZE_BOTTOM) {
+                        return handleResizeBottomTouch(OverlayWindowView.this, event);
+                    }
+                    return handleResizeTouch(OverlayWindowView.this, event);
+                }
+
+                @Override
+                public void onButtonClick(int region) {
+                    if (listener == null) {
+                        return;
+                    }
+                    if (region == FlatBlockerLayout.REGION_CLOSE) {
+                        listener.onClose();
+                    } else if (region == FlatBlockerLayout.REGION_TRANSPARENCY) {
+                        listener.onTransparencyToggle();
+                    } else if (region == FlatBlockerLayout.REGION_MINIMIZE) {
+                        listener.onMinimizeToggle();
+                    }
+                }
+            });
+            addView(flatBlocker, new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+            overlayRoot = flatBlocker;
+            closeButton = null;
+            transparencyButton = null;
+            minimizeButton = null;
+            resizeHandle = null;
+            resizeHandleRight = null;
+            resizeHandleBottom = null;
+        } else {
+            flatBlocker = null;
+            LayoutInflater.from(context).inflate(R.layout.view_overlay_window, this, true);
+            overlayRoot = findViewById(R.id.overlayRoot);
+            closeButton = findViewById(R.id.btnClose);
+            transparencyButton = findViewById(R.id.btnTransparency);
+            minimizeButton = findViewById(R.id.btnMinimize);
+            minimizeButton.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onMinimizeToggle();
+                }
+            });
+            resizeHandle = findViewById(R.id.resizeHandle);
+            resizeHandleRight = findViewById(R.id.resizeHandleRight);
+            resizeHandleBottom = findViewById(R.id.resizeHandleBottom);
+            closeButton.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onClose();
+                }
+            });
+            transparencyButton.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onTransparencyToggle();
+                }
+            });
+            resizeHandle.setOnTouchListener(this::handleResizeTouch);
+            resizeHandleRight.setOnTouchListener(this::handleResizeRightTouch);
+            resizeHandleBottom.setOnTouchListener(this::handleResizeBottomTouch);
+        }
+        setOnTouchListener(this::handleDragTouch);
+        ViewConfiguration viewConfiguration = ViewConfiguration.get(context);
+        touchSlop = viewConfiguration.getScaledTouchSlop();
+        minFlingVelocity = viewConfiguration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = viewConfiguration.getScaledMaximumFlingVelocity();
+        inputCoalescer = new GestureInputCoalescer(new GestureInputCoalescer.Sink() {
+            @Override
+            public void onDragFrame(int dxPx, int dyPx) {
+                if (listener != null) {
+                    listener.onDragMove(dxPx, dyPx);
+                }
             }
-        });
-        resizeHandle = findViewById(R.id.resizeHandle);
-        resizeHandleRight = findViewById(R.id.resizeHandleRight);
-        resizeHandleBottom = findViewById(R.id.resizeHandleBottom);
-        closeButton.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onClose();
+
+            @Override
+            public void onResizeFrame(int dwPx, int dhPx) {
+                if (listener != null) {
+                    listener.onResizeMove(dwPx, dhPx);
+                }
             }
-        });
-        transparencyButton.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onTransparencyToggle();
+
+            @Override
+            public void onPredictionFrame(int offsetXPx, int offsetYPx) {
+                applyPredictionOffset(offsetXPx, offsetYPx);
             }
-        });
-        setOnTouchListener(this::handleDragTouch);
-        minimizedDot.setOnTouchListener(this::handleDragTouch);
-        resizeHandle.setOnTouchListener(this::handleResizeTouch);
-        resizeHandleRight.setOnTouchListener(this::handleResizeRightTouch);
-        resizeHandleBottom.setOnTouchListener(this::handleResizeBottomTouch);
-        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        }, resolveRefreshRate(context));
+    }
+
+    /**
+     * 把预测偏移作为子视图的渲染平移，不改变窗口位置，也不参与边缘约束。
+     */
+    private void applyPredictionOffset(int offsetXPx, int offsetYPx) {
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            child.setTranslationX(offsetXPx);
+            child.setTranslationY(offsetYPx);
+        }
+    }
+
+    private static float resolveRefreshRate(Context context) {
+        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        if (windowManager == null) {
+            return 60f;
+        }
+        Display display = windowManager.getDefaultDisplay();
+        return display != null ? display.getRefreshRate() : 60f;
     }
 
     public void setListener(Listener listener) {
         this.listener = listener;
     }
 
+    /**
+     * 启用或关闭拖拽触摸预测，开启后窗口会被外推到预期的画面呈现位置，减少跟手延迟。
+     *
+     * @param enabled 是否启用
+     */
+    public void setTouchPredictionEnabled(boolean enabled) {
+        inputCoalescer.setPredictionEnabled(enabled);
+    }
+
     public void updateCloseButtonPosition(CloseButtonPosition position) {
+        if (flatBlocker != null) {
+            flatBlocker.setCloseOnLeft(position == CloseButtonPosition.LEFT_TOP);
+            return;
+        }
         FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) closeButton.getLayoutParams();
         if (position == CloseButtonPosition.LEFT_TOP) {
             params.gravity = android.view.Gravity.START | android.view.Gravity.TOP;
@@ -146,10 +296,18 @@ public final class OverlayWindowView extends FrameLayout {
 
     public void updateTransparencyToggleEnabled(boolean enabled) {
         transparencyToggleEnabled = enabled;
+        if (flatBlocker != null) {
+            flatBlocker.setTransparencyButtonVisible(enabled);
+            return;
+        }
         transparencyButton.setVisibility(enabled ? View.VISIBLE : View.GONE);
     }
 
     public void updateTransparentMode(boolean enabled) {
+        if (flatBlocker != null) {
+            flatBlocker.setTransparentMode(enabled);
+            return;
+        }
         overlayRoot.setBackgroundResource(enabled ? R.drawable.overlay_background_transparent : R.drawable.overlay_background);
     }
 
@@ -165,6 +323,13 @@ public final class OverlayWindowView extends FrameLayout {
                 downRawY = event.getRawY();
                 lastRawX = event.getRawX();
                 lastRawY = event.getRawY();
+                inputCoalescer.reset();
+                if (velocityTracker == null) {
+                    velocityTracker = VelocityTracker.obtain();
+                } else {
+                    velocityTracker.clear();
+                }
+                trackVelocity(event);
                 if (listener != null) {
                     listener.onDragStart();
                 }
@@ -173,23 +338,32 @@ public final class OverlayWindowView extends FrameLayout {
                 if (!draggingActive) {
                     return true;
                 }
-                int dx = Math.round(event.getRawX() - lastRawX);
-                int dy = Math.round(event.getRawY() - lastRawY);
+                trackVelocity(event);
                 float totalDx = event.getRawX() - downRawX;
                 float totalDy = event.getRawY() - downRawY;
                 if (possibleClick && Math.hypot(totalDx, totalDy) > touchSlop) {
                     possibleClick = false;
                 }
-                lastRawX = event.getRawX();
-                lastRawY = event.getRawY();
-                if (listener != null) {
-                    listener.onDragMove(dx, dy);
-                }
+                accumulateDrag(event);
                 return true;
             case MotionEvent.ACTION_UP:
+                inputCoalescer.flush();
+                trackVelocity(event);
                 if (draggingActive && listener != null) {
-                    listener.onDragEnd();
+                    float vx = 0f;
+                    float vy = 0f;
+                    if (velocityTracker != null && !possibleClick) {
+                        velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                        vx = velocityTracker.getXVelocity();
+                        vy = velocityTracker.getYVelocity();
+                        if (Math.hypot(vx, vy) < minFlingVelocity) {
+                            vx = 0f;
+                            vy = 0f;
+                        }
+                    }
+                    listener.onDragEnd(vx, vy);
                 }
+                recycleVelocityTracker();
                 if (possibleClick && listener != null) {
                     if (minimized) {
                         listener.onMinimizeToggle();
@@ -200,9 +374,11 @@ public final class OverlayWindowView extends FrameLayout {
                 draggingActive = false;
                 return true;
             case MotionEvent.ACTION_CANCEL:
+                inputCoalescer.flush();
                 if (draggingActive && listener != null) {
-                    listener.onDragEnd();
+                    listener.onDragEnd(0f, 0f);
                 }
+                recycleVelocityTracker();
                 draggingActive = false;
                 return true;
             default:
@@ -216,21 +392,17 @@ public final class OverlayWindowView extends FrameLayout {
                 lastResizeX = event.getRawX();
                 lastResizeY = event.getRawY();
                 resizingActive = true;
+                inputCoalescer.reset();
                 if (listener != null) {
                     listener.onResizeStart();
                 }
                 return true;
             case MotionEvent.ACTION_MOVE:
-                int dw = Math.round(event.getRawX() - lastResizeX);
-                int dh = Math.round(event.getRawY() - lastResizeY);
-                lastResizeX = event.getRawX();
-                lastResizeY = event.getRawY();
-                if (listener != null) {
-                    listener.onResizeMove(dw, dh);
-                }
+                accumulateResize(event, true, true);
                 return true;
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
+                inputCoalescer.flush();
                 if (listener != null) {
                     listener.onResizeEnd();
                 }
@@ -246,19 +418,17 @@ public final class OverlayWindowView extends FrameLayout {
             case MotionEvent.ACTION_DOWN:
                 lastResizeX = event.getRawX();
                 resizingActive = true;
+                inputCoalescer.reset();
                 if (listener != null) {
                     listener.onResizeStart();
                 }
                 return true;
             case MotionEvent.ACTION_MOVE:
-                int dw = Math.round(event.getRawX() - lastResizeX);
-                lastResizeX = event.getRawX();
-                if (listener != null) {
-                    listener.onResizeMove(dw, 0);
-                }
+                accumulateResize(event, true, false);
                 return true;
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
+                inputCoalescer.flush();
                 if (listener != null) {
                     listener.onResizeEnd();
                 }
@@ -274,19 +444,17 @@ public final class OverlayWindowView extends FrameLayout {
             case MotionEvent.ACTION_DOWN:
                 lastResizeY = event.getRawY();
                 resizingActive = true;
+                inputCoalescer.reset();
                 if (listener != null) {
                     listener.onResizeStart();
                 }
                 return true;
             case MotionEvent.ACTION_MOVE:
-                int dh = Math.round(event.getRawY() - lastResizeY);
-                lastResizeY = event.getRawY();
-                if (listener != null) {
-                    listener.onResizeMove(0, dh);
-                }
+                accumulateResize(event, false, true);
                 return true;
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
+                inputCoalescer.flush();
                 if (listener != null) {
                     listener.onResizeEnd();
                 }
@@ -297,123 +465,235 @@ public final class OverlayWindowView extends FrameLayout {
         }
     }
 
+    /**
+     * 以屏幕坐标把事件（含历史采样）加入速度跟踪器。
+     * 悬浮窗随手指移动，视图内坐标会受窗口位移影响，因此临时平移到 raw 坐标后再加入。
+     */
+    private void trackVelocity(MotionEvent event) {
+        if (velocityTracker == null) {
+            return;
+        }
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        velocityTracker.addMovement(event);
+        event.offsetLocation(-offsetX, -offsetY);
+    }
+
+    private void recycleVelocityTracker() {
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    /**
+     * 将拖拽事件（含历史采样）的位移累加到合并器中。
+     * 同一个 MotionEvent 内所有采样共享相同的坐标变换，因此可用当前采样的 raw 偏移还原历史采样的屏幕坐标。
+     */
+    private void accumulateDrag(MotionEvent event) {
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        int historySize = event.getHistorySize();
+        for (int i = 0; i < historySize; i++) {
+            float rawX = event.getHistoricalX(i) + offsetX;
+            float rawY = event.getHistoricalY(i) + offsetY;
+            inputCoalescer.addDrag(rawX - lastRawX, rawY - lastRawY,
+                    event.getHistoricalEventTime(i) * 1_000_000L, rawX, rawY);
+            lastRawX = rawX;
+            lastRawY = rawY;
+        }
+        inputCoalescer.addDrag(event.getRawX() - lastRawX, event.getRawY() - lastRawY,
+                event.getEventTime() * 1_000_000L, event.getRawX(), event.getRawY());
+        lastRawX = event.getRawX();
+        lastRawY = event.getRawY();
+    }
+
+    /**
+     * 将缩放事件（含历史采样）的尺寸变化累加到合并器中。
+     *
+     * @param horizontal 是否跟踪宽度变化
+     * @param vertical 是否跟踪高度变化
+     */
+    private void accumulateResize(MotionEvent event, boolean horizontal, boolean vertical) {
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        int historySize = event.getHistorySize();
+        for (int i = 0; i < historySize; i++) {
+            addResizeSample(event.getHistoricalX(i) + offsetX, event.getHistoricalY(i) + offsetY, horizontal, vertical);
+        }
+        addResizeSample(event.getRawX(), event.getRawY(), horizontal, vertical);
+    }
+
+    private void addResizeSample(float rawX, float rawY, boolean horizontal, boolean vertical) {
+        float dw = horizontal ? rawX - lastResizeX : 0f;
+        float dh = vertical ? rawY - lastResizeY : 0f;
+        if (horizontal) {
+            lastResizeX = rawX;
+        }
+        if (vertical) {
+            lastResizeY = rawY;
+        }
+        inputCoalescer.addResize(dw, dh);
+    }
+
     public void updateMinimized(boolean isMinimized, int dotSizeDp, boolean rotateEnabled) {
         minimized = isMinimized;
         minimizeDotRotateEnabled = rotateEnabled;
         if (isMinimized) {
+            cancelDotRelease();
+            GlowDotView dot = ensureMinimizedDot();
             overlayRoot.setVisibility(View.GONE);
-            minimizedDot.setVisibility(View.VISIBLE);
+            dot.setVisibility(View.VISIBLE);
 
             float density = getContext().getResources().getDisplayMetrics().density;
             int sizePx = Math.round(dotSizeDp * density);
-            FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) minimizedDot.getLayoutParams();
+            FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) dot.getLayoutParams();
             if (lp.width != sizePx || lp.height != sizePx) {
                 lp.width = sizePx;
                 lp.height = sizePx;
-                minimizedDot.setLayoutParams(lp);
+                dot.setLayoutParams(lp);
             }
             startGlowAnimation();
         } else {
             stopGlowAnimation();
             overlayRoot.setVisibility(View.VISIBLE);
             updateTransparencyToggleEnabled(transparencyToggleEnabled);
-            minimizedDot.setVisibility(View.GONE);
+            if (minimizedDot != null) {
+                minimizedDot.setVisibility(View.GONE);
+                scheduleDotRelease();
+            }
         }
     }
 
-    private void startGlowAnimation() {
-        if (glowScaleXAnimator == null) {
-            glowScaleXAnimator = ObjectAnimator.ofFloat(minimizedDot, View.SCALE_X, 1.0f, 1.06f, 1.0f);
-            glowScaleXAnimator.setDuration(1500L);
-            glowScaleXAnimator.setRepeatCount(ValueAnimator.INFINITE);
+    /**
+     * 设置展开后释放最小化圆点的延迟。
+     *
+     * @param delayMs 延迟 (毫秒)，0 表示展开时立即释放
+     */
+    public void setDotReleaseDelayMs(long delayMs) {
+        dotReleaseDelayMs = Math.max(0L, delayMs);
+    }
+
+    private GlowDotView ensureMinimizedDot() {
+        if (minimizedDot != null) {
+            return minimizedDot;
         }
-        if (glowScaleYAnimator == null) {
-            glowScaleYAnimator = ObjectAnimator.ofFloat(minimizedDot, View.SCALE_Y, 1.0f, 1.06f, 1.0f);
-            glowScaleYAnimator.setDuration(1500L);
-            glowScaleYAnimator.setRepeatCount(ValueAnimator.INFINITE);
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        GlowDotView dot = new GlowDotView(getContext());
+        int sizePx = Math.round(DEFAULT_DOT_SIZE_DP * getContext().getResources().getDisplayMetrics().density);
+        dot.setVisibility(View.GONE);
+        dot.setOnTouchListener(this::handleDragTouch);
+        addView(dot, new FrameLayout.LayoutParams(sizePx, sizePx, Gravity.CENTER));
+        GlowAnimationDriver driver = GlowAnimationDriver.onMainThread(this::applyGlowFrame);
+        driver.setMaxFps(animationLevel.maxFps);
+        minimizedDot = dot;
+        glowDriver = driver;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        PerfMetrics.increment(METRIC_DOT_CREATED);
+        PerfMetrics.add(METRIC_DOT_HEAP_DELTA, heapAfter - heapBefore);
+        return dot;
+    }
+
+    private void scheduleDotRelease() {
+        cancelDotRelease();
+        if (dotReleaseDelayMs <= 0L) {
+            releaseMinimizedDot();
+            return;
         }
-        if (glowAlphaAnimator == null) {
-            glowAlphaAnimator = ObjectAnimator.ofFloat(minimizedDot, View.ALPHA, 0.92f, 1.0f, 0.92f);
-            glowAlphaAnimator.setDuration(1500L);
-            glowAlphaAnimator.setRepeatCount(ValueAnimator.INFINITE);
+        dotReleaseTimer = timers.schedule(() -> {
+            dotReleaseTimer = null;
+            if (!minimized) {
+                releaseMinimizedDot();
+            }
+        }, dotReleaseDelayMs);
+    }
+
+    private void cancelDotRelease() {
+        if (dotReleaseTimer != null) {
+            dotReleaseTimer.cancel();
+            dotReleaseTimer = null;
         }
-        if (glowRotationAnimator == null) {
-            glowRotationAnimator = ObjectAnimator.ofFloat(minimizedDot, "rayRotation", 0.0f, 360.0f);
-            glowRotationAnimator.setInterpolator(new LinearInterpolator());
-            glowRotationAnimator.setDuration(9000L);
-            glowRotationAnimator.setRepeatCount(ValueAnimator.INFINITE);
+    }
+
+    /** 移除圆点并释放动画时钟与共享的图层缓存，下次最小化时重新创建。 */
+    private void releaseMinimizedDot() {
+        if (minimizedDot == null) {
+            return;
         }
-        if (glowFlickerAnimator == null) {
-            glowFlickerAnimator = ValueAnimator.ofFloat(0.96f, 1.08f, 0.88f, 1.12f, 0.94f);
-            glowFlickerAnimator.setDuration(1800L);
-            glowFlickerAnimator.setRepeatCount(ValueAnimator.INFINITE);
-            glowFlickerAnimator.addUpdateListener(animation ->
-                    minimizedDot.setFlickerStrength((float) animation.getAnimatedValue())
-            );
+        if (glowDriver != null) {
+            glowDriver.stop();
+            glowDriver = null;
         }
+        removeView(minimizedDot);
+        minimizedDot = null;
+        GlowDotView.releaseLayerCache();
+        PerfMetrics.increment(METRIC_DOT_RELEASED);
+    }
 
-        minimizedDot.setRayTwinkleEnabled(minimizeDotRotateEnabled);
-
-        if (!glowAlphaAnimator.isRunning()) {
-            glowAlphaAnimator.start();
+    /**
+     * 设置最小化圆点的动画级别，级别降低时依次降低帧率、停止旋转，直至显示静止圆点。
+     *
+     * @param level 动画级别
+     */
+    public void setAnimationLevel(AnimationGovernor.Level level) {
+        if (animationLevel == level) {
+            return;
         }
+        animationLevel = level;
+        if (glowDriver != null) {
+            glowDriver.setMaxFps(level.maxFps);
+        }
+        if (minimized) {
+            startGlowAnimation();
+        }
+    }
 
-        if (minimizeDotRotateEnabled) {
-            if (!glowScaleXAnimator.isRunning()) {
-                glowScaleXAnimator.start();
-            }
-            if (!glowScaleYAnimator.isRunning()) {
-                glowScaleYAnimator.start();
-            }
-            if (!glowRotationAnimator.isRunning()) {
-                glowRotationAnimator.start();
-            }
-            if (!glowFlickerAnimator.isRunning()) {
-                glowFlickerAnimator.start();
-            }
-        } else {
-            glowScaleXAnimator.cancel();
-            glowScaleYAnimator.cancel();
-            glowRotationAnimator.cancel();
-            glowFlickerAnimator.cancel();
-            minimizedDot.setScaleX(1.0f);
-            minimizedDot.setScaleY(1.0f);
-            minimizedDot.setRayRotation(0.0f);
-            minimizedDot.setFlickerStrength(1.0f);
+    private void startGlowAnimation() {
+        if (minimizedDot == null || glowDriver == null) {
+            return;
         }
+        boolean motion = minimizeDotRotateEnabled && animationLevel.motionEnabled;
+        minimizedDot.setRayTwinkleEnabled(motion);
+        if (!animationLevel.animated) {
+            glowDriver.stop();
+            return;
+        }
+        glowDriver.setRotateEnabled(motion);
+        glowDriver.start();
     }
 
     private void stopGlowAnimation() {
-        if (glowScaleXAnimator != null) {
-            glowScaleXAnimator.cancel();
-            glowScaleXAnimator = null;
-        }
-        if (glowScaleYAnimator != null) {
-            glowScaleYAnimator.cancel();
-            glowScaleYAnimator = null;
-        }
-        if (glowAlphaAnimator != null) {
-            glowAlphaAnimator.cancel();
-            glowAlphaAnimator = null;
-        }
-        if (glowRotationAnimator != null) {
-            glowRotationAnimator.cancel();
-            glowRotationAnimator = null;
-        }
-        if (glowFlickerAnimator != null) {
-            glowFlickerAnimator.cancel();
-            glowFlickerAnimator = null;
-        }
-        minimizedDot.setScaleX(1.0f);
-        minimizedDot.setScaleY(1.0f);
-        minimizedDot.setAlpha(1.0f);
-        minimizedDot.setRayRotation(0.0f);
-        minimizedDot.setFlickerStrength(1.0f);
+        if (glowDriver != null) {
+            glowDriver.stop();
+        }
+    }
+
+    private void applyGlowFrame(float scale, float alpha, float rayRotation, float flicker) {
+        if (minimizedDot == null) {
+            return;
+        }
+        minimizedDot.setScaleX(scale);
+        minimizedDot.setScaleY(scale);
+        minimizedDot.setAlpha(alpha);
+        minimizedDot.setGlowFrame(rayRotation, flicker);
     }
 
     @Override
     protected void onDetachedFromWindow() {
+        inputCoalescer.reset();
+        recycleVelocityTracker();
         stopGlowAnimation();
+        // 窗口移除后重新显示时会重新应用最小化状态，圆点可以释放；
+        // 分发 detach 期间不能移除子视图，因此交给定时器在之后执行
+        if (minimizedDot != null) {
+            cancelDotRelease();
+            dotReleaseTimer = timers.schedule(() -> {
+                dotReleaseTimer = null;
+                releaseMinimizedDot();
+            }, 0L);
+        }
         super.onDetachedFromWindow();
     }
 
@@ -0,0 +1,201 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+/**
+ * 触摸位置预测器。
+ * 根据最近一小段时间内的真实触摸采样（含 MotionEvent 的历史采样）以最小二乘估计速度，
+ * 把指针位置外推到预期的画面呈现时间，用于抵消窗口移动相对手指滞后的一到两帧。
+ * 每收到一个新的真实采样时，会用相邻两个采样插值出预测目标时刻的实际位置，统计预测误差。
+ * 所有状态保存在定长数组中，采样与预测都不分配对象。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class TouchPredictor {
+    private static final int CAPACITY = 6;
+    /** 参与速度估计的采样时间窗口 */
+    private static final long VELOCITY_WINDOW_NANOS = 50_000_000L;
+
+    private final long maxHorizonNanos;
+    private final float maxOffsetPx;
+    private final long[] times = new long[CAPACITY];
+    private final float[] xs = new float[CAPACITY];
+    private final float[] ys = new float[CAPACITY];
+    /** 最新采样在环形数组中的下标 */
+    private int head = -1;
+    private int size;
+    private float predictedDx;
+    private float predictedDy;
+    /** 尚未被真实采样验证的预测 */
+    private boolean pendingPrediction;
+    private long pendingTimeNanos;
+    private float pendingX;
+    private float pendingY;
+    private int errorSamples;
+    private double errorSumPx;
+    private float maxErrorPx;
+
+    /**
+     * 构造函数。
+     *
+     * @param maxHorizonNanos 允许外推的最长时间
+     * @param maxOffsetPx 单次预测允许的最大偏移，防止急停时明显越过手指
+     */
+    public TouchPredictor(long maxHorizonNanos, float maxOffsetPx) {
+        this.maxHorizonNanos = maxHorizonNanos;
+        this.maxOffsetPx = maxOffsetPx;
+    }
+
+    /** 清空采样和误差统计，开始新的手势。 */
+    public void reset() {
+        head = -1;
+        size = 0;
+        predictedDx = 0f;
+        predictedDy = 0f;
+        pendingPrediction = false;
+        errorSamples = 0;
+        errorSumPx = 0d;
+        maxErrorPx = 0f;
+    }
+
+    /**
+     * 加入一个真实触摸采样，采样时间需单调不减。
+     *
+     * @param timeNanos 采样时间 (纳秒，与 Choreographer 帧时间同一时钟)
+     * @param x 屏幕 X 坐标
+     * @param y 屏幕 Y 坐标
+     */
+    public void addSample(long timeNanos, float x, float y) {
+        if (size > 0) {
+            long lastTime = times[head];
+            if (timeNanos < lastTime) {
+                return;
+            }
+            evaluatePending(lastTime, xs[head], ys[head], timeNanos, x, y);
+        }
+        head = (head + 1) % CAPACITY;
+        times[head] = timeNanos;
+        xs[head] = x;
+        ys[head] = y;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    /**
+     * 把指针位置外推到目标时间。
+     * 结果通过 {@link #getPredictedDx()} / {@link #getPredictedDy()} 以相对最新真实采样的偏移量给出。
+     * 采样不足或手指已停止移动（最新采样过旧）时偏移为 0。
+     *
+     * @param targetTimeNanos 预期的画面呈现时间
+     * @return 是否给出了非零的预测偏移
+     */
+    public boolean predict(long targetTimeNanos) {
+        predictedDx = 0f;
+        predictedDy = 0f;
+        if (size < 2) {
+            return false;
+        }
+        long lastTime = times[head];
+        long horizon = targetTimeNanos - lastTime;
+        if (horizon <= 0L || horizon > 2L * maxHorizonNanos) {
+            // 超过两倍外推时长仍没有新采样，说明手指已经停住
+            return false;
+        }
+        horizon = Math.min(horizon, maxHorizonNanos);
+        // 以最新采样为原点做最小二乘，时间单位为秒
+        double sumT = 0d;
+        double sumTT = 0d;
+        double sumX = 0d;
+        double sumY = 0d;
+        double sumTX = 0d;
+        double sumTY = 0d;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (head - i + CAPACITY) % CAPACITY;
+            long age = lastTime - times[index];
+            if (age > VELOCITY_WINDOW_NANOS) {
+                break;
+            }
+            double t = -age / 1_000_000_000d;
+            double dx = xs[index] - xs[head];
+            double dy = ys[index] - ys[head];
+            sumT += t;
+            sumTT += t * t;
+            sumX += dx;
+            sumY += dy;
+            sumTX += t * dx;
+            sumTY += t * dy;
+            count++;
+        }
+        double denominator = count * sumTT - sumT * sumT;
+        if (count < 2 || denominator <= 0d) {
+            return false;
+        }
+        double vx = (count * sumTX - sumT * sumX) / denominator;
+        double vy = (count * sumTY - sumT * sumY) / denominator;
+        double seconds = horizon / 1_000_000_000d;
+        float dx = (float) (vx * seconds);
+        float dy = (float) (vy * seconds);
+        float length = (float) Math.hypot(dx, dy);
+        if (length > maxOffsetPx) {
+            float scale = maxOffsetPx / length;
+            dx *= scale;
+            dy *= scale;
+        }
+        predictedDx = dx;
+        predictedDy = dy;
+        pendingPrediction = true;
+        pendingTimeNanos = lastTime + horizon;
+        pendingX = xs[head] + dx;
+        pendingY = ys[head] + dy;
+        return dx != 0f || dy != 0f;
+    }
+
+    public float getPredictedDx() {
+        return predictedDx;
+    }
+
+    public float getPredictedDy() {
+        return predictedDy;
+    }
+
+    /** @return 已验证的预测次数 */
+    public int getErrorSamples() {
+        return errorSamples;
+    }
+
+    /** @return 平均预测误差 (像素) */
+    public float getMeanErrorPx() {
+        return errorSamples > 0 ? (float) (errorSumPx / errorSamples) : 0f;
+    }
+
+    /** @return 最大预测误差 (像素) */
+    public float getMaxErrorPx() {
+        return maxErrorPx;
+    }
+
+    /**
+     * 如果待验证预测的目标时间落在两个真实采样之间，则插值出该时刻的实际位置并记录误差。
+     */
+    private void evaluatePending(long previousTime, float previousX, float previousY,
+                                 long time, float x, float y) {
+        if (!pendingPrediction || pendingTimeNanos > time) {
+            return;
+        }
+        pendingPrediction = false;
+        if (pendingTimeNanos < previousTime) {
+            return;
+        }
+        float fraction = time > previousTime
+                ? (float) (pendingTimeNanos - previousTime) / (time - previousTime)
+                : 1f;
+        float actualX = previousX + (x - previousX) * fraction;
+        float actualY = previousY + (y - previousY) * fraction;
+        float error = (float) Math.hypot(pendingX - actualX, pendingY - actualY);
+        errorSamples++;
+        errorSumPx += error;
+        if (error > maxErrorPx) {
+            maxErrorPx = error;
+        }
+    }
+}
@@ -10,15 +10,13 @@ import java.util.Locale;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.zimuzhedang.subtitleblocker.R;
-import com.zimuzhedang.subtitleblocker.data.SettingsRepository;
-import com.zimuzhedang.subtitleblocker.data.SharedPreferencesSettingsRepository;
+import com.zimuzhedang.subtitleblocker.data.SettingsStore;
 import com.zimuzhedang.subtitleblocker.domain.Settings;
 
 public final class UsageActivity extends AppCompatActivity {
     @Override
     protected void attachBaseContext(Context newBase) {
-        SettingsRepository repository = new SharedPreferencesSettingsRepository(newBase);
-        Settings settings = repository.loadSettings();
+        Settings settings = SettingsStore.getInstance(newBase).get();
         super.attachBaseContext(applyLanguage(newBase, settings.appLanguage));
     }
 
@@ -0,0 +1,142 @@
+package com.zimuzhedang.subtitleblocker.vm;
+
+import com.zimuzhedang.subtitleblocker.domain.OneShotEffect;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 一次性副作用通道。
+ * 副作用写入定长的无锁环形队列，按发送顺序依次分发给订阅了该类型的订阅者，不会互相覆盖；
+ * 每个副作用只由唯一的分发者取出一次，因此恰好被消费一次，不需要加锁或由消费者手动清除。
+ * 订阅者在回调中发送的新副作用会排在队尾，由当前分发循环继续处理，顺序保持不变。
+ * 没有订阅者的副作用会被丢弃并计入 {@link PerfMetrics}。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class EffectChannel {
+    /** 已分发的副作用数 */
+    public static final String METRIC_DELIVERED = "effects.delivered";
+    /** 因没有订阅者而丢弃的副作用数 */
+    public static final String METRIC_DROPPED_UNROUTED = "effects.dropped_unrouted";
+    /** 因队列已满而拒绝的副作用数 */
+    public static final String METRIC_DROPPED_FULL = "effects.dropped_full";
+
+    /**
+     * 副作用订阅者。
+     */
+    public interface Subscriber {
+        /**
+         * 收到订阅类型的副作用时回调（在发送副作用的线程上执行）。
+         *
+         * @param effect 副作用
+         */
+        void onEffect(OneShotEffect effect);
+    }
+
+    private final AtomicReferenceArray<OneShotEffect> slots;
+    private final int mask;
+    /** 下一个写入位置 */
+    private final AtomicLong tail = new AtomicLong();
+    /** 下一个读取位置，只由持有分发权的线程推进 */
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    /** 按 {@link OneShotEffect.Type#ordinal()} 索引的订阅者 */
+    private final AtomicReferenceArray<Subscriber> subscribers =
+            new AtomicReferenceArray<>(OneShotEffect.Type.values().length);
+
+    /**
+     * 构造函数。
+     *
+     * @param capacity 队列容量，会向上取整为 2 的幂
+     */
+    public EffectChannel(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 订阅指定类型的副作用。每种类型只有一个订阅者，后订阅的会替换之前的。
+     *
+     * @param subscriber 订阅者
+     * @param types 订阅的副作用类型
+     */
+    public void subscribe(Subscriber subscriber, OneShotEffect.Type... types) {
+        for (OneShotEffect.Type type : types) {
+            subscribers.set(type.ordinal(), subscriber);
+        }
+    }
+
+    /**
+     * 取消订阅者的所有订阅。
+     *
+     * @param subscriber 订阅者
+     */
+    public void unsubscribe(Subscriber subscriber) {
+        for (int i = 0; i < subscribers.length(); i++) {
+            subscribers.compareAndSet(i, subscriber, null);
+        }
+    }
+
+    /**
+     * 发送副作用并尝试立即分发。
+     *
+     * @param effect 副作用
+     * @return 是否成功入队，队列已满时返回 false
+     */
+    public boolean send(OneShotEffect effect) {
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                PerfMetrics.increment(METRIC_DROPPED_FULL);
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                slots.set((int) (t & mask), effect);
+                break;
+            }
+        }
+        drain();
+        return true;
+    }
+
+    private void drain() {
+        while (draining.compareAndSet(false, true)) {
+            try {
+                long h = head.get();
+                while (h < tail.get()) {
+                    int index = (int) (h & mask);
+                    OneShotEffect effect = slots.get(index);
+                    if (effect == null) {
+                        // 写入者已占位但尚未写入，由它写入后自行触发分发
+                        break;
+                    }
+                    slots.set(index, null);
+                    head.set(++h);
+                    deliver(effect);
+                }
+            } finally {
+                draining.set(false);
+            }
+            // 释放分发权之后再检查一次，避免与刚写入的发送者互相错过
+            long h = head.get();
+            if (h >= tail.get() || slots.get((int) (h & mask)) == null) {
+                return;
+            }
+        }
+    }
+
+    private void deliver(OneShotEffect effect) {
+        Subscriber subscriber = subscribers.get(effect.type.ordinal());
+        if (subscriber == null) {
+            PerfMetrics.increment(METRIC_DROPPED_UNROUTED);
+            return;
+        }
+        PerfMetrics.increment(METRIC_DELIVERED);
+        subscriber.onEffect(effect);
+    }
+}
@@ -1,46 +1,61 @@
 package com.zimuzhedang.subtitleblocker.vm;
 
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
-import androidx.core.graphics.Insets;
 
 import com.zimuzhedang.subtitleblocker.data.SettingsRepository;
-import com.zimuzhedang.subtitleblocker.domain.AnimType;
 import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
 import com.zimuzhedang.subtitleblocker.domain.CloseButtonPosition;
 import com.zimuzhedang.subtitleblocker.domain.OneShotEffect;
-import com.zimuzhedang.subtitleblocker.domain.OverlayConstraints;
+import com.zimuzhedang.subtitleblocker.domain.OverlayEvent;
+import com.zimuzhedang.subtitleblocker.domain.OverlayReducer;
 import com.zimuzhedang.subtitleblocker.domain.OverlayState;
-import com.zimuzhedang.subtitleblocker.domain.ScreenBounds;
+import com.zimuzhedang.subtitleblocker.domain.ScreenGeometryCache;
 import com.zimuzhedang.subtitleblocker.domain.Settings;
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
 import com.zimuzhedang.subtitleblocker.platform.ScreenInfoProvider;
 
+import java.util.List;
+
 /**
  * 悬浮窗视图模型，负责处理悬浮窗的业务逻辑和状态管理。
- * 处理用户的拖拽、缩放、点击等交互，并根据约束条件更新悬浮窗状态。
+ * 状态转换全部交给 {@link OverlayReducer}，本类只负责读写配置仓库、提供屏幕边界，并把归约结果发布给视图层。
+ * 悬浮窗的位置与尺寸按屏幕配置记录在 {@link ScreenGeometryCache} 中，旋转回原方向时恢复当时的布局。
  *
  * @author Trae
  * @since 2026-01-30
  */
 public final class OverlayViewModel extends ViewModel {
-    /** 移动动画时长 (毫秒) */
-    private static final long MOVE_ANIM_MS = 150L;
-    /** 缩放动画时长 (毫秒) */
-    private static final long RESIZE_ANIM_MS = 200L;
-    /** 淡入淡出动画时长 (毫秒) */
-    private static final long FADE_ANIM_MS = 300L;
-    private static final int MIN_AUTO_RESTORE_SECONDS = 1;
-    private static final int MAX_AUTO_RESTORE_SECONDS = 60;
+    private static final int MIN_WIDTH_DP = 100;
+    private static final int MIN_HEIGHT_DP = 40;
+    private static final int SNAP_THRESHOLD_DP = 15;
+    private static final int DEFAULT_WIDTH_DP = 220;
+    private static final int DEFAULT_HEIGHT_DP = 80;
+    /** 像素尺寸常量的重新计算次数 */
+    private static final String METRIC_DIMENSIONS_REFRESH = "screen.dimensions.refresh";
+    /** 屏幕配置变化时命中/未命中几何缓存的次数 */
+    private static final String METRIC_GEOMETRY_HIT = "screen.geometry.hit";
+    private static final String METRIC_GEOMETRY_MISS = "screen.geometry.miss";
+    /** 用于区分屏幕密度的探测值：该 dp 换算出的像素数随密度变化 */
+    private static final int DENSITY_PROBE_DP = 1000;
+    /** 副作用队列容量，单次操作最多产生两个副作用 */
+    private static final int EFFECT_CAPACITY = 16;
 
     private final SettingsRepository settingsRepository;
     private final ScreenInfoProvider screenInfoProvider;
-    /** 悬浮窗当前状态的 LiveData */
-    private final MutableLiveData<OverlayState> overlayState = new MutableLiveData<>();
-    /** 动画规格的 LiveData */
-    private final MutableLiveData<AnimationSpec> animationSpec = new MutableLiveData<>();
-    /** 一次性副作用的 LiveData (如播放声音、跳转权限页) */
-    private final MutableLiveData<OneShotEffect> effect = new MutableLiveData<>();
+    /** 悬浮窗当前状态，相同的状态不会再次分发 */
+    private final StateStore<OverlayState> overlayState = new StateStore<>(null);
+    /** 动画规格，需先于对应的状态发布 */
+    private final StateStore<AnimationSpec> animationSpec = new StateStore<>(null);
+    /** 一次性副作用 (如播放声音、跳转权限页)，按发送顺序逐个投递 */
+    private final EffectChannel effects = new EffectChannel(EFFECT_CAPACITY);
+    /** 使用当前密度与圆点尺寸换算出的归约器，仅在屏幕配置或圆点尺寸变化时重建 */
+    private OverlayReducer reducer;
+    /** reducer 中圆点尺寸对应的 dp 值，-1 表示需要重建 */
+    private int reducerDotSizeDp = -1;
+    /** 各屏幕配置下悬浮窗的位置与尺寸 */
+    private final ScreenGeometryCache geometryCache = new ScreenGeometryCache();
+    /** 当前状态所对应的屏幕配置 */
+    private ScreenGeometryCache.Key screenKey;
 
     /**
      * 构造函数。
@@ -51,28 +66,31 @@ public final class OverlayViewModel extends ViewModel {
     public OverlayViewModel(SettingsRepository settingsRepository, ScreenInfoProvider screenInfoProvider) {
         this.settingsRepository = settingsRepository;
         this.screenInfoProvider = screenInfoProvider;
+        screenInfoProvider.setListener(this::onScreenChanged);
+        screenKey = currentScreenKey();
         Settings settings = settingsRepository.loadSettings();
-        overlayState.setValue(buildDefaultState(settings));
+        overlayState.setValue(reducerFor(settings).buildDefaultState(settings, screenInfoProvider.getCurrentBounds()));
     }
 
-    /** @return 悬浮窗状态的只读 LiveData */
-    public LiveData<OverlayState> getOverlayState() {
-        return overlayState;
+    @Override
+    protected void onCleared() {
+        screenInfoProvider.setListener(null);
+        super.onCleared();
     }
 
-    /** @return 动画规格的只读 LiveData */
-    public LiveData<AnimationSpec> getAnimationSpec() {
-        return animationSpec;
+    /** @return 悬浮窗状态 */
+    public StateStore<OverlayState> getOverlayState() {
+        return overlayState;
     }
 
-    /** @return 副作用的只读 LiveData */
-    public LiveData<OneShotEffect> getEffect() {
-        return effect;
+    /** @return 动画规格 */
+    public StateStore<AnimationSpec> getAnimationSpec() {
+        return animationSpec;
     }
 
-    /** 清除当前的副作用。 */
-    public void clearEffect() {
-        effect.setValue(null);
+    /** @return 一次性副作用通道 */
+    public EffectChannel getEffects() {
+        return effects;
     }
 
     /**
@@ -82,58 +100,37 @@ public final class OverlayViewModel extends ViewModel {
      */
     public void onRequestShow(boolean hasPermission) {
         if (!hasPermission) {
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.NAVIGATE_TO_PERMISSION));
+            dispatch(OverlayEvent.permissionDenied());
             return;
         }
-        Settings settings = settingsRepository.loadSettings();
         OverlayState lastState = settingsRepository.loadLastOverlayState();
-        OverlayState base = lastState != null ? lastState : buildDefaultState(settings);
-        OverlayState updated = base
-                .withCloseButtonPosition(settings.closeButtonPosition)
-                .withSoundEnabled(settings.soundEnabled)
-                .withKeepAliveEnabled(settings.keepAliveEnabled)
-                .withTransparencyToggleEnabled(settings.transparencyToggleEnabled)
-                .withTransparentMode(false)
-                .withVisibility(true);
-        updated = clampPositionForCurrentMode(updated);
-        overlayState.setValue(updated);
-        animationSpec.setValue(null);
-        effect.setValue(null);
+        if (lastState != null) {
+            OverlayState restored = geometryCache.restore(screenKey, lastState);
+            if (restored != null) {
+                lastState = restored;
+            }
+        }
+        dispatch(OverlayEvent.show(lastState));
     }
 
     /** 请求隐藏悬浮窗。 */
     public void onRequestHide() {
-        OverlayState current = requireState();
-        if (current.soundEnabled) {
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
-        }
-        overlayState.setValue(current.withVisibility(true));
-        animationSpec.setValue(new AnimationSpec(FADE_ANIM_MS, AnimType.FADE));
-        effect.setValue(new OneShotEffect(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE));
+        dispatch(OverlayEvent.hide());
     }
 
     /** 当悬浮窗完全隐藏后的回调。 */
     public void onOverlayHidden() {
-        OverlayState current = requireState();
-        overlayState.setValue(current.withVisibility(false));
+        dispatch(OverlayEvent.hidden());
     }
 
     /** 点击关闭按钮时的处理。 */
     public void onCloseClick() {
-        OverlayState current = requireState();
-        if (current.soundEnabled) {
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
-        }
-        overlayState.setValue(current.withVisibility(true));
-        animationSpec.setValue(new AnimationSpec(FADE_ANIM_MS, AnimType.FADE));
-        effect.setValue(new OneShotEffect(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE));
+        dispatch(OverlayEvent.closeClick());
     }
 
     /** 开始拖拽时的处理。 */
     public void onDragStart() {
-        OverlayState current = requireState();
-        overlayState.setValue(current.withDragging(true));
-        animationSpec.setValue(null);
+        dispatch(OverlayEvent.dragStart());
     }
 
     /**
@@ -143,29 +140,25 @@ public final class OverlayViewModel extends ViewModel {
      * @param dyPx Y轴偏移量 (像素)
      */
     public void onDragMove(int dxPx, int dyPx) {
-        OverlayState current = requireState();
-        OverlayState moved = current.withPosition(current.xPx + dxPx, current.yPx + dyPx);
-        OverlayState clamped = clampPositionForCurrentMode(moved).withDragging(true);
-        overlayState.setValue(clamped);
-        animationSpec.setValue(null);
+        Settings settings = settingsRepository.loadSettings();
+        // 每帧一次的移动直接走专用入口，不创建事件对象
+        publish(reducerFor(settings).reduceDragMove(
+                requireState(settings), dxPx, dyPx, screenInfoProvider.getCurrentBounds()));
     }
 
-    /** 拖拽结束时的处理，会进行边缘吸附。 */
-    public void onDragEnd() {
-        OverlayState current = requireState().withDragging(false);
-        int threshold = screenInfoProvider.dpToPx(15);
-        OverlayState snapped = snapToEdgeIfNeededForCurrentMode(current, threshold);
-        snapped = clampPositionForCurrentMode(snapped);
-        overlayState.setValue(snapped);
-        settingsRepository.saveLastOverlayState(snapped);
-        animationSpec.setValue(new AnimationSpec(MOVE_ANIM_MS, AnimType.MOVE));
+    /**
+     * 拖拽结束时的处理，按抬手速度甩动并吸附到边缘。
+     *
+     * @param velocityXPxPerSec 抬手时的 X 轴速度 (像素/秒)
+     * @param velocityYPxPerSec 抬手时的 Y 轴速度 (像素/秒)
+     */
+    public void onDragEnd(float velocityXPxPerSec, float velocityYPxPerSec) {
+        dispatch(OverlayEvent.dragEnd(velocityXPxPerSec, velocityYPxPerSec));
     }
 
     /** 开始缩放时的处理。 */
     public void onResizeStart() {
-        OverlayState current = requireState();
-        overlayState.setValue(current.withResizing(true));
-        animationSpec.setValue(null);
+        dispatch(OverlayEvent.resizeStart());
     }
 
     /**
@@ -175,35 +168,41 @@ public final class OverlayViewModel extends ViewModel {
      * @param dhPx 高度增量 (像素)
      */
     public void onResizeMove(int dwPx, int dhPx) {
-        OverlayState current = requireState();
-        OverlayState resized = current.withSize(current.widthPx + dwPx, current.heightPx + dhPx);
-        ScreenBounds bounds = screenInfoProvider.getCurrentBounds();
-        int minWidth = screenInfoProvider.dpToPx(100);
-        int minHeight = screenInfoProvider.dpToPx(40);
-        resized = OverlayConstraints.clampSize(resized, bounds, minWidth, minHeight);
-        resized = OverlayConstraints.clampPosition(resized, bounds).withResizing(true);
-        overlayState.setValue(resized);
-        animationSpec.setValue(null);
+        Settings settings = settingsRepository.loadSettings();
+        publish(reducerFor(settings).reduceResizeMove(
+                requireState(settings), dwPx, dhPx, screenInfoProvider.getCurrentBounds()));
     }
 
     /** 缩放结束时的处理。 */
     public void onResizeEnd() {
-        OverlayState current = requireState().withResizing(false);
-        overlayState.setValue(current);
-        settingsRepository.saveLastOverlayState(current);
-        animationSpec.setValue(new AnimationSpec(RESIZE_ANIM_MS, AnimType.RESIZE));
+        dispatch(OverlayEvent.resizeEnd());
     }
 
-    /** 屏幕边界改变时的处理 (如旋转屏幕)。 */
+    /** 悬浮窗收到新的 window insets 时的处理，交由屏幕信息提供者判断边界是否真的变化。 */
+    public void onWindowInsetsChanged() {
+        screenInfoProvider.invalidate();
+    }
+
+    /**
+     * 屏幕边界改变时的处理 (如旋转屏幕)。
+     * 先把当前布局记到旧配置下；新配置曾经使用过时直接恢复当时的布局，否则把当前布局约束到新边界内。
+     */
     public void onBoundsChanged() {
-        OverlayState current = requireState();
-        ScreenBounds bounds = screenInfoProvider.getCurrentBounds();
-        int minWidth = screenInfoProvider.dpToPx(100);
-        int minHeight = screenInfoProvider.dpToPx(40);
-        OverlayState clamped = OverlayConstraints.clampSize(current, bounds, minWidth, minHeight);
-        clamped = clampPositionForCurrentMode(clamped);
-        overlayState.setValue(clamped);
-        animationSpec.setValue(new AnimationSpec(MOVE_ANIM_MS, AnimType.MOVE));
+        ScreenGeometryCache.Key latestKey = currentScreenKey();
+        if (latestKey.equals(screenKey)) {
+            // 配置未变 (如只是重新读取了 insets)，按原方式约束即可
+            dispatch(OverlayEvent.boundsChanged());
+            return;
+        }
+        OverlayState current = overlayState.getValue();
+        if (current != null) {
+            geometryCache.remember(screenKey, current);
+        }
+        screenKey = latestKey;
+        OverlayState restored = current != null && !current.isDragging && !current.isResizing
+                ? geometryCache.restore(latestKey, current) : null;
+        PerfMetrics.increment(restored != null ? METRIC_GEOMETRY_HIT : METRIC_GEOMETRY_MISS);
+        dispatch(OverlayEvent.boundsChanged(restored));
     }
 
     /**
@@ -212,10 +211,8 @@ public final class OverlayViewModel extends ViewModel {
      * @param position 新的位置
      */
     public void onCloseButtonPositionChanged(CloseButtonPosition position) {
-        Settings settings = settingsRepository.loadSettings().withCloseButtonPosition(position);
-        settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        overlayState.setValue(current.withCloseButtonPosition(position));
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withCloseButtonPosition(position));
     }
 
     /**
@@ -224,10 +221,8 @@ public final class OverlayViewModel extends ViewModel {
      * @param enabled 是否启用
      */
     public void onSoundEnabledChanged(boolean enabled) {
-        Settings settings = settingsRepository.loadSettings().withSoundEnabled(enabled);
-        settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        overlayState.setValue(current.withSoundEnabled(enabled));
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withSoundEnabled(enabled));
     }
 
     /**
@@ -236,98 +231,48 @@ public final class OverlayViewModel extends ViewModel {
      * @param enabled 是否启用
      */
     public void onKeepAliveChanged(boolean enabled) {
-        Settings settings = settingsRepository.loadSettings().withKeepAliveEnabled(enabled);
-        settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        overlayState.setValue(current.withKeepAliveEnabled(enabled));
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withKeepAliveEnabled(enabled));
     }
 
     public void onTransparencyToggleEnabledChanged(boolean enabled) {
-        Settings settings = settingsRepository.loadSettings().withTransparencyToggleEnabled(enabled);
-        settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        OverlayState updated = current.withTransparencyToggleEnabled(enabled);
-        if (!enabled && current.transparentMode) {
-            updated = updated.withTransparentMode(false);
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
-        }
-        overlayState.setValue(updated);
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withTransparencyToggleEnabled(enabled));
     }
 
     public void onTransparencyAutoRestoreEnabledChanged(boolean enabled) {
-        Settings settings = settingsRepository.loadSettings().withTransparencyAutoRestoreEnabled(enabled);
-        settingsRepository.saveSettings(settings);
-        if (!enabled) {
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
-        }
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withTransparencyAutoRestoreEnabled(enabled));
     }
 
     public void onTransparencyAutoRestoreSecondsChanged(int seconds) {
-        int normalized = normalizeSeconds(seconds);
-        Settings settings = settingsRepository.loadSettings().withTransparencyAutoRestoreSeconds(normalized);
-        settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        if (current.transparentMode && settings.transparencyAutoRestoreEnabled) {
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY, normalized * 1000L));
-        }
+        int normalized = OverlayReducer.normalizeAutoRestoreSeconds(seconds);
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withTransparencyAutoRestoreSeconds(normalized));
     }
 
     public void onMinimizeDotSizeChanged(int size) {
         int normalized = Math.max(10, Math.min(200, size));
-        Settings settings = settingsRepository.loadSettings().withMinimizeDotSize(normalized);
-        settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        OverlayState updated = current.withMinimized(current.isMinimized);
-        if (updated.isMinimized) {
-            updated = clampPositionForCurrentMode(updated);
-        }
-        overlayState.setValue(updated);
-        if (updated.visible) {
-            settingsRepository.saveLastOverlayState(updated);
-        }
+        Settings previous = settingsRepository.loadSettings();
+        updateSettings(previous, previous.withMinimizeDotSize(normalized));
     }
 
     public void onMinimizeDotRotateEnabledChanged(boolean enabled) {
         Settings settings = settingsRepository.loadSettings().withMinimizeDotRotateEnabled(enabled);
+        // 圆点样式不属于 OverlayState，由 OverlayRuntime 监听设置变化后重新渲染
         settingsRepository.saveSettings(settings);
-        OverlayState current = requireState();
-        overlayState.setValue(current.withMinimized(current.isMinimized));
     }
 
     public void onMinimizeToggleRequested() {
-        OverlayState current = requireState();
-        OverlayState updated = current.withMinimized(!current.isMinimized);
-        updated = clampPositionForCurrentMode(updated);
-        overlayState.setValue(updated);
-        if (updated.visible) {
-            settingsRepository.saveLastOverlayState(updated);
-        }
+        dispatch(OverlayEvent.minimizeToggle());
     }
 
     public void onTransparencyToggleRequested() {
-        OverlayState current = requireState();
-        Settings settings = settingsRepository.loadSettings();
-        if (!settings.transparencyToggleEnabled) {
-            return;
-        }
-        boolean nextTransparent = !current.transparentMode;
-        overlayState.setValue(current.withTransparentMode(nextTransparent));
-        if (nextTransparent) {
-            if (settings.transparencyAutoRestoreEnabled) {
-                int seconds = normalizeSeconds(settings.transparencyAutoRestoreSeconds);
-                effect.setValue(new OneShotEffect(OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY, seconds * 1000L));
-            }
-        } else {
-            effect.setValue(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
-        }
+        dispatch(OverlayEvent.transparencyToggle());
     }
 
     public void onTransparencyAutoRestoreTimeout() {
-        OverlayState current = requireState();
-        if (!current.transparentMode) {
-            return;
-        }
-        overlayState.setValue(current.withTransparentMode(false));
+        dispatch(OverlayEvent.autoRestoreTimeout());
     }
 
     /**
@@ -339,113 +284,81 @@ public final class OverlayViewModel extends ViewModel {
     public void applyImportedState(OverlayState importedState, Settings settings) {
         settingsRepository.saveSettings(settings);
         settingsRepository.saveLastOverlayState(importedState);
-        OverlayState current = requireState();
-        OverlayState updated = new OverlayState(
-                importedState.widthPx,
-                importedState.heightPx,
-                importedState.xPx,
-                importedState.yPx,
-                current.visible,
-                settings.closeButtonPosition,
-                settings.soundEnabled,
-                settings.keepAliveEnabled,
-                settings.transparencyToggleEnabled,
-                false,
-                current.isDragging,
-                current.isResizing,
-                current.isMinimized
-        );
-        overlayState.setValue(updated);
-    }
-
-    private OverlayState requireState() {
-        OverlayState current = overlayState.getValue();
-        if (current == null) {
-            Settings settings = settingsRepository.loadSettings();
-            current = buildDefaultState(settings);
-            overlayState.setValue(current);
-        }
-        return current;
+        // 其他屏幕配置下记录的布局已被导入的配置取代
+        geometryCache.clear();
+        dispatch(OverlayEvent.importState(importedState));
+    }
+
+    private void updateSettings(Settings previous, Settings updated) {
+        settingsRepository.saveSettings(updated);
+        dispatch(OverlayEvent.settingsChanged(previous));
     }
 
-    private OverlayState buildDefaultState(Settings settings) {
-        ScreenBounds bounds = screenInfoProvider.getCurrentBounds();
-        int width = screenInfoProvider.dpToPx(220);
-        int height = screenInfoProvider.dpToPx(80);
-        int x = Math.max(bounds.safeInsets.left, (bounds.widthPx - width) / 2);
-        int y = Math.max(bounds.safeInsets.top, (int) (bounds.heightPx * 0.65f));
-        return new OverlayState(
-                width,
-                height,
-                x,
-                y,
-                false,
-                settings.closeButtonPosition,
-                settings.soundEnabled,
-                settings.keepAliveEnabled,
-                settings.transparencyToggleEnabled,
-                false,
-                false,
-                false,
-                false
-        );
-    }
-
-    private int normalizeSeconds(int seconds) {
-        if (seconds < MIN_AUTO_RESTORE_SECONDS) {
-            return MIN_AUTO_RESTORE_SECONDS;
+    /** 交给归约器计算新状态并发布结果。 */
+    private void dispatch(OverlayEvent event) {
+        Settings settings = settingsRepository.loadSettings();
+        publish(reducerFor(settings)
+                .reduce(requireState(settings), event, screenInfoProvider.getCurrentBounds(), settings));
+    }
+
+    /** 依次发布动画规格、状态与副作用。 */
+    private void publish(OverlayReducer.Result result) {
+        // 结果对象由归约器复用，订阅者在回调中再次归约会覆盖它，因此先取出全部字段
+        OverlayState state = result.getState();
+        boolean animationChanged = result.isAnimationChanged();
+        AnimationSpec animation = result.getAnimation();
+        List<OneShotEffect> resultEffects = result.getEffects();
+        boolean persist = result.shouldPersistState();
+        // 动画规格需先于状态发布，渲染该状态时才能带上对应的动画；
+        // 状态不变时不会触发渲染，此时发布的规格会被之后无关的渲染误用，因此不发布
+        if (animationChanged && !state.equals(overlayState.getValue())) {
+            animationSpec.setValue(animation);
         }
-        if (seconds > MAX_AUTO_RESTORE_SECONDS) {
-            return MAX_AUTO_RESTORE_SECONDS;
+        overlayState.setValue(state);
+        for (int i = 0; i < resultEffects.size(); i++) {
+            effects.send(resultEffects.get(i));
+        }
+        if (persist) {
+            settingsRepository.saveLastOverlayState(state);
+            geometryCache.remember(screenKey, state);
         }
-        return seconds;
     }
 
-    private OverlayState clampPositionForCurrentMode(OverlayState state) {
-        ScreenBounds bounds = screenInfoProvider.getCurrentBounds();
-        if (!state.isMinimized) {
-            return OverlayConstraints.clampPosition(state, bounds);
+    private OverlayState requireState(Settings settings) {
+        OverlayState current = overlayState.getValue();
+        if (current == null) {
+            current = reducerFor(settings).buildDefaultState(settings, screenInfoProvider.getCurrentBounds());
+            overlayState.setValue(current);
         }
-        int dotSizePx = getMinimizedDotSizePx();
-        return clampPositionWithSize(state, bounds, dotSizePx, dotSizePx);
+        return current;
     }
 
-    private OverlayState snapToEdgeIfNeededForCurrentMode(OverlayState state, int thresholdPx) {
-        ScreenBounds bounds = screenInfoProvider.getCurrentBounds();
-        if (!state.isMinimized) {
-            return OverlayConstraints.snapToEdgeIfNeeded(state, bounds, thresholdPx);
-        }
-        int dotSizePx = getMinimizedDotSizePx();
-        return snapToEdgeWithSize(state, bounds, dotSizePx, thresholdPx);
-    }
-
-    private OverlayState clampPositionWithSize(OverlayState state, ScreenBounds bounds, int widthPx, int heightPx) {
-        Insets insets = bounds.safeInsets;
-        int minX = insets.left;
-        int minY = insets.top;
-        int maxX = bounds.widthPx - insets.right - widthPx;
-        int maxY = bounds.heightPx - insets.bottom - heightPx;
-        int clampedX = OverlayConstraints.clamp(state.xPx, minX, Math.max(minX, maxX));
-        int clampedY = OverlayConstraints.clamp(state.yPx, minY, Math.max(minY, maxY));
-        return state.withPosition(clampedX, clampedY);
-    }
-
-    private OverlayState snapToEdgeWithSize(OverlayState state, ScreenBounds bounds, int widthPx, int thresholdPx) {
-        Insets insets = bounds.safeInsets;
-        int leftEdge = insets.left;
-        int rightEdge = bounds.widthPx - insets.right - widthPx;
-        int distanceLeft = Math.abs(state.xPx - leftEdge);
-        int distanceRight = Math.abs(state.xPx - rightEdge);
-        if (distanceLeft <= thresholdPx || distanceRight <= thresholdPx) {
-            int targetX = distanceLeft <= distanceRight ? leftEdge : rightEdge;
-            return state.withPosition(targetX, state.yPx);
+    /** 圆点尺寸变化时按当前密度重建归约器。 */
+    private OverlayReducer reducerFor(Settings settings) {
+        int dotSizeDp = Math.max(10, Math.min(200, settings.minimizeDotSize));
+        if (reducer == null || dotSizeDp != reducerDotSizeDp) {
+            reducer = new OverlayReducer(new OverlayReducer.Dimensions(
+                    screenInfoProvider.dpToPx(MIN_WIDTH_DP),
+                    screenInfoProvider.dpToPx(MIN_HEIGHT_DP),
+                    screenInfoProvider.dpToPx(SNAP_THRESHOLD_DP),
+                    screenInfoProvider.dpToPx(DEFAULT_WIDTH_DP),
+                    screenInfoProvider.dpToPx(DEFAULT_HEIGHT_DP),
+                    screenInfoProvider.dpToPx(dotSizeDp)
+            ));
+            reducerDotSizeDp = dotSizeDp;
+            PerfMetrics.increment(METRIC_DIMENSIONS_REFRESH);
         }
-        return state;
+        return reducer;
     }
 
-    private int getMinimizedDotSizePx() {
-        Settings settings = settingsRepository.loadSettings();
-        int normalizedDp = Math.max(10, Math.min(200, settings.minimizeDotSize));
-        return screenInfoProvider.dpToPx(normalizedDp);
+    private ScreenGeometryCache.Key currentScreenKey() {
+        return ScreenGeometryCache.Key.of(screenInfoProvider.getCurrentBounds(),
+                screenInfoProvider.dpToPx(DENSITY_PROBE_DP));
+    }
+
+    private void onScreenChanged() {
+        // 密度可能已变化，下次归约前按新密度重建
+        reducer = null;
+        onBoundsChanged();
     }
 }
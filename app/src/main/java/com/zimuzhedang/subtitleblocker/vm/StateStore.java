@@ -0,0 +1,134 @@
+package com.zimuzhedang.subtitleblocker.vm;
+
+import androidx.annotation.Nullable;
+
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+import java.util.ArrayList;
+
+/**
+ * 轻量的可观察状态容器，用于替代 ViewModel 中的 LiveData。
+ * 新值与当前值相等（{@link Object#equals}）时直接丢弃，订阅者永远不会收到重复的状态；
+ * 订阅者在回调中再次写入时不会递归分发，而是在本轮结束后只把最新值再分发一次，中间值被合并掉。
+ * 分发在调用 {@link #setValue} 的线程上同步进行，不经过 Handler，避免拖拽帧额外延迟一帧；
+ * 每帧最多一次的手势更新已由输入层合并保证。订阅者列表在增删时复制成数组，分发时遍历数组，不分配迭代器。
+ * 只应在主线程读写。
+ *
+ * @param <T> 状态类型
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class StateStore<T> {
+    /** 因与当前值相等而被丢弃的写入次数 */
+    public static final String METRIC_DUPLICATES_DROPPED = "state.duplicates_dropped";
+    /** 因分发期间被新值覆盖而合并掉的分发次数 */
+    public static final String METRIC_CONFLATED = "state.conflated";
+
+    /**
+     * 状态订阅者。
+     *
+     * @param <T> 状态类型
+     */
+    public interface Subscriber<T> {
+        /**
+         * 状态变化时回调。
+         *
+         * @param value 最新状态
+         */
+        void onChanged(@Nullable T value);
+    }
+
+    private final ArrayList<Subscriber<T>> subscribers = new ArrayList<>();
+    /** 订阅者列表的快照，分发期间增删订阅者不影响正在进行的遍历 */
+    private Object[] subscriberArray = new Object[0];
+    @Nullable
+    private T value;
+    private boolean dispatching;
+    private boolean redispatch;
+
+    /**
+     * 构造函数。
+     *
+     * @param initialValue 初始值
+     */
+    public StateStore(@Nullable T initialValue) {
+        this.value = initialValue;
+    }
+
+    /** @return 当前值 */
+    @Nullable
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * 写入新值，与当前值相等时忽略。
+     *
+     * @param newValue 新值
+     * @return 值是否发生了变化
+     */
+    public boolean setValue(@Nullable T newValue) {
+        T current = value;
+        if (current == newValue || (current != null && current.equals(newValue))) {
+            PerfMetrics.increment(METRIC_DUPLICATES_DROPPED);
+            return false;
+        }
+        value = newValue;
+        if (dispatching) {
+            redispatch = true;
+            return true;
+        }
+        dispatching = true;
+        try {
+            do {
+                redispatch = false;
+                T snapshot = value;
+                Object[] targets = subscriberArray;
+                for (int i = 0; i < targets.length; i++) {
+                    if (redispatch) {
+                        // 已有更新的值，剩余订阅者不再接收过期的中间值
+                        PerfMetrics.increment(METRIC_CONFLATED);
+                        break;
+                    }
+                    subscriberAt(targets, i).onChanged(snapshot);
+                }
+            } while (redispatch);
+        } finally {
+            dispatching = false;
+        }
+        return true;
+    }
+
+    /**
+     * 添加订阅者，当前值不为 null 时会立即回调一次。
+     *
+     * @param subscriber 订阅者
+     */
+    public void subscribe(Subscriber<T> subscriber) {
+        if (subscribers.contains(subscriber)) {
+            return;
+        }
+        subscribers.add(subscriber);
+        subscriberArray = subscribers.toArray();
+        T current = value;
+        if (current != null) {
+            subscriber.onChanged(current);
+        }
+    }
+
+    /**
+     * 移除订阅者。
+     *
+     * @param subscriber 订阅者
+     */
+    public void unsubscribe(Subscriber<T> subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberArray = subscribers.toArray();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Subscriber<T> subscriberAt(Object[] targets, int index) {
+        return (Subscriber<T>) targets[index];
+    }
+}
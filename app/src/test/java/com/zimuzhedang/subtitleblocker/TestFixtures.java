@@ -0,0 +1,96 @@
+package com.zimuzhedang.subtitleblocker;
+
+import com.zimuzhedang.subtitleblocker.domain.CloseButtonPosition;
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+
+/**
+ * 单元测试与基准程序共用的设置与悬浮窗状态构造方法。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class TestFixtures {
+    private TestFixtures() {
+    }
+
+    /**
+     * @param dotSize 最小化圆点尺寸 (dp)
+     * @return 除圆点尺寸外均为默认值的设置
+     */
+    public static Settings settings(int dotSize) {
+        return Settings.defaultValue().withMinimizeDotSize(dotSize);
+    }
+
+    /**
+     * @param toggleEnabled 是否启用透明切换
+     * @param autoRestore 是否自动恢复不透明
+     * @param seconds 自动恢复的延迟 (秒)
+     * @return 开启声音与圆点旋转、圆点尺寸为 30dp 的设置
+     */
+    public static Settings settings(boolean toggleEnabled, boolean autoRestore, int seconds) {
+        return new Settings(
+                CloseButtonPosition.RIGHT_TOP,
+                true,
+                false,
+                Settings.AppLanguage.SYSTEM,
+                toggleEnabled,
+                autoRestore,
+                seconds,
+                30,
+                true,
+                null
+        );
+    }
+
+    /**
+     * 每个字段都不同于默认值的设置，用于验证持久化是否完整保存了所有字段。
+     *
+     * @param dotSize 最小化圆点尺寸 (dp)
+     * @param ignoredVersion 忽略的更新版本，可为 null
+     * @return 设置
+     */
+    public static Settings nonDefaultSettings(int dotSize, String ignoredVersion) {
+        return new Settings(
+                CloseButtonPosition.LEFT_TOP,
+                true,
+                true,
+                Settings.AppLanguage.FR,
+                false,
+                true,
+                12,
+                dotSize,
+                true,
+                ignoredVersion
+        );
+    }
+
+    /**
+     * @return 可见、未处于任何手势或特殊模式的悬浮窗状态
+     */
+    public static OverlayState state(int width, int height, int x, int y) {
+        return new OverlayState(
+                width,
+                height,
+                x,
+                y,
+                true,
+                CloseButtonPosition.RIGHT_TOP,
+                true,
+                false,
+                true,
+                false,
+                false,
+                false,
+                false
+        );
+    }
+
+    /**
+     * @param x X 坐标 (像素)
+     * @return 300×100、位于 (x, 200) 的悬浮窗状态
+     */
+    public static OverlayState state(int x) {
+        return state(300, 100, x, 200);
+    }
+}
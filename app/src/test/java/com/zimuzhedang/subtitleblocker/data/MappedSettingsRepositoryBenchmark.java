@@ -0,0 +1,124 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import com.zimuzhedang.subtitleblocker.TestFixtures;
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * 内存映射设置文件与 XML 设置文件的读写耗时对比程序。
+ * XML 一侧模拟 SharedPreferences 的提交方式：每次提交重写整个 XML 文件，加载时完整解析。
+ * 不属于单元测试，不参与测试任务；需要对比性能时在 JVM 上直接运行 main 方法。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class MappedSettingsRepositoryBenchmark {
+    private static final int ITERATIONS = 2000;
+
+    private MappedSettingsRepositoryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("settings", ".bin");
+        File xmlFile = File.createTempFile("settings", ".xml");
+        try {
+            Settings settings = TestFixtures.nonDefaultSettings(40, "1.0.0");
+            MappedSettingsRepository repo = new MappedSettingsRepository(file, null);
+            // 预热，让 JIT 完成编译
+            for (int i = 0; i < ITERATIONS; i++) {
+                repo.saveLastOverlayState(TestFixtures.state(i));
+                writeXml(xmlFile, settings, TestFixtures.state(i));
+            }
+
+            long mappedStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                repo.saveLastOverlayState(TestFixtures.state(i));
+            }
+            long mappedSaveNanos = System.nanoTime() - mappedStart;
+
+            long xmlStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                writeXml(xmlFile, settings, TestFixtures.state(i));
+            }
+            long xmlSaveNanos = System.nanoTime() - xmlStart;
+
+            long mappedLoadStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                new MappedSettingsRepository(file, null).loadSettings();
+            }
+            long mappedLoadNanos = System.nanoTime() - mappedLoadStart;
+
+            long xmlLoadStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                readXml(xmlFile);
+            }
+            long xmlLoadNanos = System.nanoTime() - xmlLoadStart;
+
+            System.out.println(String.format(Locale.ROOT,
+                    "settings save: mapped %.2f us, xml %.2f us; load: mapped %.2f us, xml %.2f us",
+                    mappedSaveNanos / 1000.0 / ITERATIONS, xmlSaveNanos / 1000.0 / ITERATIONS,
+                    mappedLoadNanos / 1000.0 / ITERATIONS, xmlLoadNanos / 1000.0 / ITERATIONS));
+        } finally {
+            file.delete();
+            xmlFile.delete();
+        }
+    }
+
+    private static void writeXml(File target, Settings settings, OverlayState state) throws IOException {
+        StringBuilder xml = new StringBuilder(1024);
+        xml.append("<?xml version='1.0' encoding='utf-8' standalone='yes' ?>\n<map>\n");
+        appendString(xml, "close_button_position", settings.closeButtonPosition.name());
+        appendValue(xml, "boolean", "sound_enabled", settings.soundEnabled);
+        appendValue(xml, "boolean", "keep_alive_enabled", settings.keepAliveEnabled);
+        appendString(xml, "app_language", settings.appLanguage.value);
+        appendValue(xml, "boolean", "transparency_toggle_enabled", settings.transparencyToggleEnabled);
+        appendValue(xml, "boolean", "transparency_auto_restore_enabled", settings.transparencyAutoRestoreEnabled);
+        appendValue(xml, "int", "transparency_auto_restore_seconds", settings.transparencyAutoRestoreSeconds);
+        appendValue(xml, "int", "minimize_dot_size", settings.minimizeDotSize);
+        appendValue(xml, "boolean", "minimize_dot_rotate_enabled", settings.minimizeDotRotateEnabled);
+        appendString(xml, "ignored_update_version", settings.ignoredUpdateVersion);
+        appendValue(xml, "int", "last_width_px", state.widthPx);
+        appendValue(xml, "int", "last_height_px", state.heightPx);
+        appendValue(xml, "int", "last_x_px", state.xPx);
+        appendValue(xml, "int", "last_y_px", state.yPx);
+        xml.append("</map>\n");
+        FileOutputStream out = new FileOutputStream(target);
+        try {
+            out.write(xml.toString().getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void appendString(StringBuilder xml, String name, String value) {
+        xml.append("    <string name=\"").append(name).append("\">").append(value).append("</string>\n");
+    }
+
+    private static void appendValue(StringBuilder xml, String type, String name, Object value) {
+        xml.append("    <").append(type).append(" name=\"").append(name)
+                .append("\" value=\"").append(value).append("\" />\n");
+    }
+
+    private static void readXml(File source) throws Exception {
+        byte[] bytes = new byte[(int) source.length()];
+        FileInputStream in = new FileInputStream(source);
+        try {
+            int offset = 0;
+            while (offset < bytes.length) {
+                offset += in.read(bytes, offset, bytes.length - offset);
+            }
+        } finally {
+            in.close();
+        }
+        DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,156 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static com.zimuzhedang.subtitleblocker.TestFixtures.nonDefaultSettings;
+import static com.zimuzhedang.subtitleblocker.TestFixtures.state;
+
+public final class MappedSettingsRepositoryTest {
+    private static final class LegacyRepository implements SettingsRepository {
+        private final Settings settings;
+        private final OverlayState lastState;
+        private int loads;
+
+        LegacyRepository(Settings settings, OverlayState lastState) {
+            this.settings = settings;
+            this.lastState = lastState;
+        }
+
+        @Override
+        public Settings loadSettings() {
+            loads++;
+            return settings;
+        }
+
+        @Override
+        public void saveSettings(Settings settings) {
+            throw new AssertionError("legacy repository must not be written");
+        }
+
+        @Override
+        public OverlayState loadLastOverlayState() {
+            return lastState;
+        }
+
+        @Override
+        public void saveLastOverlayState(OverlayState state) {
+            throw new AssertionError("legacy repository must not be written");
+        }
+
+        @Override
+        public String loadIgnoredUpdateVersion() {
+            return settings.ignoredUpdateVersion;
+        }
+
+        @Override
+        public void saveIgnoredUpdateVersion(String normalizedVersion) {
+            throw new AssertionError("legacy repository must not be written");
+        }
+    }
+
+    /** @return 尚不存在的临时文件路径，进程退出时删除 */
+    private static File newFile() throws IOException {
+        File file = File.createTempFile("settings", ".bin");
+        Assert.assertTrue(file.delete());
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void saveAndReopen_restoresAllFields() throws IOException {
+        File file = newFile();
+        MappedSettingsRepository repo = new MappedSettingsRepository(file, null);
+        Assert.assertEquals(Settings.defaultValue(), repo.loadSettings());
+        Assert.assertNull(repo.loadLastOverlayState());
+
+        repo.saveSettings(nonDefaultSettings(56, "1.4.0"));
+        repo.saveLastOverlayState(state(77));
+
+        MappedSettingsRepository reopened = new MappedSettingsRepository(file, null);
+        Assert.assertEquals(nonDefaultSettings(56, "1.4.0"), reopened.loadSettings());
+        Assert.assertEquals("1.4.0", reopened.loadIgnoredUpdateVersion());
+        OverlayState restored = reopened.loadLastOverlayState();
+        Assert.assertNotNull(restored);
+        Assert.assertEquals(300, restored.widthPx);
+        Assert.assertEquals(100, restored.heightPx);
+        Assert.assertEquals(77, restored.xPx);
+        Assert.assertEquals(200, restored.yPx);
+        Assert.assertFalse(restored.visible);
+
+        reopened.saveIgnoredUpdateVersion(" ");
+        Assert.assertNull(new MappedSettingsRepository(file, null).loadIgnoredUpdateVersion());
+    }
+
+    @Test
+    public void newFile_migratesLegacyOnce() throws IOException {
+        File file = newFile();
+        LegacyRepository legacy = new LegacyRepository(nonDefaultSettings(48, null), state(5));
+        MappedSettingsRepository repo = new MappedSettingsRepository(file, legacy);
+        Assert.assertEquals(1, legacy.loads);
+        Assert.assertEquals(nonDefaultSettings(48, null), repo.loadSettings());
+        Assert.assertEquals(5, repo.loadLastOverlayState().xPx);
+
+        MappedSettingsRepository reopened = new MappedSettingsRepository(file, legacy);
+        Assert.assertEquals(1, legacy.loads);
+        Assert.assertEquals(nonDefaultSettings(48, null), reopened.loadSettings());
+    }
+
+    @Test
+    public void existingFileWithoutValidSlot_migratesLegacy() throws IOException {
+        File file = newFile();
+        // 文件已存在但没有任何完整提交，例如创建后首次提交前进程被终止
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(MappedSettingsRepository.SLOT_SIZE * 2);
+        } finally {
+            raf.close();
+        }
+        LegacyRepository legacy = new LegacyRepository(nonDefaultSettings(64, "2.1.0"), state(9));
+        MappedSettingsRepository repo = new MappedSettingsRepository(file, legacy);
+        Assert.assertEquals(1, legacy.loads);
+        Assert.assertEquals(nonDefaultSettings(64, "2.1.0"), repo.loadSettings());
+        Assert.assertEquals(9, repo.loadLastOverlayState().xPx);
+    }
+
+    @Test
+    public void tornWrite_fallsBackToPreviousCommit() throws IOException {
+        File file = newFile();
+        MappedSettingsRepository repo = new MappedSettingsRepository(file, null);
+        repo.saveLastOverlayState(state(10));
+        repo.saveLastOverlayState(state(20));
+
+        // 第三次提交 (x=20) 落在槽位 0，模拟写到一半中断
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(40);
+            raf.writeInt(12345);
+        } finally {
+            raf.close();
+        }
+        MappedSettingsRepository reopened = new MappedSettingsRepository(file, null);
+        Assert.assertEquals(10, reopened.loadLastOverlayState().xPx);
+
+        reopened.saveLastOverlayState(state(30));
+        Assert.assertEquals(30, new MappedSettingsRepository(file, null).loadLastOverlayState().xPx);
+    }
+
+    @Test
+    public void overlongIgnoredVersion_isStoredAsUnset() throws IOException {
+        File file = newFile();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i <= MappedSettingsRepository.MAX_VERSION_BYTES; i++) {
+            builder.append('9');
+        }
+        MappedSettingsRepository repo = new MappedSettingsRepository(file, null);
+        repo.saveIgnoredUpdateVersion(builder.toString());
+        Assert.assertNull(new MappedSettingsRepository(file, null).loadIgnoredUpdateVersion());
+    }
+}
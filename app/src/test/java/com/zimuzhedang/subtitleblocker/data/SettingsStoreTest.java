@@ -0,0 +1,115 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.zimuzhedang.subtitleblocker.TestFixtures.settings;
+
+public final class SettingsStoreTest {
+    private static final class CountingRepository implements SettingsRepository {
+        private Settings settings = settings(40);
+        private String ignoredVersion;
+        private int settingsWrites;
+        private int ignoredVersionWrites;
+
+        @Override
+        public Settings loadSettings() {
+            return settings;
+        }
+
+        @Override
+        public void saveSettings(Settings settings) {
+            this.settings = settings;
+            settingsWrites++;
+        }
+
+        @Override
+        public OverlayState loadLastOverlayState() {
+            return null;
+        }
+
+        @Override
+        public void saveLastOverlayState(OverlayState state) {
+        }
+
+        @Override
+        public String loadIgnoredUpdateVersion() {
+            return ignoredVersion;
+        }
+
+        @Override
+        public void saveIgnoredUpdateVersion(String normalizedVersion) {
+            ignoredVersion = normalizedVersion;
+            ignoredVersionWrites++;
+        }
+    }
+
+    @Test
+    public void saveOutsideTransaction_commitsEachChange() {
+        CountingRepository delegate = new CountingRepository();
+        SettingsStore store = new SettingsStore(delegate);
+        store.saveSettings(settings(50));
+        store.saveSettings(settings(50));
+        store.saveSettings(settings(60));
+        Assert.assertEquals(2, delegate.settingsWrites);
+    }
+
+    @Test
+    public void transaction_mergesChangesIntoOneCommit() {
+        CountingRepository delegate = new CountingRepository();
+        SettingsStore store = new SettingsStore(delegate);
+        final int[] notifications = new int[1];
+        store.addListener((previous, current) -> notifications[0]++);
+
+        store.beginTransaction();
+        for (int size = 41; size <= 80; size++) {
+            store.saveSettings(settings(size));
+        }
+        store.saveIgnoredUpdateVersion("2.0.0");
+        Assert.assertEquals(0, delegate.settingsWrites);
+        Assert.assertEquals(41, notifications[0]);
+        Assert.assertEquals(80, store.get().minimizeDotSize);
+
+        store.endTransaction();
+        Assert.assertEquals(1, delegate.settingsWrites);
+        Assert.assertEquals(0, delegate.ignoredVersionWrites);
+        Assert.assertEquals(80, delegate.settings.minimizeDotSize);
+        Assert.assertEquals("2.0.0", delegate.settings.ignoredUpdateVersion);
+    }
+
+    @Test
+    public void transaction_revertedToCommittedValue_skipsCommit() {
+        CountingRepository delegate = new CountingRepository();
+        SettingsStore store = new SettingsStore(delegate);
+        store.runInTransaction(() -> {
+            store.saveSettings(settings(90));
+            store.saveSettings(settings(40));
+        });
+        Assert.assertEquals(0, delegate.settingsWrites);
+    }
+
+    @Test
+    public void nestedTransaction_commitsWhenOutermostEnds() {
+        CountingRepository delegate = new CountingRepository();
+        SettingsStore store = new SettingsStore(delegate);
+        store.beginTransaction();
+        store.runInTransaction(() -> store.saveSettings(settings(70)));
+        Assert.assertEquals(0, delegate.settingsWrites);
+        store.endTransaction();
+        Assert.assertEquals(1, delegate.settingsWrites);
+    }
+
+    @Test
+    public void endTransaction_withoutBegin_throws() {
+        SettingsStore store = new SettingsStore(new CountingRepository());
+        try {
+            store.endTransaction();
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // 预期异常
+        }
+    }
+}
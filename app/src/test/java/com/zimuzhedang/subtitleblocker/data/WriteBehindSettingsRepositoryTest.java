@@ -0,0 +1,121 @@
+package com.zimuzhedang.subtitleblocker.data;
+
+import com.zimuzhedang.subtitleblocker.domain.OverlayState;
+import com.zimuzhedang.subtitleblocker.domain.Settings;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.zimuzhedang.subtitleblocker.TestFixtures.settings;
+import static com.zimuzhedang.subtitleblocker.TestFixtures.state;
+
+public final class WriteBehindSettingsRepositoryTest {
+    private static final class CountingRepository implements SettingsRepository {
+        private Settings settings = settings(40);
+        private OverlayState lastState;
+        private String ignoredVersion;
+        private int settingsWrites;
+        private int stateWrites;
+
+        @Override
+        public Settings loadSettings() {
+            return settings;
+        }
+
+        @Override
+        public void saveSettings(Settings settings) {
+            this.settings = settings;
+            settingsWrites++;
+        }
+
+        @Override
+        public OverlayState loadLastOverlayState() {
+            return lastState;
+        }
+
+        @Override
+        public void saveLastOverlayState(OverlayState state) {
+            lastState = state;
+            stateWrites++;
+        }
+
+        @Override
+        public String loadIgnoredUpdateVersion() {
+            return ignoredVersion;
+        }
+
+        @Override
+        public void saveIgnoredUpdateVersion(String normalizedVersion) {
+            ignoredVersion = normalizedVersion;
+        }
+    }
+
+    private static final class ManualScheduler implements WriteBehindSettingsRepository.Scheduler {
+        private Runnable task;
+
+        @Override
+        public void schedule(Runnable task, long delayMs) {
+            this.task = task;
+        }
+
+        @Override
+        public void cancel(Runnable task) {
+            if (this.task == task) {
+                this.task = null;
+            }
+        }
+
+        void runPending() {
+            Runnable current = task;
+            task = null;
+            if (current != null) {
+                current.run();
+            }
+        }
+    }
+
+    @Test
+    public void repeatedSaves_areMergedIntoOneWrite() {
+        CountingRepository delegate = new CountingRepository();
+        ManualScheduler scheduler = new ManualScheduler();
+        WriteBehindSettingsRepository repo = new WriteBehindSettingsRepository(delegate, scheduler, 500L);
+        for (int i = 0; i < 10; i++) {
+            repo.saveLastOverlayState(state(i));
+        }
+        repo.saveSettings(settings(60));
+        Assert.assertEquals(0, delegate.stateWrites);
+        Assert.assertEquals(9, repo.loadLastOverlayState().xPx);
+        Assert.assertEquals(60, repo.loadSettings().minimizeDotSize);
+
+        scheduler.runPending();
+        Assert.assertEquals(1, delegate.stateWrites);
+        Assert.assertEquals(1, delegate.settingsWrites);
+        Assert.assertEquals(9, delegate.lastState.xPx);
+        Assert.assertFalse(repo.hasPendingWrites());
+    }
+
+    @Test
+    public void flush_writesImmediatelyAndCancelsTimer() {
+        CountingRepository delegate = new CountingRepository();
+        ManualScheduler scheduler = new ManualScheduler();
+        WriteBehindSettingsRepository repo = new WriteBehindSettingsRepository(delegate, scheduler, 500L);
+        repo.saveLastOverlayState(state(1));
+        repo.flush();
+        Assert.assertEquals(1, delegate.stateWrites);
+        Assert.assertNull(scheduler.task);
+        repo.flush();
+        Assert.assertEquals(1, delegate.stateWrites);
+    }
+
+    @Test
+    public void saveIgnoredVersion_flushesPendingSettingsFirst() {
+        CountingRepository delegate = new CountingRepository();
+        ManualScheduler scheduler = new ManualScheduler();
+        WriteBehindSettingsRepository repo = new WriteBehindSettingsRepository(delegate, scheduler, 500L);
+        repo.saveSettings(settings(80));
+        repo.saveIgnoredUpdateVersion("1.2.0");
+        Assert.assertEquals(1, delegate.settingsWrites);
+        Assert.assertEquals(80, delegate.settings.minimizeDotSize);
+        Assert.assertEquals("1.2.0", delegate.ignoredVersion);
+    }
+}
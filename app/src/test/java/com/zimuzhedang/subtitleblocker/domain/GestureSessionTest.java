@@ -0,0 +1,92 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.core.graphics.Insets;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static com.zimuzhedang.subtitleblocker.TestFixtures.state;
+
+public final class GestureSessionTest {
+    private static final ScreenBounds BOUNDS = new ScreenBounds(1000, 2000, Insets.of(10, 20, 30, 40));
+
+    @Test
+    public void dragBy_clampsInPlace() {
+        GestureSession session = new GestureSession();
+        session.beginDrag(state(200, 100, 100, 100), BOUNDS, 200, 100);
+        Assert.assertTrue(session.dragBy(-500, -500));
+        Assert.assertEquals(10, session.getXPx());
+        Assert.assertEquals(20, session.getYPx());
+        Assert.assertFalse(session.dragBy(-5, -5));
+        session.dragBy(5000, 5000);
+        Assert.assertEquals(1000 - 30 - 200, session.getXPx());
+        Assert.assertEquals(2000 - 40 - 100, session.getYPx());
+    }
+
+    @Test
+    public void resizeBy_clampsSizeThenPosition() {
+        GestureSession session = new GestureSession();
+        session.beginResize(state(200, 100, 700, 100), BOUNDS, 100, 40);
+        session.resizeBy(10000, -10000);
+        Assert.assertEquals(800, session.getWidthPx());
+        Assert.assertEquals(40, session.getHeightPx());
+        Assert.assertEquals(1000 - 30 - 800, session.getXPx());
+    }
+
+    @Test
+    public void publish_reflectsModeAndGeometry() {
+        GestureSession session = new GestureSession();
+        OverlayState start = state(200, 100, 300, 300);
+        session.beginDrag(start, BOUNDS, 200, 100);
+        session.dragBy(15, 25);
+        OverlayState moving = session.publish(start);
+        Assert.assertTrue(moving.isDragging);
+        Assert.assertEquals(315, moving.xPx);
+        Assert.assertEquals(325, moving.yPx);
+        session.snapToEdge(15);
+        session.end();
+        OverlayState ended = session.publish(moving);
+        Assert.assertFalse(ended.isDragging);
+        Assert.assertFalse(ended.isResizing);
+    }
+
+    @Test
+    public void snapToEdge_prefersNearest() {
+        GestureSession session = new GestureSession();
+        session.beginDrag(state(200, 100, 22, 300), BOUNDS, 200, 100);
+        session.snapToEdge(15);
+        Assert.assertEquals(10, session.getXPx());
+    }
+
+    @Test
+    public void moveEvents_doNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        GestureSession session = new GestureSession();
+        session.beginDrag(state(200, 100, 300, 300), BOUNDS, 200, 100);
+        // 预热，让 JIT 完成编译，避免把类加载等一次性开销计入测量
+        runMoves(session, 200_000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        runMoves(session, 1_000_000);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        // 允许测量调用本身的少量开销，一百万次移动事件应当不产生任何逐事件分配
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void runMoves(GestureSession session, int count) {
+        for (int i = 0; i < count; i++) {
+            int direction = (i & 64) == 0 ? 1 : -1;
+            session.dragBy(3 * direction, 2 * direction);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.core.graphics.Insets;
+
+import com.zimuzhedang.subtitleblocker.TestFixtures;
+
+import java.util.Locale;
+
+/**
+ * 拖拽事件归约吞吐量的基准程序。
+ * 不属于单元测试，不参与测试任务；需要对比性能时在 JVM 上直接运行 main 方法。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class OverlayReducerBenchmark {
+    private static final ScreenBounds BOUNDS = new ScreenBounds(1000, 2000, Insets.of(10, 20, 30, 40));
+    private static final OverlayReducer.Dimensions DIMENSIONS =
+            new OverlayReducer.Dimensions(300, 120, 45, 660, 240, 90);
+    private static final int WARMUP_EVENTS = 500_000;
+    private static final int MEASURED_EVENTS = 4_000_000;
+
+    private OverlayReducerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        OverlayState start = TestFixtures.state(200, 100, 300, 300).withDragging(true);
+        // 预热，让 JIT 完成编译
+        runDrag(reducer, start, WARMUP_EVENTS);
+        long began = System.nanoTime();
+        runDrag(reducer, start, MEASURED_EVENTS);
+        long elapsedNanos = System.nanoTime() - began;
+        System.out.println(String.format(Locale.ROOT, "drag reduce: %d events in %.1f ms, %.0f events/s",
+                MEASURED_EVENTS, elapsedNanos / 1e6, MEASURED_EVENTS * 1e9 / elapsedNanos));
+    }
+
+    private static OverlayState runDrag(OverlayReducer reducer, OverlayState start, int count) {
+        OverlayState state = start;
+        for (int i = 0; i < count; i++) {
+            int direction = (i & 64) == 0 ? 1 : -1;
+            state = reducer.reduceDragMove(state, 3 * direction, 2 * direction, BOUNDS).getState();
+        }
+        return state;
+    }
+}
@@ -0,0 +1,204 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.core.graphics.Insets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.zimuzhedang.subtitleblocker.TestFixtures.settings;
+import static com.zimuzhedang.subtitleblocker.TestFixtures.state;
+
+public final class OverlayReducerTest {
+    private static final ScreenBounds BOUNDS = new ScreenBounds(1000, 2000, Insets.of(10, 20, 30, 40));
+    private static final OverlayReducer.Dimensions DIMENSIONS =
+            new OverlayReducer.Dimensions(300, 120, 45, 660, 240, 90);
+
+    @Test
+    public void boundsChanged_withRestoredState_jumpsWithoutClampOrAnimation() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings settings = settings(true, true, 5);
+        OverlayState restored = state(900, 300, 40, 1500);
+        OverlayReducer.Result result = reducer.reduce(
+                state(1800, 200, 100, 100), OverlayEvent.boundsChanged(restored), BOUNDS, settings);
+        Assert.assertEquals(900, result.getState().widthPx);
+        Assert.assertEquals(300, result.getState().heightPx);
+        Assert.assertEquals(40, result.getState().xPx);
+        Assert.assertEquals(1500, result.getState().yPx);
+        Assert.assertTrue(result.isAnimationChanged());
+        Assert.assertNull(result.getAnimation());
+        Assert.assertFalse(result.shouldPersistState());
+
+        OverlayReducer.Result clamped = reducer.reduce(
+                state(1800, 200, 100, 100), OverlayEvent.boundsChanged(null), BOUNDS, settings);
+        Assert.assertTrue(clamped.getState().widthPx < 1800);
+        Assert.assertEquals(AnimType.MOVE, clamped.getAnimation().type);
+    }
+
+    @Test
+    public void dragMove_clampsAndReturnsSameStateWhenPinned() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings settings = settings(true, true, 5);
+        OverlayState dragging = reducer.reduce(state(200, 100, 100, 100), OverlayEvent.dragStart(), BOUNDS, settings)
+                .getState();
+        OverlayState moved = reducer.reduce(dragging, OverlayEvent.dragMove(-500, -500), BOUNDS, settings).getState();
+        Assert.assertEquals(10, moved.xPx);
+        Assert.assertEquals(20, moved.yPx);
+        Assert.assertTrue(moved.isDragging);
+        OverlayReducer.Result pinned = reducer.reduce(moved, OverlayEvent.dragMove(-5, -5), BOUNDS, settings);
+        Assert.assertSame(moved, pinned.getState());
+        Assert.assertFalse(pinned.isAnimationChanged());
+    }
+
+    @Test
+    public void dragEnd_flingProjectsSnapsAndPersists() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        OverlayState dragging = state(200, 100, 500, 500).withDragging(true);
+        OverlayReducer.Result result = reducer.reduce(
+                dragging, OverlayEvent.dragEnd(1500f, 0f), BOUNDS, settings(true, true, 5));
+        OverlayState ended = result.getState();
+        Assert.assertFalse(ended.isDragging);
+        Assert.assertEquals(1000 - 30 - 200, ended.xPx);
+        Assert.assertTrue(result.shouldPersistState());
+        AnimationSpec anim = result.getAnimation();
+        Assert.assertNotNull(anim);
+        Assert.assertEquals(AnimType.MOVE, anim.type);
+        Assert.assertEquals(OverlayReducer.FLING_SETTLE_MS, anim.durationMs);
+        Assert.assertTrue(anim.velocityXPxPerSec > 0f);
+    }
+
+    @Test
+    public void resizeMove_clampsSizeThenPosition() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        OverlayState resizing = state(400, 200, 500, 100).withResizing(true);
+        OverlayState resized = reducer.reduce(
+                resizing, OverlayEvent.resizeMove(10000, -10000), BOUNDS, settings(true, true, 5)).getState();
+        Assert.assertEquals(800, resized.widthPx);
+        Assert.assertEquals(120, resized.heightPx);
+        Assert.assertEquals(1000 - 30 - 800, resized.xPx);
+        Assert.assertTrue(resized.isResizing);
+    }
+
+    @Test
+    public void closeClick_emitsSoundThenHideWithFade() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        OverlayState visible = state(200, 100, 100, 100);
+        OverlayReducer.Result result = reducer.reduce(
+                visible, OverlayEvent.closeClick(), BOUNDS, settings(true, true, 5));
+        List<OneShotEffect> effects = result.getEffects();
+        Assert.assertEquals(2, effects.size());
+        Assert.assertEquals(OneShotEffect.Type.PLAY_SOUND, effects.get(0).type);
+        Assert.assertEquals(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, effects.get(1).type);
+        Assert.assertEquals(OverlayReducer.FADE_ANIM_MS, effects.get(1).delayMs);
+        // 状态不变，淡出只由副作用驱动，不能留下等待渲染的动画规格
+        Assert.assertEquals(visible, result.getState());
+        Assert.assertFalse(result.isAnimationChanged());
+    }
+
+    @Test
+    public void transparencyToggle_schedulesAndCancelsRestore() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings settings = settings(true, true, 500);
+        OverlayReducer.Result on = reducer.reduce(
+                state(200, 100, 100, 100), OverlayEvent.transparencyToggle(), BOUNDS, settings);
+        Assert.assertTrue(on.getState().transparentMode);
+        Assert.assertEquals(OneShotEffect.Type.REQUEST_RESTORE_AFTER_DELAY, on.getEffects().get(0).type);
+        Assert.assertEquals(60_000L, on.getEffects().get(0).delayMs);
+        OverlayReducer.Result off = reducer.reduce(on.getState(), OverlayEvent.transparencyToggle(), BOUNDS, settings);
+        Assert.assertFalse(off.getState().transparentMode);
+        Assert.assertEquals(OneShotEffect.Type.CANCEL_RESTORE_DELAY, off.getEffects().get(0).type);
+
+        OverlayState unchanged = state(200, 100, 100, 100);
+        Assert.assertSame(unchanged, reducer.reduce(
+                unchanged, OverlayEvent.transparencyToggle(), BOUNDS, settings(false, true, 5)).getState());
+    }
+
+    @Test
+    public void settingsChanged_disablingToggleLeavesTransparentMode() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings previous = settings(true, true, 5);
+        OverlayState transparent = state(200, 100, 100, 100).withTransparentMode(true);
+        OverlayReducer.Result result = reducer.reduce(
+                transparent, OverlayEvent.settingsChanged(previous), BOUNDS, settings(false, true, 5));
+        Assert.assertFalse(result.getState().transparentMode);
+        Assert.assertFalse(result.getState().transparencyToggleEnabled);
+        Assert.assertEquals(1, result.getEffects().size());
+        Assert.assertEquals(OneShotEffect.Type.CANCEL_RESTORE_DELAY, result.getEffects().get(0).type);
+    }
+
+    @Test
+    public void minimizeToggle_clampsToDotSize() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        OverlayState nearBottom = state(200, 100, 900, 1900);
+        OverlayReducer.Result result = reducer.reduce(
+                nearBottom, OverlayEvent.minimizeToggle(), BOUNDS, settings(true, true, 5));
+        OverlayState minimized = result.getState();
+        Assert.assertTrue(minimized.isMinimized);
+        Assert.assertEquals(1000 - 30 - 90, minimized.xPx);
+        Assert.assertEquals(2000 - 40 - 90, minimized.yPx);
+        Assert.assertTrue(result.shouldPersistState());
+    }
+
+    @Test
+    public void dragMove_pinnedAtEdge_returnsSameInstance() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings settings = settings(true, true, 5);
+        OverlayState nearEdge = state(200, 100, 760, 300).withDragging(true);
+        OverlayState atEdge = reducer.reduce(nearEdge, OverlayEvent.dragMove(50, 0), BOUNDS, settings).getState();
+        Assert.assertEquals(1000 - 30 - 200, atEdge.xPx);
+
+        for (int i = 0; i < 100; i++) {
+            OverlayReducer.Result result = reducer.reduce(atEdge, OverlayEvent.dragMove(50, 0), BOUNDS, settings);
+            // 被边缘约束住的移动不生成新状态，也不触发动画
+            Assert.assertSame(atEdge, result.getState());
+            Assert.assertFalse(result.isAnimationChanged());
+        }
+    }
+
+    @Test
+    public void dragMove_afterInterleavedEvent_reseedsSessionFromNewState() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings settings = settings(true, true, 5);
+        OverlayState dragging = reducer.reduce(state(200, 100, 100, 300), OverlayEvent.dragStart(), BOUNDS, settings)
+                .getState();
+        OverlayState moved = reducer.reduceDragMove(dragging, 500, 0, BOUNDS).getState();
+        Assert.assertEquals(600, moved.xPx);
+        // 拖拽中途最小化，会话必须按圆点尺寸重新约束，而不是沿用窗口尺寸
+        OverlayState minimized = reducer.reduce(moved, OverlayEvent.minimizeToggle(), BOUNDS, settings).getState();
+        OverlayState pushed = reducer.reduceDragMove(minimized, 1000, 0, BOUNDS).getState();
+        Assert.assertEquals(1000 - 30 - 90, pushed.xPx);
+        Assert.assertTrue(pushed.isMinimized);
+
+        OverlayReducer.Result ended = reducer.reduce(pushed, OverlayEvent.dragEnd(0f, 0f), BOUNDS, settings);
+        Assert.assertFalse(ended.getState().isDragging);
+        Assert.assertEquals(pushed.xPx, ended.getState().xPx);
+    }
+
+    @Test
+    public void resizeMove_keepsSessionAcrossMovesAndEndsOnResizeEnd() {
+        OverlayReducer reducer = new OverlayReducer(DIMENSIONS);
+        Settings settings = settings(true, true, 5);
+        OverlayState resizing = reducer.reduce(state(400, 200, 100, 100), OverlayEvent.resizeStart(), BOUNDS, settings)
+                .getState();
+        OverlayState state = resizing;
+        for (int i = 0; i < 10; i++) {
+            state = reducer.reduceResizeMove(state, -20, 10, BOUNDS).getState();
+        }
+        Assert.assertEquals(300, state.widthPx);
+        Assert.assertEquals(300, state.heightPx);
+        Assert.assertTrue(state.isResizing);
+        OverlayReducer.Result pinned = reducer.reduceResizeMove(state, -20, 0, BOUNDS);
+        Assert.assertSame(state, pinned.getState());
+
+        OverlayReducer.Result ended = reducer.reduce(state, OverlayEvent.resizeEnd(), BOUNDS, settings);
+        Assert.assertFalse(ended.getState().isResizing);
+        Assert.assertTrue(ended.shouldPersistState());
+        // 会话已随缩放结束，之后的拖拽从最新状态开始
+        OverlayState dragged = reducer.reduceDragMove(
+                reducer.reduce(ended.getState(), OverlayEvent.dragStart(), BOUNDS, settings).getState(), 5, 0, BOUNDS)
+                .getState();
+        Assert.assertEquals(105, dragged.xPx);
+        Assert.assertEquals(300, dragged.widthPx);
+    }
+}
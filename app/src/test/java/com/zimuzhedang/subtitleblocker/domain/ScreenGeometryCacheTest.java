@@ -0,0 +1,61 @@
+package com.zimuzhedang.subtitleblocker.domain;
+
+import androidx.core.graphics.Insets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.zimuzhedang.subtitleblocker.TestFixtures.state;
+
+public final class ScreenGeometryCacheTest {
+    private static final ScreenBounds PORTRAIT = new ScreenBounds(1080, 2340, Insets.of(0, 80, 0, 48));
+    private static final ScreenBounds LANDSCAPE = new ScreenBounds(2340, 1080, Insets.of(80, 0, 48, 0));
+
+    @Test
+    public void key_matchesOnlyIdenticalConfiguration() {
+        Assert.assertEquals(ScreenGeometryCache.Key.of(PORTRAIT, 2750), ScreenGeometryCache.Key.of(PORTRAIT, 2750));
+        Assert.assertEquals(ScreenGeometryCache.Key.of(PORTRAIT, 2750).hashCode(),
+                ScreenGeometryCache.Key.of(PORTRAIT, 2750).hashCode());
+        Assert.assertNotEquals(ScreenGeometryCache.Key.of(PORTRAIT, 2750), ScreenGeometryCache.Key.of(LANDSCAPE, 2750));
+        Assert.assertNotEquals(ScreenGeometryCache.Key.of(PORTRAIT, 2750), ScreenGeometryCache.Key.of(PORTRAIT, 3000));
+        ScreenBounds otherInsets = new ScreenBounds(1080, 2340, Insets.of(0, 80, 0, 0));
+        Assert.assertNotEquals(ScreenGeometryCache.Key.of(PORTRAIT, 2750), ScreenGeometryCache.Key.of(otherInsets, 2750));
+    }
+
+    @Test
+    public void restore_appliesRememberedGeometryPerConfiguration() {
+        ScreenGeometryCache cache = new ScreenGeometryCache();
+        ScreenGeometryCache.Key portrait = ScreenGeometryCache.Key.of(PORTRAIT, 2750);
+        ScreenGeometryCache.Key landscape = ScreenGeometryCache.Key.of(LANDSCAPE, 2750);
+        cache.remember(portrait, state(600, 200, 100, 1500));
+        cache.remember(landscape, state(1400, 180, 500, 800));
+
+        OverlayState current = state(1400, 180, 500, 800).withMinimized(true);
+        OverlayState restored = cache.restore(portrait, current);
+        Assert.assertNotNull(restored);
+        Assert.assertEquals(600, restored.widthPx);
+        Assert.assertEquals(200, restored.heightPx);
+        Assert.assertEquals(100, restored.xPx);
+        Assert.assertEquals(1500, restored.yPx);
+        Assert.assertTrue(restored.isMinimized);
+
+        OverlayState unchanged = state(1400, 180, 500, 800);
+        Assert.assertSame(unchanged, cache.restore(landscape, unchanged));
+        Assert.assertNull(cache.restore(ScreenGeometryCache.Key.of(PORTRAIT, 3000), unchanged));
+    }
+
+    @Test
+    public void remember_evictsLeastRecentlyUsedConfiguration() {
+        ScreenGeometryCache cache = new ScreenGeometryCache(2);
+        ScreenGeometryCache.Key a = ScreenGeometryCache.Key.of(PORTRAIT, 1);
+        ScreenGeometryCache.Key b = ScreenGeometryCache.Key.of(PORTRAIT, 2);
+        ScreenGeometryCache.Key c = ScreenGeometryCache.Key.of(PORTRAIT, 3);
+        cache.remember(a, state(300, 100, 0, 0));
+        cache.remember(b, state(300, 100, 0, 0));
+        Assert.assertNotNull(cache.restore(a, state(1, 1, 1, 1)));
+        cache.remember(c, state(300, 100, 0, 0));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.restore(a, state(1, 1, 1, 1)));
+        Assert.assertNull(cache.restore(b, state(1, 1, 1, 1)));
+    }
+}
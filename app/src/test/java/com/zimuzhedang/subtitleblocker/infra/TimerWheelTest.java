@@ -0,0 +1,188 @@
+package com.zimuzhedang.subtitleblocker.infra;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class TimerWheelTest {
+    private static final long TICK_MS = 10L;
+
+    /** 虚拟时钟与唤醒器：记录请求的唤醒时间，由测试把时钟拨到该时间后推进。 */
+    private static final class VirtualTime implements TimerWheel.Clock, TimerWheel.Waker {
+        long now = 1_000L;
+        long wakeAt = -1L;
+        Runnable advance;
+
+        @Override
+        public long nowMillis() {
+            return now;
+        }
+
+        @Override
+        public void wakeAfter(Runnable advance, long delayMs) {
+            this.advance = advance;
+            this.wakeAt = now + delayMs;
+        }
+
+        @Override
+        public void cancel(Runnable advance) {
+            wakeAt = -1L;
+        }
+
+        /** 依次执行所有不晚于 until 的唤醒，返回唤醒次数。 */
+        int runUntil(long until) {
+            int wakeups = 0;
+            while (wakeAt >= 0 && wakeAt <= until) {
+                now = Math.max(now, wakeAt);
+                wakeAt = -1L;
+                advance.run();
+                wakeups++;
+            }
+            now = Math.max(now, until);
+            return wakeups;
+        }
+    }
+
+    @Test
+    public void schedule_firesNoEarlierThanDeadlineAndWithinOneTick() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, 8);
+        long[] firedAt = {-1L};
+        wheel.schedule(() -> firedAt[0] = time.now, 320L);
+        time.runUntil(time.now + 319L);
+        Assert.assertEquals(-1L, firedAt[0]);
+        time.runUntil(time.now + 10_000L);
+        Assert.assertEquals(1_320L, firedAt[0]);
+        Assert.assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    public void schedule_beyondOneRevolutionWaitsForRemainingRounds() {
+        VirtualTime time = new VirtualTime();
+        // 一圈只有 80ms
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, 8);
+        long[] firedAt = {-1L};
+        wheel.schedule(() -> firedAt[0] = time.now, 60_000L);
+        time.runUntil(time.now + 59_999L);
+        Assert.assertEquals(-1L, firedAt[0]);
+        time.runUntil(time.now + 1_000L);
+        Assert.assertEquals(61_000L, firedAt[0]);
+    }
+
+    @Test
+    public void cancel_preventsExecutionAndStopsWakeups() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, 8);
+        boolean[] fired = {false};
+        TimerWheel.Timer timer = wheel.schedule(() -> fired[0] = true, 100L);
+        Assert.assertTrue(timer.cancel());
+        Assert.assertFalse(timer.cancel());
+        Assert.assertEquals(0, wheel.pendingCount());
+        Assert.assertEquals(0, time.runUntil(time.now + 1_000L));
+        Assert.assertFalse(fired[0]);
+    }
+
+    @Test
+    public void callback_canRescheduleAndCancelOtherTimers() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, 8);
+        List<String> log = new ArrayList<>();
+        TimerWheel.Timer restore = wheel.schedule(() -> log.add("restore"), 500L);
+        wheel.schedule(() -> {
+            log.add("hide");
+            restore.cancel();
+            wheel.schedule(() -> log.add("again"), 0L);
+        }, 320L);
+        time.runUntil(time.now + 1_000L);
+        Assert.assertEquals(2, log.size());
+        Assert.assertEquals("hide", log.get(0));
+        Assert.assertEquals("again", log.get(1));
+    }
+
+    @Test
+    public void schedule_afterLongIdle_doesNotReplayIdleTicks() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, TimerWheel.DEFAULT_WHEEL_SIZE);
+        wheel.schedule(() -> { }, 50L);
+        time.runUntil(time.now + 100L);
+        // 空闲一小时，期间没有任何唤醒
+        time.now += 60L * 60L * 1000L;
+        long visitsBefore = wheel.bucketVisits();
+        long[] firedAt = {-1L};
+        long scheduledAt = time.now;
+        wheel.schedule(() -> firedAt[0] = time.now, 100L);
+        time.runUntil(time.now + 1_000L);
+        Assert.assertEquals(scheduledAt + 100L, firedAt[0]);
+        Assert.assertEquals(1L, wheel.bucketVisits() - visitsBefore);
+    }
+
+    @Test
+    public void advance_withDistantTimer_visitsOnlyOccupiedBuckets() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, 8);
+        long[] firedAt = {-1L};
+        wheel.schedule(() -> firedAt[0] = time.now, 60_000L);
+        // 唤醒直接落在到期 tick 上，中间数百圈既不唤醒也不查看桶
+        Assert.assertEquals(1_000L + 60_000L, time.wakeAt);
+        time.now += 59_000L;
+        wheel.advance();
+        Assert.assertEquals(-1L, firedAt[0]);
+        Assert.assertEquals(0L, wheel.bucketVisits());
+        Assert.assertEquals(1, time.runUntil(time.now + 1_000L));
+        Assert.assertEquals(61_000L, firedAt[0]);
+        Assert.assertEquals(1L, wheel.bucketVisits());
+    }
+
+    @Test
+    public void advance_acrossSeveralRounds_firesInDeadlineOrder() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, 8);
+        List<String> log = new ArrayList<>();
+        wheel.schedule(() -> log.add("late"), 90L);
+        wheel.schedule(() -> log.add("early"), 20L);
+        wheel.schedule(() -> log.add("middle"), 50L);
+        time.now += 1_000L;
+        wheel.advance();
+        Assert.assertEquals(3, log.size());
+        Assert.assertEquals("early", log.get(0));
+        Assert.assertEquals("middle", log.get(1));
+        Assert.assertEquals("late", log.get(2));
+    }
+
+    @Test
+    public void virtualClock_runsHoursOfTimersQuickly() {
+        VirtualTime time = new VirtualTime();
+        TimerWheel wheel = new TimerWheel(time, time, TICK_MS, TimerWheel.DEFAULT_WHEEL_SIZE);
+        Random random = new Random(42L);
+        long threeHours = 3L * 60L * 60L * 1000L;
+        int count = 20_000;
+        int[] fired = {0};
+        long[] maxLateness = {0L};
+        List<TimerWheel.Timer> cancelled = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long delay = (long) (random.nextDouble() * threeHours);
+            long deadline = time.now + delay;
+            TimerWheel.Timer timer = wheel.schedule(() -> {
+                long lateness = time.now - deadline;
+                Assert.assertTrue(lateness >= 0L);
+                maxLateness[0] = Math.max(maxLateness[0], lateness);
+                fired[0]++;
+            }, delay);
+            if (i % 4 == 0) {
+                cancelled.add(timer);
+            }
+        }
+        for (TimerWheel.Timer timer : cancelled) {
+            timer.cancel();
+        }
+        int wakeups = time.runUntil(time.now + threeHours + 1_000L);
+        Assert.assertEquals(count - cancelled.size(), fired[0]);
+        Assert.assertEquals(0, wheel.pendingCount());
+        Assert.assertTrue(maxLateness[0] < TICK_MS);
+        // 每次唤醒只查看到期的那个非空桶，不逐个 tick 转动
+        Assert.assertTrue(wheel.bucketVisits() <= wakeups);
+    }
+}
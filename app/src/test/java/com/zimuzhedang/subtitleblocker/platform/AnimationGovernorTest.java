@@ -0,0 +1,46 @@
+package com.zimuzhedang.subtitleblocker.platform;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class AnimationGovernorTest {
+    private static final int THERMAL_NONE = 0;
+    private static final int THERMAL_LIGHT = 1;
+    private static final int THERMAL_MODERATE = 2;
+    private static final int THERMAL_SEVERE = 3;
+
+    @Test
+    public void levelFor_isFullWhenNothingLimitsAnimation() {
+        Assert.assertEquals(AnimationGovernor.Level.FULL,
+                AnimationGovernor.levelFor(false, THERMAL_NONE, true));
+    }
+
+    @Test
+    public void levelFor_stepsDownWithPowerSaveAndThermalStatus() {
+        Assert.assertEquals(AnimationGovernor.Level.REDUCED,
+                AnimationGovernor.levelFor(true, THERMAL_NONE, true));
+        Assert.assertEquals(AnimationGovernor.Level.REDUCED,
+                AnimationGovernor.levelFor(false, THERMAL_LIGHT, true));
+        Assert.assertEquals(AnimationGovernor.Level.MINIMAL,
+                AnimationGovernor.levelFor(true, THERMAL_LIGHT, true));
+        Assert.assertEquals(AnimationGovernor.Level.MINIMAL,
+                AnimationGovernor.levelFor(false, THERMAL_MODERATE, true));
+        Assert.assertEquals(AnimationGovernor.Level.STATIC,
+                AnimationGovernor.levelFor(false, THERMAL_SEVERE, true));
+    }
+
+    @Test
+    public void levelFor_isStaticWhileScreenIsOff() {
+        Assert.assertEquals(AnimationGovernor.Level.STATIC,
+                AnimationGovernor.levelFor(false, THERMAL_NONE, false));
+    }
+
+    @Test
+    public void levels_reduceFrameRateMonotonically() {
+        AnimationGovernor.Level[] levels = AnimationGovernor.Level.values();
+        for (int i = 1; i < levels.length; i++) {
+            Assert.assertTrue(levels[i].maxFps < levels[i - 1].maxFps);
+        }
+        Assert.assertFalse(AnimationGovernor.Level.STATIC.animated);
+    }
+}
@@ -0,0 +1,64 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class FlatBlockerLayoutTest {
+    private static final int EDGE = 10;
+    private static final int CORNER = 24;
+    private static final int BUTTON = 32;
+    private static final int MARGIN = 6;
+
+    @Test
+    public void hitTest_findsButtonsHandlesAndBody() {
+        FlatBlockerLayout layout = new FlatBlockerLayout(EDGE, CORNER, BUTTON, MARGIN);
+        layout.update(300, 100, false, true);
+        Assert.assertEquals(FlatBlockerLayout.REGION_CLOSE, layout.hitTest(300 - MARGIN - 1, MARGIN + 1));
+        Assert.assertEquals(FlatBlockerLayout.REGION_TRANSPARENCY, layout.hitTest(MARGIN + 1, MARGIN + 1));
+        Assert.assertEquals(FlatBlockerLayout.REGION_MINIMIZE, layout.hitTest(150, MARGIN + 16));
+        Assert.assertEquals(FlatBlockerLayout.REGION_RESIZE_CORNER, layout.hitTest(299, 99));
+        Assert.assertEquals(FlatBlockerLayout.REGION_RESIZE_RIGHT, layout.hitTest(295, 50));
+        Assert.assertEquals(FlatBlockerLayout.REGION_RESIZE_BOTTOM, layout.hitTest(100, 95));
+        Assert.assertEquals(FlatBlockerLayout.REGION_BODY, layout.hitTest(100, 60));
+        Assert.assertEquals(-1, layout.hitTest(300, 50));
+    }
+
+    @Test
+    public void hitTest_skipsHiddenTransparencyButton() {
+        FlatBlockerLayout layout = new FlatBlockerLayout(EDGE, CORNER, BUTTON, MARGIN);
+        layout.update(300, 100, false, false);
+        Assert.assertEquals(FlatBlockerLayout.REGION_BODY, layout.hitTest(MARGIN + 1, MARGIN + 1));
+    }
+
+    @Test
+    public void update_movesCloseButtonToTheLeftAboveTransparencyButton() {
+        FlatBlockerLayout layout = new FlatBlockerLayout(EDGE, CORNER, BUTTON, MARGIN);
+        layout.update(300, 100, true, true);
+        // 与原布局一致，两者重叠时后添加的透明切换按钮在上层
+        Assert.assertEquals(FlatBlockerLayout.REGION_TRANSPARENCY, layout.hitTest(MARGIN + 1, MARGIN + 1));
+        layout.update(300, 100, true, false);
+        Assert.assertEquals(FlatBlockerLayout.REGION_CLOSE, layout.hitTest(MARGIN + 1, MARGIN + 1));
+        Assert.assertEquals(FlatBlockerLayout.REGION_BODY, layout.hitTest(300 - MARGIN - BUTTON + 1, MARGIN + 1));
+    }
+
+    @Test
+    public void update_tracksNewSize() {
+        FlatBlockerLayout layout = new FlatBlockerLayout(EDGE, CORNER, BUTTON, MARGIN);
+        layout.update(300, 100, false, false);
+        layout.update(400, 200, false, false);
+        Assert.assertEquals(FlatBlockerLayout.REGION_RESIZE_CORNER, layout.hitTest(399, 199));
+        Assert.assertEquals(400 - EDGE, layout.getLeft(FlatBlockerLayout.REGION_RESIZE_RIGHT));
+    }
+
+    @Test
+    public void isButton_coversOnlyTheThreeButtons() {
+        Assert.assertFalse(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_BODY));
+        Assert.assertFalse(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_RESIZE_RIGHT));
+        Assert.assertFalse(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_RESIZE_BOTTOM));
+        Assert.assertFalse(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_RESIZE_CORNER));
+        Assert.assertTrue(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_CLOSE));
+        Assert.assertTrue(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_TRANSPARENCY));
+        Assert.assertTrue(FlatBlockerLayout.isButton(FlatBlockerLayout.REGION_MINIMIZE));
+        Assert.assertFalse(FlatBlockerLayout.isButton(-1));
+    }
+}
@@ -0,0 +1,238 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.view.Choreographer;
+
+import com.zimuzhedang.subtitleblocker.infra.PerfMetrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class GestureInputCoalescerTest {
+    private static final long MS = 1_000_000L;
+
+    private static final class ManualScheduler implements GestureInputCoalescer.FrameScheduler {
+        private Choreographer.FrameCallback pending;
+        private int posts;
+
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+            pending = callback;
+            posts++;
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            if (pending == callback) {
+                pending = null;
+            }
+        }
+
+        void runFrame(long frameTimeNanos) {
+            Choreographer.FrameCallback callback = pending;
+            pending = null;
+            if (callback != null) {
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+    }
+
+    private static final class RecordingSink implements GestureInputCoalescer.Sink {
+        private int x;
+        private int y;
+        private int width;
+        private int height;
+        private int dragFrames;
+        private int resizeFrames;
+
+        @Override
+        public void onDragFrame(int dxPx, int dyPx) {
+            x += dxPx;
+            y += dyPx;
+            dragFrames++;
+        }
+
+        @Override
+        public void onResizeFrame(int dwPx, int dhPx) {
+            width += dwPx;
+            height += dhPx;
+            resizeFrames++;
+        }
+
+        @Override
+        public void onPredictionFrame(int offsetXPx, int offsetYPx) {
+        }
+    }
+
+    /** 模拟下游把窗口 X 坐标约束在 [0, maxX] 内 */
+    private static final class ClampingSink implements GestureInputCoalescer.Sink {
+        private final int maxX;
+        private int x;
+        private int predictionX;
+        private int predictionFrames;
+
+        ClampingSink(int startX, int maxX) {
+            this.x = startX;
+            this.maxX = maxX;
+        }
+
+        @Override
+        public void onDragFrame(int dxPx, int dyPx) {
+            x = Math.max(0, Math.min(maxX, x + dxPx));
+        }
+
+        @Override
+        public void onResizeFrame(int dwPx, int dhPx) {
+        }
+
+        @Override
+        public void onPredictionFrame(int offsetXPx, int offsetYPx) {
+            predictionX = offsetXPx;
+            predictionFrames++;
+        }
+    }
+
+    @Test
+    public void doFrame_commitsAllSamplesOfFrameOnce() {
+        ManualScheduler scheduler = new ManualScheduler();
+        RecordingSink sink = new RecordingSink();
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 60f, scheduler, false);
+
+        for (int i = 0; i < 5; i++) {
+            coalescer.addDrag(2f, -1f, System.nanoTime(), 0f, 0f);
+            coalescer.addResize(1f, 3f);
+        }
+        Assert.assertEquals(1, scheduler.posts);
+        Assert.assertEquals(0, sink.dragFrames);
+
+        scheduler.runFrame(System.nanoTime());
+        Assert.assertEquals(1, sink.dragFrames);
+        Assert.assertEquals(1, sink.resizeFrames);
+        Assert.assertEquals(10, sink.x);
+        Assert.assertEquals(-5, sink.y);
+        Assert.assertEquals(5, sink.width);
+        Assert.assertEquals(15, sink.height);
+
+        coalescer.addDrag(4f, 0f, System.nanoTime(), 0f, 0f);
+        coalescer.addDrag(4f, 0f, System.nanoTime(), 0f, 0f);
+        Assert.assertEquals(2, scheduler.posts);
+        scheduler.runFrame(System.nanoTime());
+        Assert.assertEquals(2, sink.dragFrames);
+        Assert.assertEquals(1, sink.resizeFrames);
+        Assert.assertEquals(18, sink.x);
+    }
+
+    @Test
+    public void doFrame_carriesSubPixelRemainderToNextFrame() {
+        ManualScheduler scheduler = new ManualScheduler();
+        RecordingSink sink = new RecordingSink();
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 60f, scheduler, false);
+
+        // 每帧只有 0.25 像素，单独取整会全部丢失
+        for (int i = 0; i < 12; i++) {
+            coalescer.addDrag(0.25f, 0f, System.nanoTime(), 0f, 0f);
+            scheduler.runFrame(System.nanoTime());
+        }
+        Assert.assertEquals(3, sink.x);
+        Assert.assertEquals(3, sink.dragFrames);
+    }
+
+    @Test
+    public void flush_commitsPendingDeltaWithoutWaitingForFrame() {
+        ManualScheduler scheduler = new ManualScheduler();
+        RecordingSink sink = new RecordingSink();
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 60f, scheduler, false);
+
+        coalescer.addDrag(3.4f, 0f, System.nanoTime(), 0f, 0f);
+        coalescer.addDrag(3.4f, 0f, System.nanoTime(), 0f, 0f);
+        coalescer.flush();
+        Assert.assertEquals(7, sink.x);
+        Assert.assertEquals(1, sink.dragFrames);
+        Assert.assertNull(scheduler.pending);
+
+        // 上一手势的小数部分不带入下一手势
+        coalescer.addDrag(0.4f, 0f, System.nanoTime(), 0f, 0f);
+        scheduler.runFrame(System.nanoTime());
+        Assert.assertEquals(7, sink.x);
+    }
+
+    @Test
+    public void doFrame_lateCallback_countsDroppedFrames() {
+        ManualScheduler scheduler = new ManualScheduler();
+        RecordingSink sink = new RecordingSink();
+        // 10Hz 的帧间隔足够长，测试线程的调度抖动不会改变掉帧数
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 10f, scheduler, false);
+        long before = PerfMetrics.get(PerfMetrics.GESTURE_FRAMES_DROPPED);
+
+        coalescer.addDrag(1f, 0f, System.nanoTime(), 0f, 0f);
+        scheduler.runFrame(System.nanoTime());
+        Assert.assertEquals(before, PerfMetrics.get(PerfMetrics.GESTURE_FRAMES_DROPPED));
+
+        coalescer.addDrag(1f, 0f, System.nanoTime(), 0f, 0f);
+        scheduler.runFrame(System.nanoTime() - 350 * MS);
+        Assert.assertEquals(before + 3, PerfMetrics.get(PerfMetrics.GESTURE_FRAMES_DROPPED));
+        Assert.assertEquals(2, sink.dragFrames);
+    }
+
+    @Test
+    public void flush_afterReleaseAtEdge_keepsClampedFingerPosition() {
+        ManualScheduler scheduler = new ManualScheduler();
+        ClampingSink sink = new ClampingSink(80, 100);
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 60f, scheduler, false);
+        coalescer.setPredictionEnabled(true);
+
+        long base = System.nanoTime();
+        float rawX = 500f;
+        for (int i = 1; i <= 12; i++) {
+            rawX += 5f;
+            coalescer.addDrag(5f, 0f, base + i * 4 * MS, rawX, 0f);
+            if (i % 4 == 0) {
+                scheduler.runFrame(base + i * 4 * MS);
+            }
+        }
+        Assert.assertEquals(100, sink.x);
+        Assert.assertTrue(sink.predictionFrames > 0);
+        Assert.assertTrue(sink.predictionX > 0);
+
+        coalescer.flush();
+        Assert.assertEquals(100, sink.x);
+        Assert.assertEquals(0, sink.predictionX);
+    }
+
+    @Test
+    public void prediction_neverEntersCommittedDrag() {
+        ManualScheduler scheduler = new ManualScheduler();
+        ClampingSink sink = new ClampingSink(0, 10_000);
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 60f, scheduler, false);
+        coalescer.setPredictionEnabled(true);
+
+        long base = System.nanoTime();
+        for (int i = 1; i <= 8; i++) {
+            coalescer.addDrag(10f, 0f, base + i * 4 * MS, i * 10f, 0f);
+            if (i % 4 == 0) {
+                scheduler.runFrame(base + i * 4 * MS);
+                Assert.assertEquals(i * 10, sink.x);
+            }
+        }
+        coalescer.flush();
+        Assert.assertEquals(80, sink.x);
+        Assert.assertEquals(0, sink.predictionX);
+    }
+
+    @Test
+    public void reset_clearsPredictionOffset() {
+        ManualScheduler scheduler = new ManualScheduler();
+        ClampingSink sink = new ClampingSink(0, 10_000);
+        GestureInputCoalescer coalescer = new GestureInputCoalescer(sink, 60f, scheduler, false);
+        coalescer.setPredictionEnabled(true);
+
+        long base = System.nanoTime();
+        coalescer.addDrag(10f, 0f, base, 10f, 0f);
+        coalescer.addDrag(10f, 0f, base + 4 * MS, 20f, 0f);
+        scheduler.runFrame(base + 4 * MS);
+        Assert.assertTrue(sink.predictionX > 0);
+
+        coalescer.reset();
+        Assert.assertEquals(0, sink.predictionX);
+        Assert.assertEquals(20, sink.x);
+    }
+}
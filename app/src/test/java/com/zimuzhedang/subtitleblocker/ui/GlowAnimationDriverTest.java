@@ -0,0 +1,125 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.view.Choreographer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class GlowAnimationDriverTest {
+    private static final long VSYNC_NANOS = 16_666_667L;
+
+    @Test
+    public void doFrame_computesAllParametersFromOneTimestamp() {
+        RecordingSink sink = new RecordingSink();
+        FakeScheduler scheduler = new FakeScheduler();
+        GlowAnimationDriver driver = new GlowAnimationDriver(sink, scheduler);
+        driver.start();
+        scheduler.fire(1_000_000_000L);
+        // 呼吸周期的一半：缩放与透明度到达峰值
+        scheduler.fire(1_000_000_000L + 750_000_000L);
+        Assert.assertEquals(1.06f, sink.scale, 1e-4f);
+        Assert.assertEquals(1.0f, sink.alpha, 1e-4f);
+        Assert.assertEquals(30f, sink.rotation, 0.01f);
+        Assert.assertEquals(2, sink.frames);
+    }
+
+    @Test
+    public void doFrame_respectsFrameRateCap() {
+        RecordingSink sink = new RecordingSink();
+        FakeScheduler scheduler = new FakeScheduler();
+        GlowAnimationDriver driver = new GlowAnimationDriver(sink, scheduler);
+        driver.setMaxFps(30);
+        driver.start();
+        for (int i = 0; i < 59; i++) {
+            scheduler.fire(i * VSYNC_NANOS);
+        }
+        // 60Hz 的 vsync 下每两帧计算一次，计算后延迟请求下一帧
+        Assert.assertEquals(30, sink.frames);
+        Assert.assertTrue(scheduler.lastDelayMs > 0L);
+    }
+
+    @Test
+    public void stop_cancelsFrameAndRestoresRestingValues() {
+        RecordingSink sink = new RecordingSink();
+        FakeScheduler scheduler = new FakeScheduler();
+        GlowAnimationDriver driver = new GlowAnimationDriver(sink, scheduler);
+        driver.start();
+        scheduler.fire(0L);
+        scheduler.fire(300_000_000L);
+        driver.stop();
+        Assert.assertNull(scheduler.pending);
+        Assert.assertFalse(driver.isRunning());
+        Assert.assertEquals(1.0f, sink.scale, 0f);
+        Assert.assertEquals(1.0f, sink.alpha, 0f);
+        Assert.assertEquals(0f, sink.rotation, 0f);
+        Assert.assertEquals(1.0f, sink.flicker, 0f);
+    }
+
+    @Test
+    public void doFrame_onlyBreathesAlphaWhenRotationDisabled() {
+        RecordingSink sink = new RecordingSink();
+        FakeScheduler scheduler = new FakeScheduler();
+        GlowAnimationDriver driver = new GlowAnimationDriver(sink, scheduler);
+        driver.setRotateEnabled(false);
+        driver.start();
+        scheduler.fire(0L);
+        scheduler.fire(750_000_000L);
+        Assert.assertEquals(1.0f, sink.scale, 0f);
+        Assert.assertEquals(0f, sink.rotation, 0f);
+        Assert.assertEquals(1.0f, sink.alpha, 1e-4f);
+    }
+
+    @Test
+    public void keyframes_matchValueAnimatorSegments() {
+        float[] keys = {0.96f, 1.08f, 0.88f, 1.12f, 0.94f};
+        Assert.assertEquals(0.96f, GlowAnimationDriver.keyframes(keys, 0f), 1e-6f);
+        Assert.assertEquals(1.08f, GlowAnimationDriver.keyframes(keys, 0.25f), 1e-6f);
+        Assert.assertEquals(1.0f, GlowAnimationDriver.keyframes(keys, 0.625f), 1e-6f);
+        Assert.assertEquals(0.94f, GlowAnimationDriver.keyframes(keys, 1f), 1e-6f);
+        Assert.assertEquals(0.5f, GlowAnimationDriver.accelerateDecelerate(0.5f), 1e-6f);
+    }
+
+    private static final class RecordingSink implements GlowAnimationDriver.Sink {
+        int frames;
+        float scale;
+        float alpha;
+        float rotation;
+        float flicker;
+
+        @Override
+        public void onGlowFrame(float scale, float alpha, float rayRotation, float flicker) {
+            frames++;
+            this.scale = scale;
+            this.alpha = alpha;
+            this.rotation = rayRotation;
+            this.flicker = flicker;
+        }
+    }
+
+    /** 忽略延迟、由测试手动触发的帧调度器。 */
+    private static final class FakeScheduler implements GlowAnimationDriver.FrameScheduler {
+        Choreographer.FrameCallback pending;
+        long lastDelayMs;
+
+        @Override
+        public void postFrameCallbackDelayed(Choreographer.FrameCallback callback, long delayMs) {
+            pending = callback;
+            lastDelayMs = delayMs;
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            if (pending == callback) {
+                pending = null;
+            }
+        }
+
+        void fire(long frameTimeNanos) {
+            Choreographer.FrameCallback callback = pending;
+            pending = null;
+            if (callback != null) {
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+    }
+}
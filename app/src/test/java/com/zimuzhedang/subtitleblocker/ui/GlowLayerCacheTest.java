@@ -0,0 +1,75 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class GlowLayerCacheTest {
+    @Test
+    public void bucketSize_roundsUpToStep() {
+        Assert.assertEquals(16, GlowLayerCache.bucketSize(0));
+        Assert.assertEquals(16, GlowLayerCache.bucketSize(1));
+        Assert.assertEquals(16, GlowLayerCache.bucketSize(16));
+        Assert.assertEquals(32, GlowLayerCache.bucketSize(17));
+        Assert.assertEquals(608, GlowLayerCache.bucketSize(600));
+    }
+
+    @Test
+    public void bucketSize_sharesKeyAcrossNearbySliderSizes() {
+        int key = GlowLayerCache.bucketSize(97);
+        for (int size = 97; size <= 112; size++) {
+            Assert.assertEquals(key, GlowLayerCache.bucketSize(size));
+            Assert.assertTrue(GlowLayerCache.bucketSize(size) >= size);
+        }
+    }
+
+    @Test
+    public void layerAlpha_matchesDirectDrawingAtEveryPulse() {
+        Assert.assertEquals(238, GlowLayerCache.highlightAlpha(1f));
+        Assert.assertEquals(255, GlowLayerCache.highlightAlpha(1.22f));
+        Assert.assertEquals(181, GlowLayerCache.highlightAlpha(0.76f));
+        Assert.assertEquals(122, GlowLayerCache.haloAlpha(1f));
+        Assert.assertEquals(149, GlowLayerCache.haloAlpha(1.22f));
+        Assert.assertEquals(228, GlowLayerCache.bodyAlpha(1f));
+        Assert.assertEquals(233, GlowLayerCache.bodyAlpha(1.22f));
+    }
+
+    @Test
+    public void effectiveAlpha_matchesDirectDrawingAcrossFlickerRange() {
+        // 光点视图把脉动限制在 [0.76, 1.22]，闪烁动画的关键帧 1.08 与 1.12 单独覆盖
+        float[] pulses = {0.76f, 0.9f, 1f, 1.07f, 1.08f, 1.12f, 1.15f, 1.22f};
+        for (float pulse : pulses) {
+            String message = "pulse " + pulse;
+            float bodyPulse = 0.9f + pulse * 0.1f;
+            Assert.assertEquals(message, baseline(122f * pulse),
+                    effective(GlowLayerCache.HALO_BAKED_ALPHA, GlowLayerCache.haloAlpha(pulse)), 1);
+            Assert.assertEquals(message, baseline(146f * bodyPulse),
+                    effective(GlowLayerCache.BLOOM_BAKED_ALPHA, GlowLayerCache.bodyAlpha(pulse)), 1);
+            Assert.assertEquals(message, baseline(228f * bodyPulse),
+                    effective(GlowLayerCache.CORE_BAKED_ALPHA, GlowLayerCache.bodyAlpha(pulse)), 1);
+            Assert.assertEquals(message, baseline(238f * pulse),
+                    effective(GlowLayerCache.HIGHLIGHT_BAKED_ALPHA, GlowLayerCache.highlightAlpha(pulse)), 1);
+            Assert.assertEquals(message, baseline(95f * (0.92f + pulse * 0.08f)), GlowLayerCache.rimAlpha(pulse));
+            Assert.assertEquals(message, baseline(172f * pulse), GlowLayerCache.sparkleAlpha(pulse));
+            Assert.assertEquals(message, baseline(114f * pulse), GlowLayerCache.smallSparkleAlpha(pulse));
+        }
+    }
+
+    @Test
+    public void budgetFor_holdsLargestDotAtHighestDensity() {
+        // 200dp 圆点在 xxxhdpi 下为 800px，三层 ARGB_8888 位图约 7.7MB
+        int oneEntry = GlowLayerCache.budgetFor(800, 1);
+        Assert.assertEquals(3 * 800 * 800 * 4, oneEntry);
+        Assert.assertEquals(2 * oneEntry, GlowLayerCache.budgetFor(800, 2));
+        Assert.assertTrue(GlowLayerCache.budgetFor(801, 1) > oneEntry);
+    }
+
+    /** 烘焙透明度与画笔透明度叠加后的实际透明度。 */
+    private static int effective(int bakedAlpha, int paintAlpha) {
+        return Math.round(bakedAlpha * paintAlpha / 255f);
+    }
+
+    /** 逐帧直接绘制时的透明度。 */
+    private static int baseline(float value) {
+        return Math.max(0, Math.min(255, Math.round(value)));
+    }
+}
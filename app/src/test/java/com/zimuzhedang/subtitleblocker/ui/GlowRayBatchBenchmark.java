@@ -0,0 +1,79 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import java.util.Locale;
+
+/**
+ * 光芒射线批量计算与逐条三角函数计算的耗时对比程序。
+ * 不属于单元测试，不参与测试任务；需要对比性能时在 JVM 上直接运行 main 方法。
+ *
+ * @author Trae
+ * @since 2026-10-18
+ */
+public final class GlowRayBatchBenchmark {
+    private static final int RAYS = 72;
+    private static final float CENTER = 50f;
+    private static final float RADIUS = 50f;
+    private static final int FRAMES = 200_000;
+
+    private GlowRayBatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        GlowRayBatch batch = new GlowRayBatch(RAYS, 20260329L);
+        batch.setSize(CENTER, CENTER, RADIUS);
+        float[] legacyFactors = new float[RAYS];
+        for (int i = 0; i < RAYS; i++) {
+            legacyFactors[i] = 0.3f + (i % 7) * 0.1f;
+        }
+        // 预热，让 JIT 完成编译
+        runLegacy(legacyFactors, FRAMES);
+        runBatched(batch, FRAMES);
+        long began = System.nanoTime();
+        float legacySink = runLegacy(legacyFactors, FRAMES);
+        long legacyNanos = System.nanoTime() - began;
+        began = System.nanoTime();
+        float batchedSink = runBatched(batch, FRAMES);
+        long batchedNanos = System.nanoTime() - began;
+        System.out.println(String.format(Locale.ROOT, "glow rays per frame: legacy %d ns, batched %d ns (%f)",
+                legacyNanos / FRAMES, batchedNanos / FRAMES, legacySink + batchedSink));
+    }
+
+    private static float runBatched(GlowRayBatch batch, int frames) {
+        float sink = 0f;
+        for (int frame = 0; frame < frames; frame++) {
+            batch.update(frame * 0.4f, 1f, true, frame * 16L);
+            for (int b = 0; b < GlowRayBatch.BUCKETS; b++) {
+                if (batch.getLineFloatCount(b) > 0) {
+                    sink += batch.getLines(b)[0] + batch.getAlpha(b) + batch.getStrokeWidth(b);
+                }
+            }
+        }
+        return sink;
+    }
+
+    /** 原先每条射线各自计算三角函数、颜色与线宽的做法，绘制调用以累加代替。 */
+    private static float runLegacy(float[] factors, int frames) {
+        float sink = 0f;
+        float twoPi = (float) (Math.PI * 2.0);
+        for (int frame = 0; frame < frames; frame++) {
+            float rotationRad = (float) Math.toRadians(frame * 0.4f);
+            float time = frame * 16L * 0.0036f;
+            float startRadius = RADIUS * 0.42f;
+            for (int i = 0; i < RAYS; i++) {
+                float angle = rotationRad + (twoPi * i / RAYS);
+                float energy = 0.82f + 0.18f * (float) Math.sin(time + i * 0.62f);
+                float endRadius = Math.max(startRadius + 1f, Math.min(RADIUS * 1.02f,
+                        RADIUS * (0.74f + factors[i] * 0.26f) * energy));
+                int alpha = Math.max(0, Math.min(255, Math.round((50f + 126f * factors[i]) * energy)));
+                int r = Math.max(0, Math.min(255, Math.round(158f + 20f * energy)));
+                int g = Math.max(0, Math.min(255, Math.round(219f + 24f * energy)));
+                int color = (alpha << 24) | (r << 16) | (g << 8) | 255;
+                float strokeWidth = Math.max(0.8f, RADIUS * (0.009f + 0.009f * factors[i]));
+                float cos = (float) Math.cos(angle);
+                float sin = (float) Math.sin(angle);
+                sink += CENTER + cos * startRadius + CENTER + sin * endRadius + (color & 0xFF) + strokeWidth;
+            }
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,60 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class GlowRayBatchTest {
+    private static final int RAYS = 72;
+    private static final float CENTER = 50f;
+    private static final float RADIUS = 50f;
+
+    @Test
+    public void sineTable_matchesMathWithinTableResolution() {
+        for (float rad = -20f; rad < 20f; rad += 0.013f) {
+            Assert.assertEquals(Math.sin(rad), GlowRayBatch.sin(rad), 0.01);
+            Assert.assertEquals(Math.cos(rad), GlowRayBatch.cos(rad), 0.01);
+        }
+    }
+
+    @Test
+    public void update_putsEveryRayIntoExactlyOneBucket() {
+        GlowRayBatch batch = newBatch();
+        batch.update(37f, 1.1f, true, 123_456L);
+        int floats = 0;
+        int usedBuckets = 0;
+        for (int b = 0; b < GlowRayBatch.BUCKETS; b++) {
+            floats += batch.getLineFloatCount(b);
+            if (batch.getLineFloatCount(b) > 0) {
+                usedBuckets++;
+                Assert.assertTrue(batch.getAlpha(b) > 0);
+            }
+        }
+        Assert.assertEquals(RAYS * 4, floats);
+        Assert.assertTrue(usedBuckets <= GlowRayBatch.BUCKETS);
+    }
+
+    @Test
+    public void update_raysStartOnInnerRingAlongRotatedDirections() {
+        GlowRayBatch batch = newBatch();
+        float rotation = 12.5f;
+        batch.update(rotation, 1f, false, 0L);
+        double step = Math.PI * 2.0 / RAYS;
+        for (int b = 0; b < GlowRayBatch.BUCKETS; b++) {
+            float[] lines = batch.getLines(b);
+            for (int i = 0; i < batch.getLineFloatCount(b); i += 4) {
+                double startDx = lines[i] - CENTER;
+                double startDy = lines[i + 1] - CENTER;
+                Assert.assertEquals(RADIUS * 0.42f, Math.hypot(startDx, startDy), 0.01);
+                double angle = Math.atan2(lines[i + 3] - CENTER, lines[i + 2] - CENTER) - Math.toRadians(rotation);
+                double k = angle / step;
+                Assert.assertEquals(Math.round(k), k, 1e-3);
+            }
+        }
+    }
+
+    private static GlowRayBatch newBatch() {
+        GlowRayBatch batch = new GlowRayBatch(RAYS, 20260329L);
+        batch.setSize(CENTER, CENTER, RADIUS);
+        return batch;
+    }
+}
@@ -0,0 +1,77 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import android.graphics.Rect;
+import android.view.View;
+
+import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
+import com.zimuzhedang.subtitleblocker.platform.FloatWindowController;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class OverlayViewBinderTest {
+    private static final class FakeWindowController implements FloatWindowController {
+        private boolean showing;
+        private final List<Long> fades = new ArrayList<>();
+
+        @Override
+        public void show(View contentView, Rect rectPx, int windowFlags) {
+            showing = true;
+        }
+
+        @Override
+        public void hide() {
+            showing = false;
+        }
+
+        @Override
+        public void release() {
+            showing = false;
+        }
+
+        @Override
+        public boolean isShowing() {
+            return showing;
+        }
+
+        @Override
+        public void update(Rect rectPx, AnimationSpec anim) {
+        }
+
+        @Override
+        public void fadeOut(long durationMs) {
+            fades.add(durationMs);
+        }
+
+        @Override
+        public void beginGesture() {
+        }
+
+        @Override
+        public void endGesture() {
+        }
+    }
+
+    @Test
+    public void fadeOut_whileShowing_fadesWindow() {
+        FakeWindowController controller = new FakeWindowController();
+        controller.showing = true;
+        OverlayViewBinder binder = new OverlayViewBinder(controller, null, null);
+
+        binder.fadeOut(300L);
+        Assert.assertEquals(1, controller.fades.size());
+        Assert.assertEquals(300L, (long) controller.fades.get(0));
+    }
+
+    @Test
+    public void fadeOut_whenHidden_isIgnored() {
+        FakeWindowController controller = new FakeWindowController();
+        OverlayViewBinder binder = new OverlayViewBinder(controller, null, null);
+
+        binder.fadeOut(300L);
+        Assert.assertTrue(controller.fades.isEmpty());
+    }
+}
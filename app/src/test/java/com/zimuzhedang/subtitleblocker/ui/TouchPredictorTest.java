@@ -0,0 +1,53 @@
+package com.zimuzhedang.subtitleblocker.ui;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class TouchPredictorTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void predict_extrapolatesConstantVelocity() {
+        TouchPredictor predictor = new TouchPredictor(16 * MS, 200f);
+        // 1 px/ms 向右、0.5 px/ms 向下
+        for (int i = 0; i <= 4; i++) {
+            predictor.addSample(i * 4 * MS, 100f + i * 4f, 50f + i * 2f);
+        }
+        Assert.assertTrue(predictor.predict(16 * MS + 8 * MS));
+        Assert.assertEquals(8f, predictor.getPredictedDx(), 0.01f);
+        Assert.assertEquals(4f, predictor.getPredictedDy(), 0.01f);
+    }
+
+    @Test
+    public void predict_isZeroWithSingleSampleOrAfterFingerStops() {
+        TouchPredictor predictor = new TouchPredictor(16 * MS, 200f);
+        predictor.addSample(0L, 0f, 0f);
+        Assert.assertFalse(predictor.predict(8 * MS));
+        predictor.addSample(4 * MS, 4f, 0f);
+        Assert.assertFalse(predictor.predict(4 * MS + 40 * MS));
+        Assert.assertEquals(0f, predictor.getPredictedDx(), 0f);
+    }
+
+    @Test
+    public void predict_clampsHorizonAndOffset() {
+        TouchPredictor predictor = new TouchPredictor(10 * MS, 5f);
+        predictor.addSample(0L, 0f, 0f);
+        predictor.addSample(4 * MS, 40f, 0f);
+        predictor.predict(4 * MS + 15 * MS);
+        Assert.assertEquals(5f, predictor.getPredictedDx(), 0.01f);
+    }
+
+    @Test
+    public void addSample_measuresErrorAgainstActualPosition() {
+        TouchPredictor predictor = new TouchPredictor(16 * MS, 200f);
+        predictor.addSample(0L, 0f, 0f);
+        predictor.addSample(4 * MS, 4f, 0f);
+        predictor.predict(12 * MS);
+        // 手指在 8ms 后停在 8px，12ms 处的实际位置为 8px，预测为 12px
+        predictor.addSample(8 * MS, 8f, 0f);
+        predictor.addSample(16 * MS, 8f, 0f);
+        Assert.assertEquals(1, predictor.getErrorSamples());
+        Assert.assertEquals(4f, predictor.getMeanErrorPx(), 0.01f);
+        Assert.assertEquals(4f, predictor.getMaxErrorPx(), 0.01f);
+    }
+}
@@ -0,0 +1,89 @@
+package com.zimuzhedang.subtitleblocker.vm;
+
+import com.zimuzhedang.subtitleblocker.domain.OneShotEffect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EffectChannelTest {
+    @Test
+    public void send_deliversInOrderWithoutOverwriting() {
+        EffectChannel channel = new EffectChannel(4);
+        List<OneShotEffect> received = new ArrayList<>();
+        channel.subscribe(received::add, OneShotEffect.Type.values());
+        OneShotEffect sound = new OneShotEffect(OneShotEffect.Type.PLAY_SOUND);
+        OneShotEffect hide = new OneShotEffect(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE);
+        channel.send(sound);
+        channel.send(hide);
+        Assert.assertEquals(2, received.size());
+        Assert.assertSame(sound, received.get(0));
+        Assert.assertSame(hide, received.get(1));
+    }
+
+    @Test
+    public void send_routesByTypeAndDeliversOnce() {
+        EffectChannel channel = new EffectChannel(4);
+        List<OneShotEffect> ui = new ArrayList<>();
+        List<OneShotEffect> window = new ArrayList<>();
+        channel.subscribe(ui::add, OneShotEffect.Type.PLAY_SOUND);
+        channel.subscribe(window::add, OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE);
+        channel.send(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
+        channel.send(new OneShotEffect(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE));
+        channel.send(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
+        Assert.assertEquals(1, ui.size());
+        Assert.assertEquals(1, window.size());
+        Assert.assertEquals(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, window.get(0).type);
+    }
+
+    @Test
+    public void send_fromSubscriberIsQueuedAfterCurrentEffect() {
+        EffectChannel channel = new EffectChannel(4);
+        List<OneShotEffect.Type> received = new ArrayList<>();
+        channel.subscribe(effect -> {
+            received.add(effect.type);
+            if (effect.type == OneShotEffect.Type.PLAY_SOUND) {
+                channel.send(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY));
+                received.add(OneShotEffect.Type.PLAY_SOUND);
+            }
+        }, OneShotEffect.Type.values());
+        channel.send(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
+        Assert.assertEquals(3, received.size());
+        Assert.assertEquals(OneShotEffect.Type.PLAY_SOUND, received.get(1));
+        Assert.assertEquals(OneShotEffect.Type.CANCEL_RESTORE_DELAY, received.get(2));
+    }
+
+    @Test
+    public void send_rejectsWhenFullInsteadOfOverwriting() {
+        EffectChannel channel = new EffectChannel(2);
+        List<OneShotEffect> received = new ArrayList<>();
+        List<Boolean> accepted = new ArrayList<>();
+        channel.subscribe(effect -> {
+            received.add(effect);
+            if (received.size() == 1) {
+                // 分发期间连续发送，超出容量的部分被拒绝
+                for (int i = 0; i < 3; i++) {
+                    accepted.add(channel.send(new OneShotEffect(OneShotEffect.Type.CANCEL_RESTORE_DELAY)));
+                }
+            }
+        }, OneShotEffect.Type.values());
+        channel.send(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
+        Assert.assertTrue(accepted.get(0));
+        Assert.assertTrue(accepted.get(1));
+        Assert.assertFalse(accepted.get(2));
+        Assert.assertEquals(3, received.size());
+    }
+
+    @Test
+    public void unsubscribe_stopsDelivery() {
+        EffectChannel channel = new EffectChannel(4);
+        List<OneShotEffect> received = new ArrayList<>();
+        EffectChannel.Subscriber subscriber = received::add;
+        channel.subscribe(subscriber, OneShotEffect.Type.PLAY_SOUND);
+        channel.unsubscribe(subscriber);
+        channel.send(new OneShotEffect(OneShotEffect.Type.PLAY_SOUND));
+        Assert.assertTrue(received.isEmpty());
+    }
+}
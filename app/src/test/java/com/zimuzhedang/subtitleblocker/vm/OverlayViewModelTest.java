@@ -5,6 +5,7 @@ import com.zimuzhedang.subtitleblocker.domain.AnimType;
 import com.zimuzhedang.subtitleblocker.domain.AnimationSpec;
 import com.zimuzhedang.subtitleblocker.domain.CloseButtonPosition;
 import com.zimuzhedang.subtitleblocker.domain.OneShotEffect;
+import com.zimuzhedang.subtitleblocker.domain.OverlayReducer;
 import com.zimuzhedang.subtitleblocker.domain.OverlayState;
 import com.zimuzhedang.subtitleblocker.domain.ScreenBounds;
 import com.zimuzhedang.subtitleblocker.domain.Settings;
@@ -14,13 +15,21 @@ import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.core.graphics.Insets;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
 public final class OverlayViewModelTest {
     @Rule
     public final InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
 
+    /** 让参照组分配的状态逃逸，避免被 JIT 优化掉 */
+    private static volatile OverlayState stateSink;
+
     private static final class FakeSettingsRepository implements SettingsRepository {
         private Settings settings = new Settings(
                 CloseButtonPosition.RIGHT_TOP,
@@ -64,7 +73,8 @@ public final class OverlayViewModelTest {
     }
 
     private static final class FakeScreenInfoProvider implements ScreenInfoProvider {
-        private final ScreenBounds bounds = new ScreenBounds(1080, 1920, Insets.of(0, 24, 0, 0));
+        private ScreenBounds bounds = new ScreenBounds(1080, 1920, Insets.of(0, 24, 0, 0));
+        private ScreenInfoProvider.Listener listener;
         @Override
         public ScreenBounds getCurrentBounds() {
             return bounds;
@@ -73,6 +83,18 @@ public final class OverlayViewModelTest {
         public int dpToPx(float dp) {
             return Math.round(dp * 3);
         }
+        @Override
+        public void setListener(ScreenInfoProvider.Listener listener) {
+            this.listener = listener;
+        }
+
+        void rotate(ScreenBounds latest) {
+            bounds = latest;
+            listener.onScreenChanged();
+        }
+        @Override
+        public void invalidate() {
+        }
     }
 
     @Test
@@ -106,13 +128,14 @@ public final class OverlayViewModelTest {
         FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
         OverlayViewModel vm = new OverlayViewModel(repo, screen);
         vm.onRequestShow(true);
+        AnimationSpec before = vm.getAnimationSpec().getValue();
+        List<OneShotEffect> effects = recordEffects(vm);
         vm.onCloseClick();
-        AnimationSpec anim = vm.getAnimationSpec().getValue();
-        OneShotEffect eff = vm.getEffect().getValue();
-        Assert.assertNotNull(anim);
-        Assert.assertEquals(AnimType.FADE, anim.type);
+        OneShotEffect eff = effects.isEmpty() ? null : effects.get(effects.size() - 1);
         Assert.assertNotNull(eff);
         Assert.assertEquals(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, eff.type);
+        Assert.assertEquals(OverlayReducer.FADE_ANIM_MS, eff.delayMs);
+        Assert.assertSame(before, vm.getAnimationSpec().getValue());
     }
 
     @Test
@@ -121,13 +144,55 @@ public final class OverlayViewModelTest {
         FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
         OverlayViewModel vm = new OverlayViewModel(repo, screen);
         vm.onRequestShow(true);
+        AnimationSpec before = vm.getAnimationSpec().getValue();
+        List<OneShotEffect> effects = recordEffects(vm);
         vm.onRequestHide();
-        AnimationSpec anim = vm.getAnimationSpec().getValue();
-        OneShotEffect eff = vm.getEffect().getValue();
-        Assert.assertNotNull(anim);
-        Assert.assertEquals(AnimType.FADE, anim.type);
+        OneShotEffect eff = effects.isEmpty() ? null : effects.get(effects.size() - 1);
         Assert.assertNotNull(eff);
         Assert.assertEquals(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, eff.type);
+        Assert.assertEquals(OverlayReducer.FADE_ANIM_MS, eff.delayMs);
+        Assert.assertSame(before, vm.getAnimationSpec().getValue());
+    }
+
+    @Test
+    public void close_hiddenRenderDoesNotReuseFade() {
+        FakeSettingsRepository repo = new FakeSettingsRepository();
+        FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
+        OverlayViewModel vm = new OverlayViewModel(repo, screen);
+        vm.onRequestShow(true);
+        // 与运行时相同的订阅方式：动画规格先到，随后渲染的状态带上它
+        AnimationSpec[] pending = new AnimationSpec[1];
+        List<OverlayState> renderedStates = new ArrayList<>();
+        List<AnimationSpec> renderedAnims = new ArrayList<>();
+        vm.getAnimationSpec().subscribe(spec -> pending[0] = spec);
+        pending[0] = null;
+        vm.getOverlayState().subscribe(state -> {
+            renderedStates.add(state);
+            renderedAnims.add(pending[0]);
+            pending[0] = null;
+        });
+        renderedStates.clear();
+        renderedAnims.clear();
+
+        vm.onCloseClick();
+        Assert.assertTrue(renderedStates.isEmpty());
+        vm.onOverlayHidden();
+        Assert.assertEquals(1, renderedStates.size());
+        Assert.assertFalse(renderedStates.get(0).visible);
+        Assert.assertNull(renderedAnims.get(0));
+    }
+
+    @Test
+    public void boundsChanged_withoutStateChange_publishesNoAnimation() {
+        FakeSettingsRepository repo = new FakeSettingsRepository();
+        FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
+        OverlayViewModel vm = new OverlayViewModel(repo, screen);
+        vm.onRequestShow(true);
+        OverlayState before = vm.getOverlayState().getValue();
+        AnimationSpec anim = vm.getAnimationSpec().getValue();
+        screen.rotate(screen.getCurrentBounds());
+        Assert.assertEquals(before, vm.getOverlayState().getValue());
+        Assert.assertSame(anim, vm.getAnimationSpec().getValue());
     }
 
     @Test
@@ -135,8 +200,132 @@ public final class OverlayViewModelTest {
         FakeSettingsRepository repo = new FakeSettingsRepository();
         FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
         OverlayViewModel vm = new OverlayViewModel(repo, screen);
+        List<OneShotEffect> effects = recordEffects(vm);
+        vm.onRequestShow(true);
+        for (OneShotEffect eff : effects) {
+            Assert.assertNotEquals(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, eff.type);
+        }
+    }
+
+    @Test
+    public void close_deliversSoundBeforeHideWithoutOverwriting() {
+        FakeSettingsRepository repo = new FakeSettingsRepository();
+        FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
+        OverlayViewModel vm = new OverlayViewModel(repo, screen);
+        vm.onRequestShow(true);
+        List<OneShotEffect> effects = recordEffects(vm);
+        vm.onCloseClick();
+        Assert.assertEquals(2, effects.size());
+        Assert.assertEquals(OneShotEffect.Type.PLAY_SOUND, effects.get(0).type);
+        Assert.assertEquals(OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE, effects.get(1).type);
+    }
+
+    private static List<OneShotEffect> recordEffects(OverlayViewModel vm) {
+        List<OneShotEffect> effects = new ArrayList<>();
+        vm.getEffects().subscribe(effects::add, OneShotEffect.Type.values());
+        return effects;
+    }
+
+    @Test
+    public void dragEnd_flingSettlesAtProjectedEdgeInOneAnimation() {
+        FakeSettingsRepository repo = new FakeSettingsRepository();
+        FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
+        OverlayViewModel vm = new OverlayViewModel(repo, screen);
+        vm.onRequestShow(true);
+        vm.onDragStart();
+        vm.onDragMove(10, 0);
+        vm.onDragEnd(3000f, 0f);
+        OverlayState state = vm.getOverlayState().getValue();
+        AnimationSpec anim = vm.getAnimationSpec().getValue();
+        Assert.assertNotNull(state);
+        Assert.assertFalse(state.isDragging);
+        Assert.assertEquals(1080 - state.widthPx, state.xPx);
+        Assert.assertEquals(state, repo.loadLastOverlayState());
+        Assert.assertNotNull(anim);
+        Assert.assertEquals(AnimType.MOVE, anim.type);
+        Assert.assertEquals(3000f, anim.velocityXPxPerSec, 0.001f);
+        Assert.assertEquals(0f, anim.velocityYPxPerSec, 0.001f);
+    }
+
+    @Test
+    public void rotation_restoresLayoutOfEachOrientation() {
+        FakeSettingsRepository repo = new FakeSettingsRepository();
+        FakeScreenInfoProvider screen = new FakeScreenInfoProvider();
+        ScreenBounds portrait = screen.bounds;
+        ScreenBounds landscape = new ScreenBounds(1920, 1080, Insets.of(24, 0, 0, 0));
+        OverlayViewModel vm = new OverlayViewModel(repo, screen);
+        vm.onRequestShow(true);
+        vm.onResizeStart();
+        vm.onResizeMove(300, 0);
+        vm.onResizeEnd();
+        vm.onDragStart();
+        vm.onDragMove(0, 300);
+        vm.onDragEnd(0f, 0f);
+        OverlayState portraitState = vm.getOverlayState().getValue();
+
+        screen.rotate(landscape);
+        vm.onDragStart();
+        vm.onDragMove(-200, -400);
+        vm.onDragEnd(0f, 0f);
+        OverlayState landscapeState = vm.getOverlayState().getValue();
+
+        screen.rotate(portrait);
+        assertSameGeometry(portraitState, vm.getOverlayState().getValue());
+        Assert.assertNull(vm.getAnimationSpec().getValue());
+
+        screen.rotate(landscape);
+        assertSameGeometry(landscapeState, vm.getOverlayState().getValue());
+        Assert.assertNull(vm.getAnimationSpec().getValue());
+    }
+
+    @Test
+    public void dragMove_allocatesOnlyThePublishedState() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        OverlayViewModel vm = new OverlayViewModel(new FakeSettingsRepository(), new FakeScreenInfoProvider());
         vm.onRequestShow(true);
-        OneShotEffect eff = vm.getEffect().getValue();
-        Assert.assertTrue(eff == null || eff.type != OneShotEffect.Type.REQUEST_HIDE_AFTER_FADE);
+        vm.getOverlayState().subscribe(value -> {
+        });
+        vm.onDragStart();
+        OverlayState reference = vm.getOverlayState().getValue();
+        // 预热，让 JIT 完成编译，避免把类加载等一次性开销计入测量
+        runDragMoves(vm, 200_000);
+        runStateAllocations(reference, 200_000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        runDragMoves(vm, 1_000_000);
+        long moveBytes = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        before = allocationBean.getThreadAllocatedBytes(threadId);
+        runStateAllocations(reference, 1_000_000);
+        long stateBytes = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        // 每次移动只应分配发布出去的那一个状态对象，事件、结果、会话与订阅者遍历都不应产生分配
+        Assert.assertTrue("moves allocated " + moveBytes + " bytes, states " + stateBytes,
+                moveBytes <= stateBytes + 1024);
+    }
+
+    private static void runDragMoves(OverlayViewModel vm, int count) {
+        for (int i = 0; i < count; i++) {
+            int direction = (i & 64) == 0 ? 1 : -1;
+            vm.onDragMove(3 * direction, 2 * direction);
+        }
+    }
+
+    private static void runStateAllocations(OverlayState reference, int count) {
+        for (int i = 0; i < count; i++) {
+            stateSink = reference.withPosition(i, i);
+        }
+    }
+
+    private static void assertSameGeometry(OverlayState expected, OverlayState actual) {
+        Assert.assertEquals(expected.widthPx, actual.widthPx);
+        Assert.assertEquals(expected.heightPx, actual.heightPx);
+        Assert.assertEquals(expected.xPx, actual.xPx);
+        Assert.assertEquals(expected.yPx, actual.yPx);
     }
 }
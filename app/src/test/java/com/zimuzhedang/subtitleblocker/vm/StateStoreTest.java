@@ -0,0 +1,58 @@
+package com.zimuzhedang.subtitleblocker.vm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class StateStoreTest {
+    @Test
+    public void setValue_dropsEqualValues() {
+        StateStore<String> store = new StateStore<>("a");
+        List<String> received = new ArrayList<>();
+        store.subscribe(received::add);
+        Assert.assertFalse(store.setValue(new String("a")));
+        Assert.assertTrue(store.setValue("b"));
+        Assert.assertFalse(store.setValue("b"));
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("a", received.get(0));
+        Assert.assertEquals("b", received.get(1));
+    }
+
+    @Test
+    public void setValue_duringDispatch_isConflatedToLatest() {
+        StateStore<Integer> store = new StateStore<>(null);
+        List<Integer> first = new ArrayList<>();
+        List<Integer> second = new ArrayList<>();
+        store.subscribe(value -> {
+            first.add(value);
+            if (value != null && value == 1) {
+                store.setValue(2);
+                store.setValue(3);
+            }
+        });
+        store.subscribe(second::add);
+        store.setValue(1);
+        Assert.assertEquals(2, first.size());
+        Assert.assertEquals(Integer.valueOf(3), first.get(1));
+        // 第二个订阅者没有收到过期的中间值 1 和 2
+        Assert.assertEquals(1, second.size());
+        Assert.assertEquals(Integer.valueOf(3), second.get(0));
+    }
+
+    @Test
+    public void subscribe_replaysCurrentValueAndUnsubscribeStopsDelivery() {
+        StateStore<String> store = new StateStore<>(null);
+        List<String> received = new ArrayList<>();
+        StateStore.Subscriber<String> subscriber = received::add;
+        store.subscribe(subscriber);
+        Assert.assertTrue(received.isEmpty());
+        store.setValue("x");
+        store.unsubscribe(subscriber);
+        store.setValue("y");
+        store.subscribe(subscriber);
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("y", received.get(1));
+    }
+}